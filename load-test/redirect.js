@@ -0,0 +1,56 @@
+// Redirect load test, run with https://k6.io:
+//
+//   k6 run -e BASE_URL=http://localhost:9999 load-test/redirect.js
+//
+// Registers a user, shortens URLS links and then lets VUS clients follow random short codes
+// for DURATION without following the redirect. Run it once against the application started with
+// platform threads and once with the virtual-threads profile, and compare the summaries.
+// With -e API=v2 the codes are followed through the non-blocking /api/v2/r/{code} endpoint
+// (requires url.v2.enabled=true), which compares version 2 with version 1.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:9999';
+const URLS = parseInt(__ENV.URLS || '1000');
+const REDIRECT_PATH = __ENV.API === 'v2' ? '/api/v2/r/' : '/';
+
+export const options = {
+    setupTimeout: '5m',
+    scenarios: {
+        redirects: {
+            executor: 'constant-vus',
+            vus: parseInt(__ENV.VUS || '10000'),
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        http_req_duration: ['p(99)<500'],
+    },
+};
+
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+export function setup() {
+    const credentials = JSON.stringify({
+        username: `load${Date.now() % 100000000}`,
+        password: 'LoadTest1234',
+    });
+    http.post(`${BASE_URL}/api/v1/auth/register`, credentials, { headers: JSON_HEADERS });
+    const login = http.post(`${BASE_URL}/api/v1/auth/login`, credentials, { headers: JSON_HEADERS });
+    const headers = Object.assign({ Authorization: `Bearer ${login.json('token')}` }, JSON_HEADERS);
+
+    const codes = [];
+    for (let i = 0; i < URLS; i++) {
+        const response = http.post(`${BASE_URL}/api/v1/url/shortFromLong`,
+            JSON.stringify({ url: `https://example.com/load/${i}` }), { headers: headers });
+        codes.push(response.json('shortUrl'));
+    }
+    return { codes: codes };
+}
+
+export default function (data) {
+    const code = data.codes[Math.floor(Math.random() * data.codes.length)];
+    const response = http.get(`${BASE_URL}${REDIRECT_PATH}${code}`, { redirects: 0, tags: { name: 'redirect' } });
+    check(response, { 'redirected': (r) => r.status === 302 });
+}
@@ -0,0 +1,62 @@
+package com.goit.url_shortener.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of token issuing and verification in {@link JwtTokenProvider}.
+ *
+ * <p> The {@code cached} benchmarks repeat the same token and are served from the verified token cache.
+ * The {@code uncached} benchmarks use a provider with an empty cache, so every call decodes the token
+ * and checks its HMAC signature. </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJwtSigning";
+
+    private JwtTokenProvider cachingProvider;
+
+    private JwtTokenProvider uncachedProvider;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingProvider = new JwtTokenProvider(SECRET, 10_000);
+        uncachedProvider = new JwtTokenProvider(SECRET, 0);
+        token = cachingProvider.generateToken("benchmarkUser");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingProvider.generateToken("benchmarkUser");
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> verifyCached() {
+        return cachingProvider.verify(token);
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> verifyUncached() {
+        return uncachedProvider.verify(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenUncached() {
+        return uncachedProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractUsernameUncached() {
+        return uncachedProvider.extractUsernameFromToken(token);
+    }
+}
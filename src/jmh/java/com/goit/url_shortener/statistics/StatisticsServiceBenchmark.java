@@ -0,0 +1,165 @@
+package com.goit.url_shortener.statistics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.goit.url_shortener.security.AuthenticatedUserCache;
+import com.goit.url_shortener.security.AuthorizationService;
+import com.goit.url_shortener.security.JwtTokenProvider;
+import com.goit.url_shortener.url.UniqueVisitorCounter;
+import com.goit.url_shortener.url.dto.UrlRequest;
+import com.goit.url_shortener.user.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks of building and serializing the URL statistics of a user in {@link StatisticsService}.
+ *
+ * <p> The repository is replaced by an in-memory list and the user is served from the
+ * {@link AuthenticatedUserCache}, so the results show the cost of the service and the JSON output
+ * without the database. </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsServiceBenchmark {
+
+    private static final String TOKEN = "benchmarkToken";
+
+    @Param({"100", "10000"})
+    private int urlCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private StatisticsService statisticsService;
+
+    private UrlRequest request;
+
+    @Setup
+    public void setUp() {
+        List<StatsUrlDto> urls = new ArrayList<>(urlCount);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= urlCount; id++) {
+            urls.add(new StatsUrlDto(id, "code" + id, "https://example.com/" + id, id, true, now, null));
+        }
+
+        AuthenticatedUserCache userCache = new AuthenticatedUserCache(10, 3600);
+        userCache.put(TOKEN, User.builder().id(1L).username("benchmarkUser").build(),
+                Instant.now().plus(1, ChronoUnit.DAYS));
+        AuthorizationService authorizationService = new AuthorizationService(null,
+                new JwtTokenProvider("benchmarkSecret", 10), userCache);
+
+        statisticsService = new StatisticsService(null, authorizationService, null,
+                new UniqueVisitorCounter(null, null, false, 500),
+                new InMemoryStatisticsRepository(urls), objectMapper, 1000);
+        request = new UrlRequest();
+        request.setAuthorizationHeader("Bearer " + TOKEN);
+    }
+
+    @Benchmark
+    public byte[] allUrls() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(statisticsService.getAllUrlsByUser(request));
+    }
+
+    @Benchmark
+    public byte[] firstPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(statisticsService.getAllUrlsByUser(request, null, 100));
+    }
+
+    /**
+     * Repository serving a fixed list of URLs ordered by id, filtered and sorted in memory for sorted queries.
+     */
+    private record InMemoryStatisticsRepository(List<StatsUrlDto> urls) implements StatisticsRepository {
+
+        @Override
+        public StatsTotals findTotals(Long userId, boolean activeOnly, LocalDateTime now) {
+            long visits = 0;
+            for (StatsUrlDto url : urls) {
+                visits += url.getVisits();
+            }
+            return new StatsTotals((long) urls.size(), visits);
+        }
+
+        @Override
+        public List<StatsUrlDto> findAllByUser(Long userId, boolean activeOnly, LocalDateTime now) {
+            return urls;
+        }
+
+        @Override
+        public List<StatsUrlDto> findPageByUser(Long userId, boolean activeOnly, LocalDateTime now,
+                                                long afterId, Pageable pageable) {
+            int from = (int) Math.min(afterId, urls.size());
+            return urls.subList(from, Math.min(from + pageable.getPageSize(), urls.size()));
+        }
+
+        @Override
+        public Stream<StatsUrlDto> streamAllByUser(Long userId, boolean activeOnly, LocalDateTime now) {
+            return urls.stream();
+        }
+
+        @Override
+        public StatsTotals findFilteredTotals(Long userId, boolean activeOnly, LocalDateTime now, StatsQuery query) {
+            List<StatsUrlDto> matching = filter(query);
+            long visits = 0;
+            for (StatsUrlDto url : matching) {
+                visits += url.getVisits();
+            }
+            return new StatsTotals((long) matching.size(), visits);
+        }
+
+        @Override
+        public List<StatsUrlDto> findFilteredPage(Long userId, boolean activeOnly, LocalDateTime now,
+                                                  StatsQuery query, Long afterId, Integer limit) {
+            Function<StatsUrlDto, LocalDateTime> key = switch (query.sortKey().orElseThrow()) {
+                case ID -> url -> null;
+                case CREATED -> StatsUrlDto::getCreatedAt;
+                case EXPIRES -> StatsUrlDto::getExpiresAt;
+            };
+            Comparator<StatsUrlDto> order = Comparator.comparing(key, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(StatsUrlDto::getId);
+            if (query.direction().orElseThrow().isDescending()) {
+                order = order.reversed();
+            }
+            List<StatsUrlDto> sorted = new ArrayList<>(filter(query));
+            sorted.sort(order);
+
+            int from = 0;
+            if (afterId != null) {
+                while (from < sorted.size() && !sorted.get(from).getId().equals(afterId)) {
+                    from++;
+                }
+                from++;
+            }
+            from = Math.min(from, sorted.size());
+            return sorted.subList(from, limit == null ? sorted.size() : Math.min(from + limit, sorted.size()));
+        }
+
+        private List<StatsUrlDto> filter(StatsQuery query) {
+            return urls.stream()
+                    .filter(url -> inRange(url.getCreatedAt(), query.createdFrom(), query.createdTo()))
+                    .filter(url -> inRange(url.getExpiresAt(), query.expiresFrom(), query.expiresTo()))
+                    .filter(url -> query.sortKey().orElseThrow() != StatsSort.EXPIRES || url.getExpiresAt() != null)
+                    .toList();
+        }
+
+        private static boolean inRange(LocalDateTime value, LocalDateTime from, LocalDateTime to) {
+            if (from == null && to == null) {
+                return true;
+            }
+            return value != null && (from == null || !value.isBefore(from)) && (to == null || value.isBefore(to));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.goit.url_shortener.url;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link LongUrlValidator} against the former regular expression check.
+ *
+ * <p> Besides typical URLs, the inputs include adversarial URLs of {@value LongUrlValidator#MAX_URL_LENGTH}
+ * characters: one that is valid, one whose only invalid character is the last one, and one made of
+ * characters that need percent-encoding. </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongUrlValidatorBenchmark {
+
+    private static final String LEGACY_URL_REGEX = "^(http://|https://).+";
+
+    @Param({"short", "typical", "invalid-scheme", "max-length", "max-length-invalid-tail", "max-length-encoded"})
+    private String kind;
+
+    private final LongUrlValidator validator = new LongUrlValidator();
+
+    private String url;
+
+    @Setup
+    public void setUp() {
+        String prefix = "https://www.example.com/";
+        int padding = LongUrlValidator.MAX_URL_LENGTH - prefix.length();
+        url = switch (kind) {
+            case "short" -> "https://example.com";
+            case "typical" -> "https://www.example.com/articles/2025/01/benchmark?utm_source=news&utm_medium=email";
+            case "invalid-scheme" -> "ftp://example.com/file.txt";
+            case "max-length" -> prefix + "a".repeat(padding);
+            case "max-length-invalid-tail" -> prefix + "a".repeat(padding - 1) + " ";
+            case "max-length-encoded" -> prefix + "%2F".repeat(padding / 3);
+            default -> throw new IllegalArgumentException("Unknown kind: " + kind);
+        };
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(url);
+    }
+
+    @Benchmark
+    public String normalize() {
+        return validator.normalize(url);
+    }
+
+    @Benchmark
+    public boolean legacyRegex() {
+        return url.matches(LEGACY_URL_REGEX);
+    }
+}
@@ -0,0 +1,77 @@
+package com.goit.url_shortener.url.code;
+
+import com.goit.url_shortener.url.ShortUrlGenerator;
+import com.goit.url_shortener.url.UrlRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link ShortUrlGenerator#generateShortUrl()} with every {@link ShortCodeStrategy}.
+ *
+ * <p> The repository reports every code as unused, so the results show the cost of minting a code
+ * without the database round trip of strategies that are not collision-free. </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortUrlGeneratorBenchmark {
+
+    @Param({"random-thread-local", "random-secure", "sequence", "snowflake"})
+    private String strategy;
+
+    private ShortUrlGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new ShortUrlGenerator(createStrategy(strategy), unusedCodesRepository(), 5);
+    }
+
+    @Benchmark
+    public String generateShortUrl() {
+        return generator.generateShortUrl();
+    }
+
+    private static ShortCodeStrategy createStrategy(String name) {
+        return switch (name) {
+            case "random-thread-local" -> new RandomShortCodeStrategy("thread-local");
+            case "random-secure" -> new RandomShortCodeStrategy("secure");
+            case "sequence" -> new SequenceShortCodeStrategy(new InMemoryAllocator());
+            case "snowflake" -> new SnowflakeShortCodeStrategy(0);
+            default -> throw new IllegalArgumentException("Unknown strategy: " + name);
+        };
+    }
+
+    private static UrlRepository unusedCodesRepository() {
+        return (UrlRepository) Proxy.newProxyInstance(
+                UrlRepository.class.getClassLoader(),
+                new Class<?>[]{UrlRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("existsByShortUrl")) {
+                        return false;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Allocator handing out consecutive numbers without a database.
+     */
+    private static final class InMemoryAllocator extends SequenceBlockAllocator {
+
+        private long next = 1;
+
+        InMemoryAllocator() {
+            super(null, "url_shortener", "short_code_seq");
+        }
+
+        @Override
+        public long nextValue() {
+            return next++;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.goit.url_shortener.url.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the JSON serialization of {@link UrlResponse}, the body of most URL endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlResponseSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private UrlResponse created;
+
+    private UrlResponse failed;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        created = UrlResponse.success("aB3xY9k", "https://www.example.com/articles/2025/01/benchmark",
+                now, now.plusDays(30), "benchmarkUser", "URL has been created successfully.", HttpStatus.CREATED);
+        failed = UrlResponse.failed("URL could not be found.", HttpStatus.NOT_FOUND);
+    }
+
+    @Benchmark
+    public byte[] serializeCreated() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(created);
+    }
+
+    @Benchmark
+    public byte[] serializeFailed() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(failed);
+    }
+}
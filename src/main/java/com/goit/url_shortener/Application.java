@@ -2,8 +2,19 @@ package com.goit.url_shortener;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+/**
+ * Entry point of the URL shortener.
+ *
+ * <p> R2DBC is only used by the optional non-blocking version 2 of the API, which configures its own
+ * connection pool in {@link com.goit.url_shortener.v2.V2Configuration}. The auto-configuration is excluded
+ * so the application does not require an R2DBC URL and keeps a single JPA transaction manager. </p>
+ */
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
+@EnableScheduling
 public class Application {
 
     public static void main(String[] args) {
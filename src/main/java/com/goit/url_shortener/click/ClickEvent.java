@@ -0,0 +1,15 @@
+package com.goit.url_shortener.click;
+
+import java.time.Instant;
+
+/**
+ * A single redirect as captured on the request thread, before it is classified and written.
+ *
+ * @param urlId         The identifier of the visited URL.
+ * @param clickedAt     The time of the redirect.
+ * @param referrer      The value of the {@code Referer} header, or {@code null}.
+ * @param userAgent     The value of the {@code User-Agent} header, or {@code null}.
+ * @param remoteAddress The IP address of the client, or {@code null}.
+ */
+public record ClickEvent(long urlId, Instant clickedAt, String referrer, String userAgent, String remoteAddress) {
+}
@@ -0,0 +1,70 @@
+package com.goit.url_shortener.click;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Scheduled job creating the monthly partitions of the `clicks` table ahead of time.
+ *
+ * <p> At startup and then every {@code click.partition.check-interval-ms} the partitions of the current month
+ * and of the next {@code click.partition.months-ahead} months are created if they do not exist. Clicks outside
+ * of all monthly partitions end up in the default partition, so a missed run never fails inserts. Old months
+ * can be removed by dropping their partition. </p>
+ */
+@Service
+@Slf4j
+public class ClickPartitionManager {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String CREATE_PARTITION_SQL = """
+            CREATE TABLE IF NOT EXISTS url_shortener.clicks_%s
+            PARTITION OF url_shortener.clicks
+            FOR VALUES FROM ('%s-01') TO ('%s-01')""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+
+    /**
+     * Creates the partition manager.
+     *
+     * @param jdbcTemplate The JDBC template used to create the partitions.
+     * @param monthsAhead  The number of months after the current one that get a partition.
+     */
+    public ClickPartitionManager(JdbcTemplate jdbcTemplate,
+                                 @Value("${click.partition.months-ahead:2}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Creates the missing partitions of the current and the upcoming months.
+     */
+    @Scheduled(fixedDelayString = "${click.partition.check-interval-ms:86400000}")
+    public void createPartitions() {
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(month.plusMonths(i));
+        }
+    }
+
+    /**
+     * Creates the partition of the given month if it does not exist.
+     *
+     * @param month The month of the partition.
+     */
+    void createPartition(YearMonth month) {
+        try {
+            jdbcTemplate.execute(CREATE_PARTITION_SQL.formatted(month.format(SUFFIX), month, month.plusMonths(1)));
+        } catch (DataAccessException e) {
+            log.error("Failed to create the clicks partition of {}", month, e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.goit.url_shortener.click;
+
+import com.goit.url_shortener.util.MpscRingBuffer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service capturing redirects as click events and appending them to the `clicks` table.
+ *
+ * <p> The redirect thread only wraps the raw request data in a {@link ClickEvent} and offers it to a
+ * lock-free {@link MpscRingBuffer} of {@code click.buffer-capacity} events. When the buffer is full the
+ * event is dropped and counted, so a slow database never slows redirects down. Every
+ * {@code click.flush-interval-ms} the buffer is drained by a single writer, which classifies the user agent,
+ * reduces the referrer to its host, resolves the country with the {@link GeoIpResolver} and inserts the events
+ * with one JDBC batch per {@code click.batch-size} events. A batch that cannot be written is dropped as well;
+ * the `visits` counter of the URL is maintained separately by the {@code VisitCounter}. </p>
+ */
+@Service
+@Slf4j
+public class ClickRecorder {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO url_shortener.clicks (url_id, clicked_at, referrer, agent_class, country)
+            VALUES (?, ?, ?, ?, ?)""";
+
+    private static final int[] INSERT_TYPES = {Types.BIGINT, Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.CHAR};
+
+    private static final int MAX_REFERRER_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeoIpResolver geoIpResolver;
+    private final MpscRingBuffer<ClickEvent> buffer;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+    private volatile long lagMillis;
+
+    /**
+     * Creates the recorder.
+     *
+     * @param jdbcTemplate   The JDBC template used to insert the events.
+     * @param geoIpResolver  The resolver of client countries.
+     * @param enabled        Whether clicks are recorded.
+     * @param bufferCapacity The maximum number of events waiting to be written.
+     * @param batchSize      The maximum number of events inserted with a single batch.
+     */
+    public ClickRecorder(JdbcTemplate jdbcTemplate,
+                         GeoIpResolver geoIpResolver,
+                         @Value("${click.enabled:true}") boolean enabled,
+                         @Value("${click.buffer-capacity:65536}") int bufferCapacity,
+                         @Value("${click.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.geoIpResolver = geoIpResolver;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Records a redirect. Never blocks: if the buffer is full, the click is dropped.
+     *
+     * @param urlId         The identifier of the visited URL. {@code null} values are ignored.
+     * @param referrer      The value of the {@code Referer} header, or {@code null}.
+     * @param userAgent     The value of the {@code User-Agent} header, or {@code null}.
+     * @param remoteAddress The IP address of the client, or {@code null}.
+     */
+    public void record(Long urlId, String referrer, String userAgent, String remoteAddress) {
+        if (!enabled || urlId == null) {
+            return;
+        }
+        if (!buffer.offer(new ClickEvent(urlId, Instant.now(), referrer, userAgent, remoteAddress))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Drains the buffer and writes the events to the database.
+     */
+    @Scheduled(fixedDelayString = "${click.flush-interval-ms:1000}")
+    public void flush() {
+        List<ClickEvent> batch = new ArrayList<>(batchSize);
+        ClickEvent event;
+        while ((event = buffer.poll()) != null) {
+            if (batch.isEmpty()) {
+                lagMillis = Duration.between(event.clickedAt(), Instant.now()).toMillis();
+            }
+            batch.add(event);
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        } else {
+            lagMillis = 0;
+        }
+    }
+
+    /**
+     * Writes the pending events before the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Returns the number of events waiting to be written.
+     *
+     * @return The number of buffered events.
+     */
+    public int pending() {
+        return buffer.size();
+    }
+
+    /**
+     * Returns the age of the oldest event of the last written batch.
+     *
+     * @return The delay between a click and its write in milliseconds.
+     */
+    public long lagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full or the write failed.
+     *
+     * @return The number of dropped events since startup.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of events written to the database.
+     *
+     * @return The number of written events since startup.
+     */
+    public long written() {
+        return written.sum();
+    }
+
+    /**
+     * Returns the number of batches that could not be written.
+     *
+     * @return The number of failed writes since startup.
+     */
+    public long failedWrites() {
+        return failedWrites.sum();
+    }
+
+    private void write(List<ClickEvent> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (ClickEvent event : batch) {
+            rows.add(new Object[]{
+                    event.urlId(),
+                    Timestamp.from(event.clickedAt()),
+                    referrerHost(event.referrer()),
+                    UserAgentClass.of(event.userAgent()).name(),
+                    geoIpResolver.country(event.remoteAddress())});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, INSERT_TYPES);
+            written.add(rows.size());
+        } catch (DataAccessException e) {
+            failedWrites.increment();
+            dropped.add(rows.size());
+            log.error("Failed to write {} clicks, they are dropped", rows.size(), e);
+        }
+    }
+
+    /**
+     * Reduces a referrer to its host, so that no paths or query strings of other sites are stored.
+     */
+    static String referrerHost(String referrer) {
+        if (referrer == null || referrer.isBlank()) {
+            return null;
+        }
+        try {
+            String host = URI.create(referrer.trim()).getHost();
+            if (host == null) {
+                return null;
+            }
+            return host.length() > MAX_REFERRER_LENGTH ? host.substring(0, MAX_REFERRER_LENGTH) : host;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
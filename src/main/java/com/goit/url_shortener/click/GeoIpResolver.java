@@ -0,0 +1,149 @@
+package com.goit.url_shortener.click;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Resolves IPv4 addresses to ISO 3166 country codes using a local CSV file.
+ *
+ * <p> The file configured with {@code click.geoip.file} holds one range per line in the form
+ * {@code start,end,country[,...]}, where the bounds are either dotted IPv4 addresses or their decimal value
+ * and values may be quoted, as in the freely available IP-to-country databases. Ranges are kept in sorted
+ * arrays and looked up with a binary search. Without a file, or for IPv6 and private addresses,
+ * no country is resolved. </p>
+ */
+@Service
+@Slf4j
+public class GeoIpResolver {
+
+    private final long[] starts;
+    private final long[] ends;
+    private final String[] countries;
+
+    /**
+     * Loads the ranges from the configured file.
+     *
+     * @param file The path of the CSV file, or an empty string to disable resolution.
+     * @throws IOException if the file cannot be read.
+     */
+    public GeoIpResolver(@Value("${click.geoip.file:}") String file) throws IOException {
+        List<Range> ranges = file.isBlank() ? List.of() : load(Path.of(file));
+        this.starts = new long[ranges.size()];
+        this.ends = new long[ranges.size()];
+        this.countries = new String[ranges.size()];
+        for (int i = 0; i < ranges.size(); i++) {
+            Range range = ranges.get(i);
+            starts[i] = range.start();
+            ends[i] = range.end();
+            countries[i] = range.country();
+        }
+        if (!file.isBlank()) {
+            log.info("Loaded {} GeoIP ranges from {}", ranges.size(), file);
+        }
+    }
+
+    /**
+     * Resolves the country of an IPv4 address.
+     *
+     * @param address The address in dotted form.
+     * @return The two-letter country code, or {@code null} if it is unknown.
+     */
+    public String country(String address) {
+        if (starts.length == 0 || address == null) {
+            return null;
+        }
+        long ip = parseIpv4(address);
+        if (ip < 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(starts, ip);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return index >= 0 && ip <= ends[index] ? countries[index] : null;
+    }
+
+    private static List<Range> load(Path path) throws IOException {
+        List<Range> ranges = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",", 4);
+                if (fields.length < 3) {
+                    continue;
+                }
+                long start = parseBound(unquote(fields[0]));
+                long end = parseBound(unquote(fields[1]));
+                String country = unquote(fields[2]);
+                if (start < 0 || end < start || country.length() != 2) {
+                    continue;
+                }
+                ranges.add(new Range(start, end, country));
+            }
+        }
+        ranges.sort(Comparator.comparingLong(Range::start));
+        return ranges;
+    }
+
+    private static long parseBound(String value) {
+        if (value.indexOf('.') >= 0) {
+            return parseIpv4(value);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parses a dotted IPv4 address.
+     *
+     * @return The address as an unsigned 32-bit value, or -1 if it is not a valid IPv4 address.
+     */
+    static long parseIpv4(String address) {
+        long result = 0;
+        int octets = 0;
+        int value = -1;
+        for (int i = 0; i <= address.length(); i++) {
+            char c = i < address.length() ? address.charAt(i) : '.';
+            if (c == '.') {
+                if (value < 0 || ++octets > 4) {
+                    return -1;
+                }
+                result = result << 8 | value;
+                value = -1;
+            } else if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 255) {
+                    return -1;
+                }
+            } else {
+                return -1;
+            }
+        }
+        return octets == 4 ? result : -1;
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    private record Range(long start, long end, String country) {
+    }
+}
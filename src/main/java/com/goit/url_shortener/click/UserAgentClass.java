@@ -0,0 +1,71 @@
+package com.goit.url_shortener.click;
+
+import java.util.Locale;
+
+/**
+ * Coarse class of the client that followed a short URL, derived from its {@code User-Agent} header.
+ */
+public enum UserAgentClass {
+
+    /**
+     * Browsers on desktop operating systems.
+     */
+    DESKTOP,
+
+    /**
+     * Browsers on phones and tablets.
+     */
+    MOBILE,
+
+    /**
+     * Crawlers, link previews, monitoring and command line tools.
+     */
+    BOT,
+
+    /**
+     * Any other client sending a {@code User-Agent} header.
+     */
+    OTHER,
+
+    /**
+     * Clients without a {@code User-Agent} header.
+     */
+    UNKNOWN;
+
+    private static final String[] BOT_MARKERS = {
+            "bot", "crawl", "spider", "slurp", "preview", "facebookexternalhit", "monitor",
+            "curl", "wget", "python", "java/", "okhttp", "go-http-client", "headless"
+    };
+
+    private static final String[] MOBILE_MARKERS = {"mobi", "android", "iphone", "ipad", "ipod"};
+
+    /**
+     * Classifies a {@code User-Agent} header. Bots are recognized first, since many of them
+     * imitate browser headers.
+     *
+     * @param userAgent The header value, or {@code null}.
+     * @return The class of the client.
+     */
+    public static UserAgentClass of(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UNKNOWN;
+        }
+        String value = userAgent.toLowerCase(Locale.ROOT);
+        if (containsAny(value, BOT_MARKERS)) {
+            return BOT;
+        }
+        if (containsAny(value, MOBILE_MARKERS)) {
+            return MOBILE;
+        }
+        return value.startsWith("mozilla/") ? DESKTOP : OTHER;
+    }
+
+    private static boolean containsAny(String value, String[] markers) {
+        for (String marker : markers) {
+            if (value.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
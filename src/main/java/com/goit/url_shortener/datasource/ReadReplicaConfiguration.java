@@ -0,0 +1,100 @@
+package com.goit.url_shortener.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration sending read-only transactions to read replicas and all other work to the primary.
+ *
+ * <p> Active when {@code url.datasource.replica.urls} lists the JDBC URLs of one or more replicas. The primary
+ * pool is configured by the usual {@code spring.datasource} properties. The data source of the application
+ * is a {@link LazyConnectionDataSourceProxy}, which takes the physical connection when the first statement
+ * runs, once the transaction is known to be read-only, and then takes it from the
+ * {@link ReplicaRoutingDataSource} instead of the primary. Transactions that are not read-only, and
+ * read-only work joining them, always use the primary. </p>
+ */
+@Configuration
+@ConditionalOnExpression("!'${url.datasource.replica.urls:}'.isBlank()")
+public class ReadReplicaConfiguration {
+
+    /**
+     * Creates the connection pool of the primary.
+     *
+     * @param properties The data source properties.
+     * @return The pool of the primary.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    /**
+     * Creates the data source of the replicas, with one pool per replica.
+     *
+     * @param properties        The data source properties, whose driver and credentials are used by default.
+     * @param primaryDataSource The pool of the primary, used when no replica is usable.
+     * @param urls              The JDBC URLs of the replicas.
+     * @param username          The database user of the replicas, or an empty string to use the primary one.
+     * @param password          The password of the replicas, or an empty string to use the primary one.
+     * @param poolSize          The maximum number of connections per replica.
+     * @param connectionTimeout The time to wait for a connection of a replica before falling back, in milliseconds.
+     * @param maxLagMillis      The maximum replication lag of a replica receiving reads, in milliseconds.
+     * @return The data source of the replicas.
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(DataSourceProperties properties,
+                                                      HikariDataSource primaryDataSource,
+                                                      @Value("${url.datasource.replica.urls}") String[] urls,
+                                                      @Value("${url.datasource.replica.username:}") String username,
+                                                      @Value("${url.datasource.replica.password:}") String password,
+                                                      @Value("${url.datasource.replica.pool-size:10}") int poolSize,
+                                                      @Value("${url.datasource.replica.connection-timeout-ms:1000}")
+                                                      long connectionTimeout,
+                                                      @Value("${url.datasource.replica.max-lag-ms:1000}")
+                                                      long maxLagMillis) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(username.isBlank() ? properties.determineUsername() : username)
+                    .password(password.isBlank() ? properties.determinePassword() : password)
+                    .build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(connectionTimeout);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagMillis);
+    }
+
+    /**
+     * Creates the data source of the application, which routes read-only transactions to the replicas.
+     *
+     * @param primaryDataSource The pool of the primary.
+     * @param replicaDataSource The data source of the replicas.
+     * @return The routing data source.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
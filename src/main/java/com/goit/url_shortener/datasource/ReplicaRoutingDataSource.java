@@ -0,0 +1,186 @@
+package com.goit.url_shortener.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Data source handing out connections of read replicas, used for read-only transactions.
+ *
+ * <p> Replicas are selected round-robin among the replicas that are reachable and lag behind the primary by
+ * at most {@code maxLagMillis}. The lag of every replica is measured every
+ * {@code url.datasource.replica.lag-check-interval-ms} milliseconds, and a replica that fails to provide a
+ * connection is skipped until its next successful check. When no replica is usable, connections of the
+ * primary are returned, so reads keep working without being offloaded. </p>
+ *
+ * <p> A replica that is not in recovery, such as a second standalone instance used for local testing,
+ * reports no lag. </p>
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    static final String LAG_SQL = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)::bigint
+                   END""";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final ToLongFunction<DataSource> lagProbe;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * Creates the data source.
+     *
+     * @param primary      The data source of the primary, used when no replica is usable.
+     * @param replicas     The data sources of the replicas.
+     * @param maxLagMillis The maximum replication lag of a replica receiving reads, in milliseconds.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, long maxLagMillis) {
+        this(primary, replicas, maxLagMillis, replica -> {
+            Long lag = new JdbcTemplate(replica).queryForObject(LAG_SQL, Long.class);
+            return lag == null ? 0 : lag;
+        });
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, long maxLagMillis,
+                             ToLongFunction<DataSource> lagProbe) {
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + (i + 1), replicas.get(i)));
+        }
+        this.maxLagMillis = maxLagMillis;
+        this.lagProbe = lagProbe;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.available || replica.lagMillis > maxLagMillis) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.available = false;
+                log.warn("Read replica {} is unavailable, reading from other replicas until it recovers",
+                        replica.name, e);
+            }
+        }
+
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Not supported, replicas are accessed with the credentials of their pools.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Read replicas use the credentials of their pools");
+    }
+
+    /**
+     * Measures the replication lag of every replica. Replicas that cannot be reached are skipped
+     * until a later check succeeds.
+     */
+    @Scheduled(fixedDelayString = "${url.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try {
+                replica.lagMillis = lagProbe.applyAsLong(replica.dataSource);
+                if (!replica.available) {
+                    log.info("Read replica {} is available again", replica.name);
+                }
+                replica.available = true;
+            } catch (DataAccessException e) {
+                if (replica.available) {
+                    log.warn("Read replica {} is unavailable", replica.name, e);
+                }
+                replica.available = false;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of replicas that currently receive reads.
+     *
+     * @return The number of reachable replicas within the maximum lag.
+     */
+    public int usableReplicas() {
+        int usable = 0;
+        for (Replica replica : replicas) {
+            if (replica.available && replica.lagMillis <= maxLagMillis) {
+                usable++;
+            }
+        }
+        return usable;
+    }
+
+    /**
+     * Returns the highest replication lag measured by the last check among the reachable replicas.
+     *
+     * @return The replication lag in milliseconds, or 0 if no replica is reachable.
+     */
+    public long lagMillis() {
+        long lag = 0;
+        for (Replica replica : replicas) {
+            if (replica.available) {
+                lag = Math.max(lag, replica.lagMillis);
+            }
+        }
+        return lag;
+    }
+
+    /**
+     * Returns the number of read-only connections taken from the primary because no replica was usable.
+     *
+     * @return The number of fallbacks since startup.
+     */
+    public long fallbacks() {
+        return fallbacks.sum();
+    }
+
+    /**
+     * Closes the pools of the replicas. The primary is closed by its owner.
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available = true;
+        private volatile long lagMillis;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.goit.url_shortener.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of the query counting, which wraps the data source in a {@link QueryCountingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "management.metrics.queries.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfiguration {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    /**
+     * Wraps the data source of the application in a {@link QueryCountingDataSource}. Only the bean named
+     * {@value #DATA_SOURCE_BEAN} is wrapped, so statements are not counted twice when it delegates to other
+     * data source beans, such as the pools of the read replicas.
+     *
+     * @return The post processor wrapping the data source.
+     */
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof QueryCountingDataSource)
+                        ? new QueryCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+}
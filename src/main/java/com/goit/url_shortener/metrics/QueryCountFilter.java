@@ -0,0 +1,58 @@
+package com.goit.url_shortener.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Filter recording the number of SQL statements of every request in the {@code http.server.requests.queries}
+ * distribution summary, tagged with the HTTP method and the URI pattern like {@code http.server.requests}.
+ *
+ * <p> Only statements prepared on the request thread through JDBC are counted, so queries of the
+ * R2DBC-based version 2 and of background jobs are not included. Counting is disabled with
+ * {@code management.metrics.queries.enabled=false}. </p>
+ */
+@Component
+@ConditionalOnProperty(name = "management.metrics.queries.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Creates the filter.
+     *
+     * @param meterRegistry The registry of the distribution summaries.
+     */
+    public QueryCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long queries = QueryCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.queries")
+                    .description("SQL statements prepared while serving a request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern == null ? UNKNOWN_URI : pattern.toString())
+                    .register(meterRegistry)
+                    .record(queries);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.goit.url_shortener.metrics;
+
+/**
+ * Counter of the SQL statements prepared by the current thread while a request is served.
+ *
+ * <p> {@link QueryCountFilter} starts counting when a request arrives and stops when it has been answered,
+ * and {@link QueryCountingDataSource} increments the counter for every statement. Statements prepared
+ * outside of a request, e.g. by scheduled jobs, are not counted. </p>
+ */
+final class QueryCounter {
+
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Starts counting the statements of the current thread.
+     */
+    static void start() {
+        CURRENT.set(new long[1]);
+    }
+
+    /**
+     * Counts a statement if the current thread is counting.
+     */
+    static void increment() {
+        long[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    /**
+     * Stops counting the statements of the current thread.
+     *
+     * @return The number of statements counted since {@link #start()}.
+     */
+    static long stop() {
+        long[] count = CURRENT.get();
+        CURRENT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
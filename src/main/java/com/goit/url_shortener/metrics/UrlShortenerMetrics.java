@@ -0,0 +1,193 @@
+package com.goit.url_shortener.metrics;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.goit.url_shortener.click.ClickRecorder;
+import com.goit.url_shortener.datasource.ReplicaRoutingDataSource;
+import com.goit.url_shortener.security.AuthenticatedUserCache;
+import com.goit.url_shortener.security.JwtTokenProvider;
+import com.goit.url_shortener.statistics.ClickRollupJob;
+import com.goit.url_shortener.url.ExpiredUrlReaper;
+import com.goit.url_shortener.url.LongUrlValidator;
+import com.goit.url_shortener.url.ShortCodeFilter;
+import com.goit.url_shortener.url.ShortUrlGenerator;
+import com.goit.url_shortener.url.UniqueVisitorCounter;
+import com.goit.url_shortener.url.UrlCachePrewarmer;
+import com.goit.url_shortener.url.UrlDeduplicator;
+import com.goit.url_shortener.url.UrlResolutionCache;
+import com.goit.url_shortener.url.VisitCounter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Binds the counters kept by the services of the application to the meter registry, so they are exported
+ * with the other metrics, e.g. in Prometheus format at {@code /actuator/prometheus}.
+ *
+ * <p> The meters read the counters of the services when they are scraped, so recording adds no cost to the
+ * requests. Caches are exported with the names used by Micrometer for caches, {@code cache.gets} tagged with
+ * the result, {@code cache.evictions} and {@code cache.size}, so the usual hit ratio queries apply. </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class UrlShortenerMetrics implements MeterBinder {
+
+    private final ShortUrlGenerator urlGenerator;
+    private final LongUrlValidator validator;
+    private final UrlResolutionCache resolutionCache;
+    private final UrlCachePrewarmer prewarmer;
+    private final AuthenticatedUserCache userCache;
+    private final JwtTokenProvider tokenProvider;
+    private final UrlDeduplicator deduplicator;
+    private final ShortCodeFilter shortCodeFilter;
+    private final VisitCounter visitCounter;
+    private final UniqueVisitorCounter uniqueVisitorCounter;
+    private final ExpiredUrlReaper reaper;
+    private final ClickRecorder clickRecorder;
+    private final ClickRollupJob rollupJob;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaDataSource;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("url.code.retries", urlGenerator, ShortUrlGenerator::retries)
+                .description("Short codes generated again because they were already taken")
+                .register(registry);
+        FunctionCounter.builder("url.validation.rejected", validator, LongUrlValidator::rejected)
+                .description("Long URLs rejected by the validation")
+                .register(registry);
+
+        bindCache(registry, "url.resolution", resolutionCache, UrlResolutionCache::stats, UrlResolutionCache::size);
+        bindCache(registry, "auth.users", userCache, AuthenticatedUserCache::stats, AuthenticatedUserCache::size);
+        bindCache(registry, "jwt.verified", tokenProvider, JwtTokenProvider::verificationCacheStats,
+                JwtTokenProvider::verificationCacheSize);
+        FunctionCounter.builder("url.cache.prewarmed", prewarmer, UrlCachePrewarmer::prewarmed)
+                .description("Short URLs loaded into the resolution cache at startup")
+                .register(registry);
+
+        FunctionCounter.builder("url.dedup.lookups", deduplicator, UrlDeduplicator::lookups)
+                .description("Lookups of an existing URL with the same long URL")
+                .register(registry);
+        FunctionCounter.builder("url.dedup.lookups.skipped", deduplicator, UrlDeduplicator::skippedLookups)
+                .description("Lookups skipped because the long URL was certainly new")
+                .register(registry);
+        FunctionCounter.builder("url.dedup.matches", deduplicator, UrlDeduplicator::matches)
+                .description("Creations answered with an existing URL")
+                .register(registry);
+
+        FunctionCounter.builder("url.code.filter.rejected", shortCodeFilter, ShortCodeFilter::rejected)
+                .description("Unknown short codes answered without a query")
+                .register(registry);
+        Gauge.builder("url.code.filter.false.positive.rate", shortCodeFilter, ShortCodeFilter::falsePositiveRate)
+                .description("Expected false positive rate of the short code filter")
+                .register(registry);
+        Gauge.builder("url.code.filter.memory", shortCodeFilter, ShortCodeFilter::memoryBytes)
+                .description("Memory used by the short code filter")
+                .baseUnit("bytes")
+                .register(registry);
+
+        Gauge.builder("url.visits.pending", visitCounter, counter -> counter.pendingVisits())
+                .description("Visits not written to the database yet")
+                .register(registry);
+        Gauge.builder("url.visits.pending.urls", visitCounter, VisitCounter::pendingUrls)
+                .description("URLs with visits not written to the database yet")
+                .register(registry);
+        FunctionCounter.builder("url.visits.flushed", visitCounter, VisitCounter::flushedVisits)
+                .description("Visits written to the database")
+                .register(registry);
+        FunctionCounter.builder("url.visits.flush.failures", visitCounter, VisitCounter::failedFlushes)
+                .description("Batches of visits that could not be written")
+                .register(registry);
+
+        Gauge.builder("url.visits.unique.pending.urls", uniqueVisitorCounter, UniqueVisitorCounter::pendingUrls)
+                .description("URLs with visitor sketches not written to the database yet")
+                .register(registry);
+        FunctionCounter.builder("url.visits.unique.flushed", uniqueVisitorCounter, UniqueVisitorCounter::flushedUrls)
+                .description("Visitor sketches merged into the database")
+                .register(registry);
+        FunctionCounter.builder("url.visits.unique.flush.failures", uniqueVisitorCounter,
+                        UniqueVisitorCounter::failedFlushes)
+                .description("Batches of visitor sketches that could not be written")
+                .register(registry);
+
+        FunctionCounter.builder("url.reaper.removed", reaper, ExpiredUrlReaper::reaped)
+                .description("Expired URLs removed")
+                .register(registry);
+
+        Gauge.builder("click.pending", clickRecorder, ClickRecorder::pending)
+                .description("Click events waiting to be written")
+                .register(registry);
+        TimeGauge.builder("click.lag", clickRecorder, TimeUnit.MILLISECONDS, ClickRecorder::lagMillis)
+                .description("Age of the oldest click event of the last written batch")
+                .register(registry);
+        FunctionCounter.builder("click.written", clickRecorder, ClickRecorder::written)
+                .description("Click events written")
+                .register(registry);
+        FunctionCounter.builder("click.dropped", clickRecorder, ClickRecorder::dropped)
+                .description("Click events dropped")
+                .register(registry);
+        FunctionCounter.builder("click.write.failures", clickRecorder, ClickRecorder::failedWrites)
+                .description("Batches of click events that could not be written")
+                .register(registry);
+        TimeGauge.builder("click.rollup.lag", rollupJob, TimeUnit.SECONDS, UrlShortenerMetrics::rollupLagSeconds)
+                .description("Time since the end of the last aggregated window of clicks")
+                .register(registry);
+
+        replicaDataSource.ifAvailable(replicas -> bindReplicas(registry, replicas));
+    }
+
+    /**
+     * Binds the state of the read replicas, which are only configured when replica URLs are set.
+     */
+    private static void bindReplicas(MeterRegistry registry, ReplicaRoutingDataSource replicas) {
+        Gauge.builder("datasource.replicas.usable", replicas, ReplicaRoutingDataSource::usableReplicas)
+                .description("Read replicas that are reachable and within the maximum lag")
+                .register(registry);
+        TimeGauge.builder("datasource.replicas.lag", replicas, TimeUnit.MILLISECONDS,
+                        ReplicaRoutingDataSource::lagMillis)
+                .description("Highest replication lag of the reachable read replicas")
+                .register(registry);
+        FunctionCounter.builder("datasource.replicas.fallbacks", replicas, ReplicaRoutingDataSource::fallbacks)
+                .description("Read-only connections taken from the primary because no replica was usable")
+                .register(registry);
+    }
+
+    /**
+     * Binds the hit, miss and eviction counts and the size of a Caffeine cache.
+     */
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache, Function<T, CacheStats> stats,
+                                      ToDoubleFunction<T> size) {
+        FunctionCounter.builder("cache.gets", cache, c -> stats.apply(c).hitCount())
+                .tag("cache", name)
+                .tag("result", "hit")
+                .description("Cache lookups returning a value")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> stats.apply(c).missCount())
+                .tag("cache", name)
+                .tag("result", "miss")
+                .description("Cache lookups returning no value")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> stats.apply(c).evictionCount())
+                .tag("cache", name)
+                .description("Entries evicted from the cache")
+                .register(registry);
+        Gauge.builder("cache.size", cache, size)
+                .tag("cache", name)
+                .description("Approximate number of entries in the cache")
+                .register(registry);
+    }
+
+    private static double rollupLagSeconds(ClickRollupJob rollupJob) {
+        LocalDateTime watermark = rollupJob.watermark();
+        return watermark == null ? Double.NaN : Duration.between(watermark, LocalDateTime.now()).toSeconds();
+    }
+}
@@ -0,0 +1,142 @@
+package com.goit.url_shortener.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.goit.url_shortener.user.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * In-process cache of the users resolved from JWT tokens, used by {@link AuthorizationService}.
+ *
+ * <p> The cache maps a token to the id and username of its user and is bounded by
+ * {@code security.user-cache.max-size} entries. Every entry lives at most {@code security.user-cache.ttl-seconds}
+ * and never beyond the expiration of its token, so an expired token is never accepted from the cache.
+ * Only valid tokens of existing users are cached. </p>
+ *
+ * <p> Operations that rename or remove users must call {@link #invalidateUser(String)}, otherwise the old
+ * tokens of that user keep resolving until their entries expire. {@link #invalidateAll()} drops every entry,
+ * e.g. after rotating the signing secret. </p>
+ */
+@Service
+public class AuthenticatedUserCache {
+
+    private final Cache<String, AuthenticatedUser> cache;
+
+    /**
+     * Creates the cache with the configured limits.
+     *
+     * @param maxSize    The maximum number of cached tokens.
+     * @param ttlSeconds The maximum lifetime of an entry.
+     */
+    public AuthenticatedUserCache(@Value("${security.user-cache.max-size:10000}") long maxSize,
+                                  @Value("${security.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(Duration.ofSeconds(ttlSeconds)))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the user cached for the given token.
+     *
+     * @param token The JWT token.
+     * @return A detached user holding only the id and username, or {@code null} if nothing is cached.
+     */
+    public User getIfPresent(String token) {
+        AuthenticatedUser user = cache.getIfPresent(token);
+        return user == null ? null : user.toUser();
+    }
+
+    /**
+     * Stores the user resolved from the given token.
+     *
+     * @param token     The JWT token.
+     * @param user      The user the token belongs to.
+     * @param expiresAt The expiration of the token. Tokens without an expiration are not cached.
+     */
+    public void put(String token, User user, Instant expiresAt) {
+        if (expiresAt != null && expiresAt.isAfter(Instant.now())) {
+            cache.put(token, new AuthenticatedUser(user.getId(), user.getUsername(), expiresAt));
+        }
+    }
+
+    /**
+     * Evicts all cached tokens of the given user.
+     *
+     * @param username The username the tokens belong to.
+     */
+    public void invalidateUser(String username) {
+        cache.asMap().values().removeIf(user -> Objects.equals(user.username(), username));
+    }
+
+    /**
+     * Evicts all cached tokens.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the hit and miss statistics of the cache.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Returns the approximate number of cached tokens.
+     *
+     * @return The estimated number of entries.
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * The cached part of a user together with the expiration of the token it was resolved from.
+     */
+    private record AuthenticatedUser(Long id, String username, Instant tokenExpiresAt) {
+
+        User toUser() {
+            return User.builder()
+                    .id(id)
+                    .username(username)
+                    .build();
+        }
+    }
+
+    /**
+     * Expiration policy bounding each entry by the configured TTL and by the expiration of its token.
+     */
+    private record TokenExpiry(Duration ttl) implements Expiry<String, AuthenticatedUser> {
+
+        @Override
+        public long expireAfterCreate(String key, AuthenticatedUser value, long currentTime) {
+            Duration untilExpiry = Duration.between(Instant.now(), value.tokenExpiresAt());
+            if (untilExpiry.isNegative()) {
+                return 0;
+            }
+            return untilExpiry.compareTo(ttl) < 0 ? untilExpiry.toNanos() : ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, AuthenticatedUser value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, AuthenticatedUser value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.goit.url_shortener.security;
 
 import com.goit.url_shortener.user.User;
 import com.goit.url_shortener.user.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -9,8 +10,11 @@ import java.util.Optional;
 
 /**
  * Service for handling user authorization and token validation.
+ * Users resolved from valid tokens are kept in the {@link AuthenticatedUserCache},
+ * so repeated requests with the same token do not query the users table.
  */
 @Service
+@Timed(value = "authorization.service", histogram = true)
 @RequiredArgsConstructor
 public class AuthorizationService {
 
@@ -18,8 +22,11 @@ public class AuthorizationService {
 
     private final JwtTokenProvider tokenProvider;
 
+    private final AuthenticatedUserCache userCache;
+
     /**
      * Extracts the authorized user from the provided authorization header.
+     * A user served from the cache is detached and holds only its id and username.
      *
      * @param authorizationHeader The authorization header containing the JWT token.
      * @return An Optional containing the authenticated user if the token is valid, or an empty Optional otherwise.
@@ -27,10 +34,24 @@ public class AuthorizationService {
     public Optional<User> getAuthorizedUser(String authorizationHeader) {
         String token = tokenProvider.extractTokenFromHeader(authorizationHeader);
 
-        if (token != null && tokenProvider.validateToken(token)) {
-            String username = tokenProvider.extractUsernameFromToken(token);
-            return userRepository.findByUsername(username);
+        if (token == null) {
+            return Optional.empty();
+        }
+
+        User cachedUser = userCache.getIfPresent(token);
+
+        if (cachedUser != null) {
+            return Optional.of(cachedUser);
         }
-        return Optional.empty();
+
+        Optional<JwtPrincipal> principal = tokenProvider.verify(token);
+
+        if (principal.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<User> user = userRepository.findByUsername(principal.get().subject());
+        user.ifPresent(u -> userCache.put(token, u, principal.get().expiresAt()));
+        return user;
     }
 }
@@ -0,0 +1,23 @@
+package com.goit.url_shortener.security;
+
+import java.time.Instant;
+
+/**
+ * The claims of a JWT token whose signature has been verified.
+ *
+ * @param subject   The username the token was issued to.
+ * @param issuedAt  The time the token was issued, or {@code null} if the token carries no issue time.
+ * @param expiresAt The time the token expires.
+ */
+public record JwtPrincipal(String subject, Instant issuedAt, Instant expiresAt) {
+
+    /**
+     * Checks whether the token has expired at the given time.
+     *
+     * @param now The reference time.
+     * @return {@code true} if the token is no longer valid at {@code now}.
+     */
+    public boolean isExpiredAt(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
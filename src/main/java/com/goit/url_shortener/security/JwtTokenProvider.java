@@ -1,83 +1,147 @@
 package com.goit.url_shortener.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.goit.url_shortener.util.MessageProvider;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.Date;
-
-
+import java.util.Optional;
+
+/**
+ * Issues and verifies the HMAC-signed JWT tokens of the application.
+ *
+ * <p> The signing {@link Algorithm} and the {@link JWTVerifier} are built once at startup.
+ * Tokens are verified through {@link #verify(String)}, which checks the signature, the expiration
+ * and the subject in a single pass. Successfully verified tokens are kept in a cache bounded by
+ * {@code jwt.cache.max-size}, so a client repeating the same token skips the decoding and HMAC work
+ * until the token expires. </p>
+ */
 @Service
 @Slf4j
 public class JwtTokenProvider {
-    @Value("${jwt.secret}")
-    private String jwtSecret;
 
     private static final long EXPIRATION_TIME = 86400000L;
 
+    private static final long REFRESH_EXPIRATION_TIME = 60 * 60 * 1000L;
+
+    private final Algorithm algorithm;
+
+    private final JWTVerifier verifier;
+
+    private final Cache<String, JwtPrincipal> verifiedTokens;
+
+    /**
+     * Creates the provider.
+     *
+     * @param jwtSecret    The secret used to sign and verify tokens.
+     * @param cacheMaxSize The maximum number of verified tokens kept in the cache.
+     */
+    public JwtTokenProvider(@Value("${jwt.secret}") String jwtSecret,
+                            @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
+        this.algorithm = Algorithm.HMAC256(jwtSecret);
+        this.verifier = JWT.require(algorithm).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .recordStats()
+                .build();
+    }
+
 
     public String generateToken(String username) {
         return JWT.create()
                 .withSubject(username)
                 .withIssuedAt(new Date())
                 .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .sign(Algorithm.HMAC256(jwtSecret));
+                .sign(algorithm);
     }
 
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the signature and the claims of a token.
+     *
+     * @param token The JWT token.
+     * @return The principal of the token, or an empty Optional if the token is malformed, forged,
+     *         expired, or has no subject or expiration.
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+
+        Instant now = Instant.now();
+        JwtPrincipal cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            if (!cached.isExpiredAt(now)) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.invalidate(token);
+            return Optional.empty();
+        }
+
         try {
-            DecodedJWT jwt = JWT.decode(token);
+            DecodedJWT jwt = verifier.verify(token);
             String subject = jwt.getSubject();
-            Date expiration = jwt.getExpiresAt();
-            Date now = new Date();
+            Instant expiresAt = jwt.getExpiresAtAsInstant();
 
-            if (expiration != null && now.before(expiration)) {
-                return subject != null && !subject.isEmpty();
-            } else {
-                return false;
+            if (subject == null || subject.isEmpty() || expiresAt == null || !now.isBefore(expiresAt)) {
+                return Optional.empty();
             }
-        } catch (JWTDecodeException e) {
+
+            JwtPrincipal principal = new JwtPrincipal(subject, jwt.getIssuedAtAsInstant(), expiresAt);
+            verifiedTokens.put(token, principal);
+            return Optional.of(principal);
+        } catch (JWTVerificationException e) {
             log.warn(MessageProvider.INCORRECT_TOKEN_MESSAGE);
-            log.error("JWT Decode Exception", e);
-            return false;
+            log.debug("JWT verification failed", e);
+            return Optional.empty();
         }
     }
 
 
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
+
     public String extractUsernameFromToken(String token) {
-        try {
-            DecodedJWT jwt = JWT.decode(token);
-            return jwt.getSubject();
-        } catch (JWTDecodeException e) {
-            log.error(e.getMessage());
-            return "";
-        }
+        return verify(token)
+                .map(JwtPrincipal::subject)
+                .orElse("");
     }
 
 
+    /**
+     * Issues a new token for an expired one. The signature of the expired token must still be valid.
+     *
+     * @param token The expired JWT token.
+     * @return A new token valid for one hour, or an empty string if the token is not expired or not authentic.
+     */
     public String refreshToken(String token) {
         try {
             DecodedJWT decodedJWT = JWT.decode(token);
+            algorithm.verify(decodedJWT);
 
             String subject = decodedJWT.getSubject();
             Date expiration = decodedJWT.getExpiresAt();
 
             if (expiration != null && expiration.before(new Date())) {
-                Algorithm algorithm = Algorithm.HMAC256("secret");  // Use your actual secret key here
-
                 return JWT.create()
                         .withSubject(subject)
                         .withIssuedAt(new Date())
-                        .withExpiresAt(new Date(System.currentTimeMillis() + 60 * 60 * 1000))  // Set new expiration (1 hour from now)
+                        .withExpiresAt(new Date(System.currentTimeMillis() + REFRESH_EXPIRATION_TIME))
                         .sign(algorithm);
             }
-        } catch (JWTDecodeException e) {
+        } catch (JWTVerificationException e) {
             log.error(e.getMessage());
         }
 
@@ -90,4 +154,22 @@ public class JwtTokenProvider {
                 ? authorizationHeader.substring(7)
                 : null;
     }
+
+    /**
+     * Returns the hit and miss statistics of the verified token cache.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public CacheStats verificationCacheStats() {
+        return verifiedTokens.stats();
+    }
+
+    /**
+     * Returns the approximate number of cached verified tokens.
+     *
+     * @return The estimated number of entries.
+     */
+    public long verificationCacheSize() {
+        return verifiedTokens.estimatedSize();
+    }
 }
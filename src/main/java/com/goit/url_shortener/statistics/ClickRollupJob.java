@@ -0,0 +1,147 @@
+package com.goit.url_shortener.statistics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Scheduled job aggregating click events into the hourly and daily rollup tables.
+ *
+ * <p> The job keeps a watermark in the `click_rollup_watermark` table: all clicks before it have been added
+ * to the rollups. Every {@code url.stats.rollup.interval-ms} the clicks between the watermark and
+ * {@code url.stats.rollup.lag-seconds} before now are aggregated in windows of at most
+ * {@code url.stats.rollup.max-window-hours}. Each window is added to the existing buckets and the watermark
+ * is advanced in the same transaction, which holds a lock on the watermark row, so every click is counted
+ * exactly once even with several instances. </p>
+ *
+ * <p> Clicks that are written more than the lag after they happened, e.g. after a database outage, are
+ * not aggregated. Clicks of URLs that have been deleted are only counted in the URL rollups. </p>
+ */
+@Service
+@Slf4j
+public class ClickRollupJob {
+
+    private static final String LOCK_WATERMARK_SQL =
+            "SELECT processed_until FROM url_shortener.click_rollup_watermark WHERE id = 1 FOR UPDATE";
+
+    private static final String FIRST_CLICK_SQL = "SELECT min(clicked_at) FROM url_shortener.clicks";
+
+    private static final String UPDATE_WATERMARK_SQL =
+            "UPDATE url_shortener.click_rollup_watermark SET processed_until = ? WHERE id = 1";
+
+    private static final String URL_ROLLUP_SQL = """
+            INSERT INTO url_shortener.url_click_rollups (url_id, granularity, bucket, clicks)
+            SELECT c.url_id, '%1$s', date_trunc('%1$s', c.clicked_at), count(*)
+            FROM url_shortener.clicks c
+            WHERE c.clicked_at >= ? AND c.clicked_at < ?
+            GROUP BY c.url_id, date_trunc('%1$s', c.clicked_at)
+            ON CONFLICT (url_id, granularity, bucket)
+            DO UPDATE SET clicks = url_click_rollups.clicks + EXCLUDED.clicks""";
+
+    private static final String USER_ROLLUP_SQL = """
+            INSERT INTO url_shortener.user_click_rollups (user_id, granularity, bucket, clicks)
+            SELECT u.user_id, '%1$s', date_trunc('%1$s', c.clicked_at), count(*)
+            FROM url_shortener.clicks c
+            JOIN url_shortener.urls u ON u.id = c.url_id
+            WHERE c.clicked_at >= ? AND c.clicked_at < ?
+            GROUP BY u.user_id, date_trunc('%1$s', c.clicked_at)
+            ON CONFLICT (user_id, granularity, bucket)
+            DO UPDATE SET clicks = user_click_rollups.clicks + EXCLUDED.clicks""";
+
+    private static final List<String> ROLLUP_STATEMENTS = List.of(
+            URL_ROLLUP_SQL.formatted(RollupGranularity.HOUR.value()),
+            URL_ROLLUP_SQL.formatted(RollupGranularity.DAY.value()),
+            USER_ROLLUP_SQL.formatted(RollupGranularity.HOUR.value()),
+            USER_ROLLUP_SQL.formatted(RollupGranularity.DAY.value()));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lag;
+    private final Duration maxWindow;
+
+    private volatile LocalDateTime watermark;
+
+    /**
+     * Creates the rollup job.
+     *
+     * @param jdbcTemplate       The JDBC template used to aggregate the clicks.
+     * @param transactionManager The transaction manager wrapping each window.
+     * @param lagSeconds         The age a click must reach before it is aggregated.
+     * @param maxWindowHours     The longest time range aggregated in one transaction.
+     */
+    public ClickRollupJob(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${url.stats.rollup.lag-seconds:300}") long lagSeconds,
+                          @Value("${url.stats.rollup.max-window-hours:24}") long maxWindowHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lag = Duration.ofSeconds(lagSeconds);
+        this.maxWindow = Duration.ofHours(maxWindowHours);
+    }
+
+    /**
+     * Aggregates all clicks up to the lag, window by window.
+     * A failed window is logged and retried by the next run.
+     */
+    @Scheduled(fixedDelayString = "${url.stats.rollup.interval-ms:60000}")
+    public void rollup() {
+        LocalDateTime until = LocalDateTime.now().minus(lag);
+        try {
+            while (Boolean.TRUE.equals(transactionTemplate.execute(status -> rollupWindow(until)))) {
+                log.debug("Aggregated clicks until {}", watermark);
+            }
+        } catch (DataAccessException e) {
+            log.error("Failed to aggregate clicks", e);
+        }
+    }
+
+    /**
+     * Returns the time until which clicks have been aggregated, as seen by the last run of this instance.
+     *
+     * @return The watermark, or {@code null} if no window has been aggregated yet.
+     */
+    public LocalDateTime watermark() {
+        return watermark;
+    }
+
+    /**
+     * Aggregates the next window ending at most at {@code until}.
+     *
+     * @return {@code true} if a window was aggregated and the next one may contain clicks.
+     */
+    private boolean rollupWindow(LocalDateTime until) {
+        Timestamp current = jdbcTemplate.queryForObject(LOCK_WATERMARK_SQL, Timestamp.class);
+        if (current == null) {
+            current = jdbcTemplate.queryForObject(FIRST_CLICK_SQL, Timestamp.class);
+            if (current == null) {
+                return false;
+            }
+        }
+
+        LocalDateTime from = current.toLocalDateTime();
+        if (!from.isBefore(until)) {
+            watermark = from;
+            return false;
+        }
+        LocalDateTime to = from.plus(maxWindow).isBefore(until) ? from.plus(maxWindow) : until;
+
+        Timestamp fromTimestamp = Timestamp.valueOf(from);
+        Timestamp toTimestamp = Timestamp.valueOf(to);
+        for (String sql : ROLLUP_STATEMENTS) {
+            jdbcTemplate.update(sql, fromTimestamp, toTimestamp);
+        }
+        jdbcTemplate.update(UPDATE_WATERMARK_SQL, toTimestamp);
+        watermark = to;
+        return to.isBefore(until);
+    }
+}
@@ -0,0 +1,66 @@
+package com.goit.url_shortener.statistics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The `ClickRollupRepository` reads the click rollups maintained by the {@link ClickRollupJob}.
+ *
+ * Every query reads at most one row per bucket of the requested range through the primary key,
+ * so its cost depends on the length of the range, not on the number of clicks.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClickRollupRepository {
+
+    private static final String URL_SERIES_SQL = """
+            SELECT bucket, clicks FROM url_shortener.url_click_rollups
+            WHERE url_id = ? AND granularity = ? AND bucket >= ? AND bucket < ?
+            ORDER BY bucket""";
+
+    private static final String USER_SERIES_SQL = """
+            SELECT bucket, clicks FROM url_shortener.user_click_rollups
+            WHERE user_id = ? AND granularity = ? AND bucket >= ? AND bucket < ?
+            ORDER BY bucket""";
+
+    private static final RowMapper<TimeSeriesPoint> POINT_MAPPER = (rs, rowNum) ->
+            new TimeSeriesPoint(rs.getTimestamp(1).toLocalDateTime(), rs.getLong(2));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Finds the non-empty buckets of a URL within a range.
+     *
+     * @param urlId       The identifier of the URL.
+     * @param granularity The size of the buckets.
+     * @param from        The start of the range, inclusive.
+     * @param to          The end of the range, exclusive.
+     * @return The buckets with at least one visit, in chronological order.
+     */
+    public List<TimeSeriesPoint> findUrlSeries(long urlId, RollupGranularity granularity,
+                                               LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(URL_SERIES_SQL, POINT_MAPPER,
+                urlId, granularity.value(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Finds the non-empty buckets of all URLs of a user within a range.
+     *
+     * @param userId      The identifier of the user.
+     * @param granularity The size of the buckets.
+     * @param from        The start of the range, inclusive.
+     * @param to          The end of the range, exclusive.
+     * @return The buckets with at least one visit, in chronological order.
+     */
+    public List<TimeSeriesPoint> findUserSeries(long userId, RollupGranularity granularity,
+                                                LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(USER_SERIES_SQL, POINT_MAPPER,
+                userId, granularity.value(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+}
@@ -0,0 +1,11 @@
+package com.goit.url_shortener.statistics;
+
+/**
+ * A short URL reported by a top-N query.
+ *
+ * @param shortUrl The short URL.
+ * @param visits   The estimated number of visits within the window.
+ * @param error    The maximum overestimation of the visits.
+ */
+public record HotLinkDto(String shortUrl, long visits, long error) {
+}
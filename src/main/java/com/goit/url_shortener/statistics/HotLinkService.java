@@ -0,0 +1,85 @@
+package com.goit.url_shortener.statistics;
+
+import com.goit.url_shortener.security.AuthorizationService;
+import com.goit.url_shortener.url.HotLinkTracker;
+import com.goit.url_shortener.user.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.goit.url_shortener.util.MessageProvider.*;
+
+/**
+ * Service reporting the most visited short URLs of the last minute or hour from the {@link HotLinkTracker}.
+ *
+ * <p> Users see their own links. The links of all users are only reported to the users listed in
+ * {@code url.hot.global-usernames}, since short URLs of other users are not public. </p>
+ */
+@Service
+public class HotLinkService {
+
+    private final AuthorizationService authorizationService;
+    private final HotLinkTracker hotLinkTracker;
+    private final int maxLimit;
+    private final Set<String> globalUsernames;
+
+    /**
+     * Creates the service.
+     *
+     * @param authorizationService The authorization service.
+     * @param hotLinkTracker       The tracker of visited links.
+     * @param maxLimit             The largest number of links a client may request.
+     * @param globalUsernames      The users allowed to see the links of all users.
+     */
+    public HotLinkService(AuthorizationService authorizationService,
+                          HotLinkTracker hotLinkTracker,
+                          @Value("${url.hot.max-limit:100}") int maxLimit,
+                          @Value("${url.hot.global-usernames:}") Set<String> globalUsernames) {
+        this.authorizationService = authorizationService;
+        this.hotLinkTracker = hotLinkTracker;
+        this.maxLimit = maxLimit;
+        this.globalUsernames = globalUsernames;
+    }
+
+    /**
+     * Retrieves the most visited links within a window.
+     *
+     * @param authorizationHeader The authorization header containing the JWT token.
+     * @param window              The window, `minute` or `hour`.
+     * @param limit               The maximum number of links.
+     * @param global              Whether the links of all users are reported instead of the user's own.
+     * @return A response with the links ordered by descending visits, or a failure if the request was rejected.
+     */
+    public HotLinksResponse getHotLinks(String authorizationHeader, String window, int limit, boolean global) {
+        Optional<User> userOptional = authorizationService.getAuthorizedUser(authorizationHeader);
+
+        if (userOptional.isEmpty()) {
+            return HotLinksResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED);
+        }
+
+        HotLinkTracker.Window trackerWindow;
+        try {
+            trackerWindow = HotLinkTracker.Window.valueOf(window.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return HotLinksResponse.failed(INCORRECT_WINDOW_MESSAGE, HttpStatus.BAD_REQUEST);
+        }
+
+        User user = userOptional.get();
+
+        if (global && !globalUsernames.contains(user.getUsername())) {
+            return HotLinksResponse.failed(ACCESS_DENIED_MESSAGE, HttpStatus.FORBIDDEN);
+        }
+
+        List<HotLinkDto> links = hotLinkTracker.top(trackerWindow, Math.clamp(limit, 1, maxLimit),
+                        global ? null : user.getId()).stream()
+                .map(count -> new HotLinkDto(count.link().shortUrl(), count.visits(), count.error()))
+                .toList();
+
+        return HotLinksResponse.success(trackerWindow.name().toLowerCase(Locale.ROOT), links);
+    }
+}
@@ -0,0 +1,68 @@
+package com.goit.url_shortener.statistics;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+/**
+ * Represents the response object for the most visited short URLs of a time window.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@NoArgsConstructor
+public class HotLinksResponse {
+
+    /**
+     * The time window, `minute` or `hour`.
+     */
+    private String window;
+
+    /**
+     * The most visited short URLs, ordered by descending visits.
+     */
+    private List<HotLinkDto> links;
+
+    /**
+     * A message providing additional information about the response.
+     */
+    private String message;
+
+    /**
+     * The HTTP status of the response.
+     */
+    @JsonIgnore
+    private HttpStatus status;
+
+    /**
+     * Static method to create a successful response.
+     *
+     * @param window The time window.
+     * @param links  The most visited short URLs.
+     * @return A new HotLinksResponse instance representing success.
+     */
+    public static HotLinksResponse success(String window, List<HotLinkDto> links) {
+        HotLinksResponse response = new HotLinksResponse();
+        response.setWindow(window);
+        response.setLinks(links);
+        response.setStatus(HttpStatus.OK);
+        return response;
+    }
+
+    /**
+     * Static method to create a failed response.
+     *
+     * @param message The failure message.
+     * @param status  The HTTP status of the response.
+     * @return A new HotLinksResponse instance representing failure.
+     */
+    public static HotLinksResponse failed(String message, HttpStatus status) {
+        HotLinksResponse response = new HotLinksResponse();
+        response.setMessage(message);
+        response.setStatus(status);
+        return response;
+    }
+}
@@ -0,0 +1,83 @@
+package com.goit.url_shortener.statistics;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Size of the time buckets clicks are aggregated into.
+ */
+public enum RollupGranularity {
+
+    /**
+     * Buckets of one hour.
+     */
+    HOUR(ChronoUnit.HOURS),
+
+    /**
+     * Buckets of one day.
+     */
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Returns the value stored in the `granularity` column and passed to {@code date_trunc}.
+     *
+     * @return The lower-case name of the granularity.
+     */
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the start of the bucket containing the given time.
+     *
+     * @param time The time.
+     * @return The time truncated to the bucket size.
+     */
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * Returns the start of the bucket following the one starting at the given time.
+     *
+     * @param bucket The start of a bucket.
+     * @return The start of the next bucket.
+     */
+    public LocalDateTime next(LocalDateTime bucket) {
+        return bucket.plus(1, unit);
+    }
+
+    /**
+     * Returns the number of buckets between two times.
+     *
+     * @param from The start of the range, inclusive.
+     * @param to   The end of the range, exclusive.
+     * @return The number of buckets starting in the range.
+     */
+    public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+        return unit.between(truncate(from), truncate(to));
+    }
+
+    /**
+     * Parses a granularity given by a client.
+     *
+     * @param value The granularity, case-insensitive.
+     * @return The granularity, or an empty Optional if the value is unknown.
+     */
+    public static Optional<RollupGranularity> parse(String value) {
+        for (RollupGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value)) {
+                return Optional.of(granularity);
+            }
+        }
+        return Optional.empty();
+    }
+}
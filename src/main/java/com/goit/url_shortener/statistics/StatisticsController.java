@@ -1,13 +1,34 @@
 package com.goit.url_shortener.statistics;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.goit.url_shortener.url.dto.UrlRequest;
+import com.goit.url_shortener.url.dto.UrlResponse;
+import com.goit.url_shortener.user.User;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static com.goit.url_shortener.util.MessageProvider.NOT_AUTHENTICATED_MESSAGE;
+
 /**
  * Controller class for handling URL statistics.
  * This controller provides endpoints to fetch various statistics about shortened URLs.
+ *
+ * The list endpoints accept the optional `limit` and `after` parameters for keyset pagination:
+ * the response of a page contains `nextCursor`, which is passed as `after` to fetch the next one.
+ * They also accept `sort` (`id`, `created` or `expires`), `order` (`asc` or `desc`) and the date ranges
+ * `createdFrom`/`createdTo` and `expiresFrom`/`expiresTo`; the cursor then stays valid for the same parameters.
+ * The `/stream` variants write every URL as NDJSON without holding the list in memory.
+ * The `/timeseries` endpoint returns visits per hour or day, read from pre-aggregated rollups.
+ * The `/hot` endpoints return the most visited short URLs of the last minute or hour.
  */
 @RestController
 @RequestMapping("/api/v1/url/stats/")
@@ -15,20 +36,40 @@ import org.springframework.web.bind.annotation.*;
 public class StatisticsController {
 
     private final StatisticsService statisticsService;
+    private final TimeSeriesService timeSeriesService;
+    private final HotLinkService hotLinkService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Endpoint to retrieve all URLs associated with the authenticated user.
      *
-     * @param header The Authorization header containing user credentials.
+     * @param after       The cursor returned with the previous page, absent for the first page.
+     * @param limit       The page size, absent to retrieve all URLs at once.
+     * @param sort        The sort key, `id`, `created` or `expires`.
+     * @param order       The sort direction, `asc` or `desc`.
+     * @param createdFrom The earliest creation date in ISO format, absent for no lower bound.
+     * @param createdTo   The creation date in ISO format before which URLs were created, absent for no upper bound.
+     * @param expiresFrom The earliest expiration date in ISO format, absent for no lower bound.
+     * @param expiresTo   The expiration date in ISO format before which URLs expire, absent for no upper bound.
+     * @param header      The Authorization header containing user credentials.
      * @return ResponseEntity containing the status and list of URLs.
      */
     @GetMapping(path = {"/all", "/all/"})
     public ResponseEntity<StatisticsResponse> allUrls(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime expiresFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime expiresTo,
             @RequestHeader(value = "Authorization", defaultValue = "")
             String header) {
         UrlRequest request = new UrlRequest();
         request.setAuthorizationHeader(header);
-        StatisticsResponse response = statisticsService.getAllUrlsByUser(request);
+        StatisticsResponse response = statisticsService.getAllUrlsByUser(request, after, limit,
+                new StatsQuery(sort, order, createdFrom, createdTo, expiresFrom, expiresTo));
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
@@ -39,19 +80,66 @@ public class StatisticsController {
      * then fetches and returns a list of active URLs. Active URLs are those that have
      * not yet expired.
      *
-     * @param header The Authorization header containing user credentials.
+     * @param after       The cursor returned with the previous page, absent for the first page.
+     * @param limit       The page size, absent to retrieve all active URLs at once.
+     * @param sort        The sort key, `id`, `created` or `expires`.
+     * @param order       The sort direction, `asc` or `desc`.
+     * @param createdFrom The earliest creation date in ISO format, absent for no lower bound.
+     * @param createdTo   The creation date in ISO format before which URLs were created, absent for no upper bound.
+     * @param expiresFrom The earliest expiration date in ISO format, absent for no lower bound.
+     * @param expiresTo   The expiration date in ISO format before which URLs expire, absent for no upper bound.
+     * @param header      The Authorization header containing user credentials.
      * @return ResponseEntity containing the status and list of active URLs.
      */
     @GetMapping(path = {"/active","/active/"})
     public ResponseEntity<StatisticsResponse> activeUrls(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime expiresFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime expiresTo,
             @RequestHeader(value = "Authorization", defaultValue = "")
             String header) {
         UrlRequest request = new UrlRequest();
         request.setAuthorizationHeader(header);
-        StatisticsResponse response = statisticsService.getActiveUrlsByUser(request);
+        StatisticsResponse response = statisticsService.getActiveUrlsByUser(request, after, limit,
+                new StatsQuery(sort, order, createdFrom, createdTo, expiresFrom, expiresTo));
         return ResponseEntity.status(response.getStatus()).body(response);
     }
 
+    /**
+     * Endpoint to stream all URLs associated with the authenticated user as NDJSON.
+     *
+     * @param header   The Authorization header containing user credentials.
+     * @param response The servlet response the URLs are written to.
+     * @throws IOException if writing the response fails.
+     */
+    @GetMapping(path = {"/all/stream", "/all/stream/"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void allUrlsStream(
+            @RequestHeader(value = "Authorization", defaultValue = "")
+            String header,
+            HttpServletResponse response) throws IOException {
+        streamUrls(header, false, response);
+    }
+
+    /**
+     * Endpoint to stream all active URLs associated with the authenticated user as NDJSON.
+     *
+     * @param header   The Authorization header containing user credentials.
+     * @param response The servlet response the URLs are written to.
+     * @throws IOException if writing the response fails.
+     */
+    @GetMapping(path = {"/active/stream", "/active/stream/"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void activeUrlsStream(
+            @RequestHeader(value = "Authorization", defaultValue = "")
+            String header,
+            HttpServletResponse response) throws IOException {
+        streamUrls(header, true, response);
+    }
+
     /**
      * Endpoint to fetch the number of visits for a given short URL.
      *
@@ -68,4 +156,82 @@ public class StatisticsController {
         StatisticsResponse response = statisticsService.getVisitsByShortUrl(request);
         return ResponseEntity.status(response.getStatus()).body(response);
     }
+
+    /**
+     * Endpoint to retrieve the visits per time bucket of a short URL, or of all URLs of the authenticated user.
+     *
+     * @param shortUrl    The short URL, absent for all URLs of the user.
+     * @param granularity The size of the buckets, `hour` or `day`.
+     * @param from        The start of the range in ISO format, absent for 30 days before its end.
+     * @param to          The end of the range in ISO format, absent for now.
+     * @param header      The Authorization header containing user credentials.
+     * @return ResponseEntity containing the status and the visits per bucket.
+     */
+    @GetMapping(path = {"/timeseries", "/timeseries/"})
+    public ResponseEntity<TimeSeriesResponse> timeSeries(
+            @RequestParam(required = false) String shortUrl,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = "Authorization", defaultValue = "")
+            String header) {
+        UrlRequest request = new UrlRequest();
+        request.setUrl(shortUrl);
+        request.setAuthorizationHeader(header);
+        TimeSeriesResponse response = timeSeriesService.getTimeSeries(request, granularity, from, to);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Endpoint to retrieve the most visited URLs of the authenticated user within the last minute or hour.
+     *
+     * @param window The time window, `minute` or `hour`.
+     * @param limit  The maximum number of URLs.
+     * @param header The Authorization header containing user credentials.
+     * @return ResponseEntity containing the status and the URLs ordered by descending visits.
+     */
+    @GetMapping(path = {"/hot", "/hot/"})
+    public ResponseEntity<HotLinksResponse> hotLinks(
+            @RequestParam(defaultValue = "minute") String window,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestHeader(value = "Authorization", defaultValue = "")
+            String header) {
+        HotLinksResponse response = hotLinkService.getHotLinks(header, window, limit, false);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Endpoint to retrieve the most visited URLs of all users within the last minute or hour.
+     * Only available to the users listed in `url.hot.global-usernames`.
+     *
+     * @param window The time window, `minute` or `hour`.
+     * @param limit  The maximum number of URLs.
+     * @param header The Authorization header containing user credentials.
+     * @return ResponseEntity containing the status and the URLs ordered by descending visits.
+     */
+    @GetMapping(path = {"/hot/global", "/hot/global/"})
+    public ResponseEntity<HotLinksResponse> globalHotLinks(
+            @RequestParam(defaultValue = "minute") String window,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestHeader(value = "Authorization", defaultValue = "")
+            String header) {
+        HotLinksResponse response = hotLinkService.getHotLinks(header, window, limit, true);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    private void streamUrls(String header, boolean activeOnly, HttpServletResponse response) throws IOException {
+        Optional<User> user = statisticsService.authorize(header);
+
+        if (user.isEmpty()) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    UrlResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED));
+            return;
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        statisticsService.streamUrlsByUser(user.get(), activeOnly, response.getOutputStream());
+    }
 }
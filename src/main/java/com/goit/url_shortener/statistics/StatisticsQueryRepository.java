@@ -0,0 +1,39 @@
+package com.goit.url_shortener.statistics;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Statistics queries whose sorting and filtering are chosen by the client, see {@link StatsQuery}.
+ *
+ * <p> The JPQL is built with only the conditions that are set, rather than with optional parameters,
+ * so the database plans each combination with the matching index. </p>
+ */
+public interface StatisticsQueryRepository {
+
+    /**
+     * Counts the matching URLs of a user and sums their visits.
+     *
+     * @param userId     The id of the owner.
+     * @param activeOnly Whether only URLs that have not expired at {@code now} are counted.
+     * @param now        The reference time of the active filter.
+     * @param query      The valid date filters. URLs that never expire are not counted when sorting by
+     *                   expiration date, as they are not listed by {@link #findFilteredPage}.
+     * @return The totals, with zero visits if the user has no matching URLs.
+     */
+    StatsTotals findFilteredTotals(Long userId, boolean activeOnly, LocalDateTime now, StatsQuery query);
+
+    /**
+     * Finds the matching URLs of a user in the requested order, following the given cursor.
+     *
+     * @param userId     The id of the owner.
+     * @param activeOnly Whether only URLs that have not expired at {@code now} are returned.
+     * @param now        The reference time of the active filter.
+     * @param query      The valid sorting and date filters.
+     * @param afterId    The id of the last URL of the previous page, or {@code null} for the first page.
+     * @param limit      The maximum number of URLs, or {@code null} for all of them.
+     * @return The matching URLs following the cursor, or an empty list if the cursor is not a URL of the user.
+     */
+    List<StatsUrlDto> findFilteredPage(Long userId, boolean activeOnly, LocalDateTime now, StatsQuery query,
+                                       Long afterId, Integer limit);
+}
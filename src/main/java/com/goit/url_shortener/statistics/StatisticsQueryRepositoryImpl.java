@@ -0,0 +1,129 @@
+package com.goit.url_shortener.statistics;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Implementation of the {@link StatisticsQueryRepository} fragment of the {@link StatisticsRepository}.
+ *
+ * <p> Pages sorted by a date use a keyset cursor on the date and the id: the date of the URL given as cursor
+ * is looked up first, and the page starts at the URLs with a later date, or the same date and a greater id.
+ * The redundant bound on the date alone lets the database start the index scan at the cursor. </p>
+ */
+class StatisticsQueryRepositoryImpl implements StatisticsQueryRepository {
+
+    private static final String SELECT_TOTALS =
+            "SELECT new com.goit.url_shortener.statistics.StatsTotals(COUNT(u), COALESCE(SUM(u.visits), 0L)) "
+                    + "FROM Url u ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public StatsTotals findFilteredTotals(Long userId, boolean activeOnly, LocalDateTime now, StatsQuery query) {
+        StringBuilder jpql = new StringBuilder(SELECT_TOTALS);
+        Map<String, Object> parameters = new HashMap<>();
+        appendFilters(jpql, parameters, userId, activeOnly, now, query);
+        return createQuery(jpql, parameters, StatsTotals.class).getSingleResult();
+    }
+
+    @Override
+    public List<StatsUrlDto> findFilteredPage(Long userId, boolean activeOnly, LocalDateTime now, StatsQuery query,
+                                              Long afterId, Integer limit) {
+        StatsSort sort = query.sortKey().orElseThrow();
+        Sort.Direction direction = query.direction().orElseThrow();
+        String comparison = direction.isAscending() ? ">" : "<";
+        String order = direction.isAscending() ? " ASC" : " DESC";
+
+        StringBuilder jpql = new StringBuilder(StatisticsRepository.SELECT_STATS_URL);
+        Map<String, Object> parameters = new HashMap<>();
+        // The selected active flag refers to the reference time even when expired URLs are listed too.
+        parameters.put("now", now);
+        appendFilters(jpql, parameters, userId, activeOnly, now, query);
+
+        if (afterId != null && sort == StatsSort.ID) {
+            jpql.append("AND u.id ").append(comparison).append(" :afterId ");
+            parameters.put("afterId", afterId);
+        } else if (afterId != null) {
+            Optional<LocalDateTime> afterKey = findSortKey(userId, sort, afterId);
+            if (afterKey.isEmpty()) {
+                return List.of();
+            }
+            String key = "u." + sort.property();
+            jpql.append("AND ").append(key).append(' ').append(comparison).append("= :afterKey ")
+                    .append("AND (").append(key).append(' ').append(comparison).append(" :afterKey ")
+                    .append("OR u.id ").append(comparison).append(" :afterId) ");
+            parameters.put("afterKey", afterKey.get());
+            parameters.put("afterId", afterId);
+        }
+
+        if (sort == StatsSort.ID) {
+            jpql.append("ORDER BY u.id").append(order);
+        } else {
+            jpql.append("ORDER BY u.").append(sort.property()).append(order).append(", u.id").append(order);
+        }
+
+        TypedQuery<StatsUrlDto> page = createQuery(jpql, parameters, StatsUrlDto.class);
+        if (limit != null) {
+            page.setMaxResults(limit);
+        }
+        return page.getResultList();
+    }
+
+    /**
+     * Returns the sort key of the URL given as cursor, empty if it is not a URL of the user or has no key.
+     */
+    private Optional<LocalDateTime> findSortKey(Long userId, StatsSort sort, Long urlId) {
+        return entityManager.createQuery(
+                        "SELECT u." + sort.property() + " FROM Url u WHERE u.id = :urlId AND u.user.id = :userId",
+                        LocalDateTime.class)
+                .setParameter("urlId", urlId)
+                .setParameter("userId", userId)
+                .getResultStream()
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    private static void appendFilters(StringBuilder jpql, Map<String, Object> parameters, Long userId,
+                                      boolean activeOnly, LocalDateTime now, StatsQuery query) {
+        jpql.append("WHERE u.user.id = :userId ");
+        parameters.put("userId", userId);
+
+        if (activeOnly) {
+            jpql.append("AND (u.expiresAt IS NULL OR u.expiresAt > :now) ");
+            parameters.put("now", now);
+        }
+        appendRange(jpql, parameters, "createdAt", query.createdFrom(), query.createdTo());
+        appendRange(jpql, parameters, "expiresAt", query.expiresFrom(), query.expiresTo());
+        if (query.sortKey().orElse(null) == StatsSort.EXPIRES) {
+            jpql.append("AND u.expiresAt IS NOT NULL ");
+        }
+    }
+
+    private static void appendRange(StringBuilder jpql, Map<String, Object> parameters, String property,
+                                    LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            jpql.append("AND u.").append(property).append(" >= :").append(property).append("From ");
+            parameters.put(property + "From", from);
+        }
+        if (to != null) {
+            jpql.append("AND u.").append(property).append(" < :").append(property).append("To ");
+            parameters.put(property + "To", to);
+        }
+    }
+
+    private <T> TypedQuery<T> createQuery(StringBuilder jpql, Map<String, Object> parameters, Class<T> type) {
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), type);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -0,0 +1,107 @@
+package com.goit.url_shortener.statistics;
+
+import com.goit.url_shortener.url.Url;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Read-only repository serving URL statistics.
+ *
+ * <p> All queries project directly into {@link StatsUrlDto} or {@link StatsTotals}, so no `Url`
+ * entities are loaded into the persistence context. The active filter and the visit totals are
+ * evaluated by the database. Lists are ordered by id, which serves as the keyset cursor. </p>
+ *
+ * <p> Every query filters by the id of the owner taken from the authenticated user, so it is served by the
+ * indexes on `urls.user_id` without joining `users`. Sorted and filtered lists are built by the
+ * {@link StatisticsQueryRepository} fragment. </p>
+ */
+@org.springframework.stereotype.Repository
+public interface StatisticsRepository extends org.springframework.data.repository.Repository<Url, Long>,
+        StatisticsQueryRepository {
+
+    /**
+     * Number of rows fetched per round trip while streaming.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    String SELECT_STATS_URL = """
+            SELECT new com.goit.url_shortener.statistics.StatsUrlDto(
+                u.id, u.shortUrl, u.longUrl, u.visits,
+                CASE WHEN u.expiresAt IS NULL OR u.expiresAt > :now THEN true ELSE false END,
+                u.createdAt, u.expiresAt)
+            FROM Url u
+            """;
+
+    String WHERE_USER = """
+            WHERE u.user.id = :userId
+              AND (:activeOnly = false OR u.expiresAt IS NULL OR u.expiresAt > :now)
+            """;
+
+    /**
+     * Counts the URLs of a user and sums their visits.
+     *
+     * @param userId     The id of the owner.
+     * @param activeOnly Whether only URLs that have not expired at {@code now} are counted.
+     * @param now        The reference time of the active filter.
+     * @return The totals, with zero visits if the user has no matching URLs.
+     */
+    @Query("SELECT new com.goit.url_shortener.statistics.StatsTotals(COUNT(u), COALESCE(SUM(u.visits), 0L)) "
+            + "FROM Url u " + WHERE_USER)
+    StatsTotals findTotals(@Param("userId") Long userId,
+                           @Param("activeOnly") boolean activeOnly,
+                           @Param("now") LocalDateTime now);
+
+    /**
+     * Finds all URLs of a user.
+     *
+     * @param userId     The id of the owner.
+     * @param activeOnly Whether only URLs that have not expired at {@code now} are returned.
+     * @param now        The reference time of the active filter.
+     * @return The matching URLs ordered by id.
+     */
+    @Query(SELECT_STATS_URL + WHERE_USER + "ORDER BY u.id")
+    List<StatsUrlDto> findAllByUser(@Param("userId") Long userId,
+                                    @Param("activeOnly") boolean activeOnly,
+                                    @Param("now") LocalDateTime now);
+
+    /**
+     * Finds one page of URLs of a user following the given cursor.
+     *
+     * @param userId     The id of the owner.
+     * @param activeOnly Whether only URLs that have not expired at {@code now} are returned.
+     * @param now        The reference time of the active filter.
+     * @param afterId    The id of the last URL of the previous page, or {@code 0} for the first page.
+     * @param pageable   The page size; the page number must be {@code 0}.
+     * @return The matching URLs with an id greater than {@code afterId}, ordered by id.
+     */
+    @Query(SELECT_STATS_URL + WHERE_USER + "AND u.id > :afterId ORDER BY u.id")
+    List<StatsUrlDto> findPageByUser(@Param("userId") Long userId,
+                                     @Param("activeOnly") boolean activeOnly,
+                                     @Param("now") LocalDateTime now,
+                                     @Param("afterId") long afterId,
+                                     Pageable pageable);
+
+    /**
+     * Streams all URLs of a user with a server-side cursor. Must be called inside a transaction
+     * and the stream must be closed.
+     *
+     * @param userId     The id of the owner.
+     * @param activeOnly Whether only URLs that have not expired at {@code now} are returned.
+     * @param now        The reference time of the active filter.
+     * @return The matching URLs ordered by id.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_STATS_URL + WHERE_USER + "ORDER BY u.id")
+    Stream<StatsUrlDto> streamAllByUser(@Param("userId") Long userId,
+                                        @Param("activeOnly") boolean activeOnly,
+                                        @Param("now") LocalDateTime now);
+}
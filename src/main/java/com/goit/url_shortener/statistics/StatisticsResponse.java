@@ -25,6 +25,11 @@ public class StatisticsResponse {
      */
     private List<StatsUrlDto> urls;
 
+    /**
+     * The cursor to pass as {@code after} to fetch the next page, present only if more URLs follow.
+     */
+    private Long nextCursor;
+
     /**
      * A message providing additional information about the response.
      */
@@ -71,6 +76,20 @@ public class StatisticsResponse {
         return new StatisticsResponse(visits, urls, HttpStatus.OK);
     }
 
+    /**
+     * Static method to create a successful response containing one page of URLs.
+     *
+     * @param visits     The total number of visits of all matching URLs.
+     * @param urls       The URL DTOs of the page.
+     * @param nextCursor The cursor of the next page, or {@code null} if this is the last page.
+     * @return A new StatisticsResponse instance representing success.
+     */
+    public static StatisticsResponse page(long visits, List<StatsUrlDto> urls, Long nextCursor) {
+        StatisticsResponse response = new StatisticsResponse(visits, urls, HttpStatus.OK);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+
     /**
      * Static method to create a failed statistics response.
      *
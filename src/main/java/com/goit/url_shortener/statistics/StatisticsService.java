@@ -1,19 +1,30 @@
 package com.goit.url_shortener.statistics;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.goit.url_shortener.security.AuthorizationService;
+import com.goit.url_shortener.url.ShortUrlGenerator;
 import com.goit.url_shortener.url.Url;
+import com.goit.url_shortener.url.UniqueVisitorCounter;
 import com.goit.url_shortener.url.UrlRepository;
+import com.goit.url_shortener.url.VisitCounter;
 import com.goit.url_shortener.url.dto.UrlRequest;
 import com.goit.url_shortener.user.User;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static com.goit.url_shortener.util.MessageProvider.*;
 
@@ -22,9 +33,16 @@ import static com.goit.url_shortener.util.MessageProvider.*;
  * This service interacts with the URL repository and the authorization service to retrieve and process URL statistics.
  */
 @Service
-@RequiredArgsConstructor
+@Timed(value = "statistics.service", histogram = true)
 public class StatisticsService {
 
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+
+    /**
+     * Number of streamed URLs after which the output is flushed.
+     */
+    private static final int STREAM_FLUSH_INTERVAL = 100;
+
     /**
      * The URL repository for accessing URL data.
      */
@@ -36,34 +54,95 @@ public class StatisticsService {
     private final AuthorizationService authorizationService;
 
     /**
-     * Retrieves all URLs associated with the authenticated user and calculates total visits.
-     *
-     * @param request The URL request containing authorization information.
-     * @return A response object containing the total visits and a list of URLs.
+     * The visit counter holding visits that have not been written to the database yet.
      */
-    @Transactional
-    public StatisticsResponse getAllUrlsByUser(UrlRequest request) {
-        Optional<User> userOptional = authorizationService.getAuthorizedUser(request.getAuthorizationHeader());
+    private final VisitCounter visitCounter;
 
-        if (userOptional.isEmpty()) {
-            return StatisticsResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED);
-        }
+    /**
+     * The counter estimating the unique visitors of each URL.
+     */
+    private final UniqueVisitorCounter uniqueVisitorCounter;
 
-        User user = userOptional.get();
+    /**
+     * The repository projecting URLs into statistics DTOs.
+     */
+    private final StatisticsRepository statisticsRepository;
 
-        List<Url> urls = urlRepository.findAllUrlsByUsername(user.getUsername());
+    /**
+     * The mapper used to write streamed URLs.
+     */
+    private final ObjectMapper objectMapper;
 
-        if (urls.isEmpty()) {
-            return StatisticsResponse.failed(URL_LIST_EMPTY_MESSAGE, HttpStatus.NOT_FOUND);
-        }
+    /**
+     * The largest page size a client may request.
+     */
+    private final int maxPageSize;
+
+    /**
+     * Creates the service.
+     *
+     * @param urlRepository        The URL repository.
+     * @param authorizationService The authorization service.
+     * @param visitCounter         The visit counter.
+     * @param uniqueVisitorCounter The unique visitor counter.
+     * @param statisticsRepository The statistics repository.
+     * @param objectMapper         The mapper used to write streamed URLs.
+     * @param maxPageSize          The largest page size a client may request.
+     */
+    public StatisticsService(UrlRepository urlRepository,
+                             AuthorizationService authorizationService,
+                             VisitCounter visitCounter,
+                             UniqueVisitorCounter uniqueVisitorCounter,
+                             StatisticsRepository statisticsRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${url.stats.max-page-size:1000}") int maxPageSize) {
+        this.urlRepository = urlRepository;
+        this.authorizationService = authorizationService;
+        this.visitCounter = visitCounter;
+        this.uniqueVisitorCounter = uniqueVisitorCounter;
+        this.statisticsRepository = statisticsRepository;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+    }
 
-        List<StatsUrlDto> list = createStatsUrlDtos(urls);
+    /**
+     * Retrieves all URLs associated with the authenticated user and calculates total visits.
+     *
+     * @param request The URL request containing authorization information.
+     * @return A response object containing the total visits and a list of URLs.
+     */
+    @Transactional(readOnly = true)
+    public StatisticsResponse getAllUrlsByUser(UrlRequest request) {
+        return getAllUrlsByUser(request, null, null);
+    }
 
-        long totalVisits = list.stream()
-                .map(StatsUrlDto::getVisits)
-                .reduce(0L, Long::sum);
+    /**
+     * Retrieves one page of URLs associated with the authenticated user and calculates total visits.
+     * The total covers all URLs of the user, not only the returned page.
+     *
+     * @param request The URL request containing authorization information.
+     * @param after   The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit   The page size, or {@code null} to return all URLs at once.
+     * @return A response object containing the total visits, the URLs and the cursor of the next page.
+     */
+    @Transactional(readOnly = true)
+    public StatisticsResponse getAllUrlsByUser(UrlRequest request, Long after, Integer limit) {
+        return getAllUrlsByUser(request, after, limit, StatsQuery.DEFAULT);
+    }
 
-        return StatisticsResponse.success(totalVisits, list);
+    /**
+     * Retrieves one page of the URLs of the authenticated user matching the query, in the requested order.
+     * The total visits cover all matching URLs, not only the returned page.
+     *
+     * @param request The URL request containing authorization information.
+     * @param after   The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit   The page size, or {@code null} to return all matching URLs at once.
+     * @param query   The sorting and date filters.
+     * @return A response object containing the total visits, the URLs and the cursor of the next page.
+     */
+    @Transactional(readOnly = true)
+    public StatisticsResponse getAllUrlsByUser(UrlRequest request, Long after, Integer limit, StatsQuery query) {
+        return getUrlsByUser(request, false, after, limit, query);
     }
 
     /**
@@ -75,34 +154,87 @@ public class StatisticsService {
      * @return A StatisticsResponse object containing the total number of visits and the list of active URLs.
      *         Returns an error response if the user is not authenticated or if no URLs are found.
      */
-    @Transactional
+    @Transactional(readOnly = true)
     public StatisticsResponse getActiveUrlsByUser(UrlRequest request) {
-        Optional<User> userOptional = authorizationService.getAuthorizedUser(request.getAuthorizationHeader());
+        return getActiveUrlsByUser(request, null, null);
+    }
 
-        if (userOptional.isEmpty()) {
-            return StatisticsResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED);
-        }
+    /**
+     * Retrieves one page of active URLs associated with the authenticated user.
+     * The total visits cover all active URLs of the user, not only the returned page.
+     *
+     * @param request The UrlRequest object containing the authorization header.
+     * @param after   The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit   The page size, or {@code null} to return all active URLs at once.
+     * @return A StatisticsResponse object containing the total visits, the URLs and the cursor of the next page.
+     */
+    @Transactional(readOnly = true)
+    public StatisticsResponse getActiveUrlsByUser(UrlRequest request, Long after, Integer limit) {
+        return getActiveUrlsByUser(request, after, limit, StatsQuery.DEFAULT);
+    }
 
-        User user = userOptional.get();
+    /**
+     * Retrieves one page of the active URLs of the authenticated user matching the query, in the requested order.
+     * The total visits cover all matching active URLs, not only the returned page.
+     *
+     * @param request The UrlRequest object containing the authorization header.
+     * @param after   The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit   The page size, or {@code null} to return all matching active URLs at once.
+     * @param query   The sorting and date filters.
+     * @return A StatisticsResponse object containing the total visits, the URLs and the cursor of the next page.
+     */
+    @Transactional(readOnly = true)
+    public StatisticsResponse getActiveUrlsByUser(UrlRequest request, Long after, Integer limit, StatsQuery query) {
+        return getUrlsByUser(request, true, after, limit, query);
+    }
 
-        List<Url> urls = urlRepository.findAllUrlsByUsername(user.getUsername());
+    /**
+     * Authenticates the user of a streaming statistics request.
+     *
+     * @param authorizationHeader The authorization header containing the JWT token.
+     * @return An Optional containing the authenticated user, or an empty Optional otherwise.
+     */
+    public Optional<User> authorize(String authorizationHeader) {
+        return authorizationService.getAuthorizedUser(authorizationHeader);
+    }
 
-        if (urls.isEmpty()) {
-            return StatisticsResponse.failed(URL_LIST_EMPTY_MESSAGE, HttpStatus.NOT_FOUND);
+    /**
+     * Writes the URLs of a user to the output as NDJSON, one {@link StatsUrlDto} per line.
+     *
+     * <p> Rows are read with a server-side cursor and written as they arrive, so memory use
+     * does not depend on the number of URLs. Unique visitors are estimated for every
+     * {@value #STREAM_FLUSH_INTERVAL} URLs before they are written. </p>
+     *
+     * @param user       The authenticated user.
+     * @param activeOnly Whether only active URLs are written.
+     * @param output     The NDJSON output.
+     * @throws IOException if writing the output fails.
+     */
+    @Transactional(readOnly = true)
+    public void streamUrlsByUser(User user, boolean activeOnly, OutputStream output) throws IOException {
+        try (Stream<StatsUrlDto> urls = statisticsRepository.streamAllByUser(user.getId(), activeOnly,
+                LocalDateTime.now())) {
+            Iterator<StatsUrlDto> iterator = urls.iterator();
+            List<StatsUrlDto> chunk = new ArrayList<>(STREAM_FLUSH_INTERVAL);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_FLUSH_INTERVAL || !iterator.hasNext()) {
+                    fillUniqueVisitors(chunk);
+                    for (StatsUrlDto url : chunk) {
+                        output.write(objectMapper.writeValueAsBytes(url));
+                        output.write(LINE_SEPARATOR);
+                    }
+                    chunk.clear();
+                    output.flush();
+                }
+            }
         }
-
-        List<StatsUrlDto> activeUrls = createActiveStatsUrlDtos(urls);
-
-        long totalVisits = activeUrls.stream()
-                .map(StatsUrlDto::getVisits)
-                .reduce(0L, Long::sum);
-
-        return StatisticsResponse.success(totalVisits, activeUrls);
+        output.flush();
     }
 
-
     /**
      * Retrieves the number of visits for a specific short URL associated with the authenticated user.
+     * The result includes visits that are still pending in the {@link VisitCounter}.
      *
      * @param request The URL request containing the short URL and authorization information.
      * @return A response object containing the number of visits.
@@ -115,7 +247,7 @@ public class StatisticsService {
             return StatisticsResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED);
         }
 
-        Optional<Url> urlOptional = urlRepository.findUrlByShortUrl(request.getUrl());
+        Optional<Url> urlOptional = urlRepository.findUrlByShortUrl(ShortUrlGenerator.toCode(request.getUrl()));
 
         if (urlOptional.isEmpty()) {
             return StatisticsResponse.failed(URL_NOT_FOUND_MESSAGE, HttpStatus.NOT_FOUND);
@@ -123,55 +255,74 @@ public class StatisticsService {
 
         Url url = urlOptional.get();
 
-        return StatisticsResponse.success(url.getVisits(), null);
+        return StatisticsResponse.success(url.getVisits() + visitCounter.pendingVisits(url.getId()), null);
     }
 
     /**
-     * Converts a list of URLs into a list of StatsUrlDtos.
-     * Each URL is processed to determine if it is still active based on its creation and expiration times.
-     *
-     * @param urls The list of URLs to be converted.
-     * @return A list of StatsUrlDto objects representing the processed URLs.
-     */
-    private List<StatsUrlDto> createStatsUrlDtos(List<Url> urls) {
-        List<StatsUrlDto> list = new ArrayList<>();
-        for (Url url : urls) {
-            LocalDateTime expiresAt = url.getExpiresAt();
-            boolean isActive = expiresAt == null || expiresAt.isAfter(LocalDateTime.now());
-            list.add(
-                    new StatsUrlDto(
-                            url.getShortUrl(),
-                            url.getLongUrl(),
-                            url.getVisits(),
-                            isActive,
-                            url.getCreatedAt(),
-                            expiresAt));
+     * Retrieves the URLs of the authenticated user, either all at once or one page at a time.
+     * Filtering and the visit total are computed by the database. The default order is served by the
+     * static queries of the repository, other orders and date filters by its query fragment.
+     */
+    private StatisticsResponse getUrlsByUser(UrlRequest request, boolean activeOnly, Long after, Integer limit,
+                                             StatsQuery query) {
+        Optional<User> userOptional = authorizationService.getAuthorizedUser(request.getAuthorizationHeader());
+
+        if (userOptional.isEmpty()) {
+            return StatisticsResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED);
+        }
+
+        if (!query.isValid()) {
+            return StatisticsResponse.failed(INCORRECT_STATS_QUERY_MESSAGE, HttpStatus.BAD_REQUEST);
+        }
+
+        User user = userOptional.get();
+        LocalDateTime now = LocalDateTime.now();
+        boolean defaultQuery = query.isDefault();
+
+        StatsTotals totals = query.isFiltered()
+                ? statisticsRepository.findFilteredTotals(user.getId(), activeOnly, now, query)
+                : statisticsRepository.findTotals(user.getId(), activeOnly, now);
+
+        if (totals == null || totals.urls() == 0) {
+            return StatisticsResponse.failed(URL_LIST_EMPTY_MESSAGE, HttpStatus.NOT_FOUND);
+        }
+
+        if (limit == null) {
+            List<StatsUrlDto> urls = defaultQuery
+                    ? statisticsRepository.findAllByUser(user.getId(), activeOnly, now)
+                    : statisticsRepository.findFilteredPage(user.getId(), activeOnly, now, query, null, null);
+            return StatisticsResponse.success(totals.visits(), withUniqueVisitors(urls));
         }
-        return list;
+
+        int pageSize = Math.clamp(limit, 1, maxPageSize);
+        List<StatsUrlDto> urls = defaultQuery
+                ? statisticsRepository.findPageByUser(user.getId(), activeOnly, now,
+                        after == null ? 0 : after, PageRequest.of(0, pageSize + 1))
+                : statisticsRepository.findFilteredPage(user.getId(), activeOnly, now, query, after, pageSize + 1);
+
+        Long nextCursor = null;
+        if (urls.size() > pageSize) {
+            urls = urls.subList(0, pageSize);
+            nextCursor = urls.get(pageSize - 1).getId();
+        }
+
+        return StatisticsResponse.page(totals.visits(), withUniqueVisitors(urls), nextCursor);
     }
 
     /**
-     * Creates a list of StatsUrlDtos for URLs that are currently active.
-     * Active URLs are those where the creation time is before the expiration time.
-     *
-     * @param urls The list of URLs to be filtered and converted.
-     * @return A list of active StatsUrlDto objects.
-     */
-    private List<StatsUrlDto> createActiveStatsUrlDtos(List<Url> urls) {
-        List<StatsUrlDto> list = new ArrayList<>();
-        for (Url url : urls) {
-            LocalDateTime expiresAt = url.getExpiresAt();
-            if (expiresAt == null || expiresAt.isAfter(LocalDateTime.now())) {
-                list.add(
-                        new StatsUrlDto(
-                                url.getShortUrl(),
-                                url.getLongUrl(),
-                                url.getVisits(),
-                                true,
-                                url.getCreatedAt(),
-                                expiresAt));
-            }
+     * Fills in the estimated unique visitors, querying the sketches of at most {@code maxPageSize} URLs at once.
+     */
+    private List<StatsUrlDto> withUniqueVisitors(List<StatsUrlDto> urls) {
+        for (int from = 0; from < urls.size(); from += maxPageSize) {
+            fillUniqueVisitors(urls.subList(from, Math.min(urls.size(), from + maxPageSize)));
+        }
+        return urls;
+    }
+
+    private void fillUniqueVisitors(List<StatsUrlDto> urls) {
+        Map<Long, Long> estimates = uniqueVisitorCounter.estimates(urls.stream().map(StatsUrlDto::getId).toList());
+        for (StatsUrlDto url : urls) {
+            url.setUniqueVisitors(estimates.get(url.getId()));
         }
-        return list;
     }
 }
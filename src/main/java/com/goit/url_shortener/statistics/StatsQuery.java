@@ -0,0 +1,86 @@
+package com.goit.url_shortener.statistics;
+
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Sorting and filtering of the URLs listed by the statistics endpoints, as given by the client.
+ *
+ * <p> Date ranges include their start and exclude their end, and either bound may be absent. Filtering
+ * by expiration date only matches URLs that expire. </p>
+ *
+ * @param sort        The sort key, see {@link StatsSort}.
+ * @param order       The sort direction, {@code asc} or {@code desc}.
+ * @param createdFrom The earliest creation date, or {@code null}.
+ * @param createdTo   The creation date before which URLs were created, or {@code null}.
+ * @param expiresFrom The earliest expiration date, or {@code null}.
+ * @param expiresTo   The expiration date before which URLs expire, or {@code null}.
+ */
+public record StatsQuery(String sort,
+                         String order,
+                         LocalDateTime createdFrom,
+                         LocalDateTime createdTo,
+                         LocalDateTime expiresFrom,
+                         LocalDateTime expiresTo) {
+
+    /**
+     * All URLs ordered by ascending id.
+     */
+    public static final StatsQuery DEFAULT = new StatsQuery("id", "asc", null, null, null, null);
+
+    /**
+     * Returns the parsed sort key.
+     *
+     * @return The sort key, or an empty Optional if it is unknown.
+     */
+    public Optional<StatsSort> sortKey() {
+        return StatsSort.parse(sort);
+    }
+
+    /**
+     * Returns the parsed sort direction.
+     *
+     * @return The direction, or an empty Optional if it is unknown.
+     */
+    public Optional<Sort.Direction> direction() {
+        return Sort.Direction.fromOptionalString(order);
+    }
+
+    /**
+     * Checks that the sort key and direction are known and that every range ends after it starts.
+     *
+     * @return {@code true} if the query can be run.
+     */
+    public boolean isValid() {
+        return sortKey().isPresent() && direction().isPresent()
+                && isRange(createdFrom, createdTo) && isRange(expiresFrom, expiresTo);
+    }
+
+    /**
+     * Checks whether any date filter is set, or the URLs are sorted by expiration date, which leaves out
+     * the URLs that never expire.
+     *
+     * @return {@code true} if only some URLs of the user match.
+     */
+    public boolean isFiltered() {
+        return createdFrom != null || createdTo != null || expiresFrom != null || expiresTo != null
+                || sortKey().orElse(null) == StatsSort.EXPIRES;
+    }
+
+    /**
+     * Checks whether the query lists all URLs by ascending id, which the static queries of the
+     * {@link StatisticsRepository} serve.
+     *
+     * @return {@code true} if the query neither filters nor sorts differently.
+     */
+    public boolean isDefault() {
+        return !isFiltered() && sortKey().orElse(null) == StatsSort.ID
+                && direction().orElse(null) == Sort.Direction.ASC;
+    }
+
+    private static boolean isRange(LocalDateTime from, LocalDateTime to) {
+        return from == null || to == null || from.isBefore(to);
+    }
+}
@@ -0,0 +1,56 @@
+package com.goit.url_shortener.statistics;
+
+import java.util.Optional;
+
+/**
+ * Keys the URLs of a user can be sorted by. Every key is followed by the id, which makes the order total
+ * and serves as the keyset cursor. The id, creation and expiration dates are served by the
+ * `idx_urls_user_id_id`, `idx_urls_user_id_created_at` and `idx_urls_user_id_expires_at` indexes.
+ */
+public enum StatsSort {
+
+    /**
+     * Sorts by id, the order of creation on a single instance.
+     */
+    ID("id"),
+
+    /**
+     * Sorts by creation date.
+     */
+    CREATED("createdAt"),
+
+    /**
+     * Sorts by expiration date. URLs that never expire are not listed.
+     */
+    EXPIRES("expiresAt");
+
+    private final String property;
+
+    StatsSort(String property) {
+        this.property = property;
+    }
+
+    /**
+     * Returns the property of the `Url` entity holding the key.
+     *
+     * @return The name of the property.
+     */
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Parses a sort key given by a client.
+     *
+     * @param value The sort key, case-insensitive.
+     * @return The sort key, or an empty Optional if the value is unknown.
+     */
+    public static Optional<StatsSort> parse(String value) {
+        for (StatsSort sort : values()) {
+            if (sort.name().equalsIgnoreCase(value)) {
+                return Optional.of(sort);
+            }
+        }
+        return Optional.empty();
+    }
+}
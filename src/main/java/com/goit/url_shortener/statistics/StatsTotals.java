@@ -0,0 +1,10 @@
+package com.goit.url_shortener.statistics;
+
+/**
+ * Aggregate statistics over the URLs of a user, computed by the database.
+ *
+ * @param urls   The number of matching URLs.
+ * @param visits The sum of visits of the matching URLs.
+ */
+public record StatsTotals(Long urls, Long visits) {
+}
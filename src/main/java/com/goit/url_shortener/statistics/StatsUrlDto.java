@@ -1,6 +1,7 @@
 package com.goit.url_shortener.statistics;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,17 +9,30 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 /**
- * DTO class for URL statistics, including short URL, long URL, visits,
+ * DTO class for URL statistics, including short URL, long URL, visits, estimated unique visitors,
  * activation status, creation, and expiration timestamps.
+ * The id is only used as the pagination cursor and is not serialized.
  */
 @Data
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class StatsUrlDto {
+    @JsonIgnore
+    private Long id;
     private String shortUrl;
     private String longUrl;
     private long visits;
     private boolean isActive;
     private LocalDateTime createdAt;
     private LocalDateTime expiresAt;
+    private Long uniqueVisitors;
+
+    /**
+     * Creates the DTO from a query projection. The unique visitors are not stored with the URL
+     * and are filled in afterwards.
+     */
+    public StatsUrlDto(Long id, String shortUrl, String longUrl, long visits, boolean isActive,
+                       LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this(id, shortUrl, longUrl, visits, isActive, createdAt, expiresAt, null);
+    }
 }
@@ -0,0 +1,12 @@
+package com.goit.url_shortener.statistics;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of visits within one time bucket.
+ *
+ * @param bucket The start of the bucket.
+ * @param visits The number of visits within the bucket.
+ */
+public record TimeSeriesPoint(LocalDateTime bucket, long visits) {
+}
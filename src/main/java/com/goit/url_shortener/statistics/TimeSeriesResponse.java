@@ -0,0 +1,91 @@
+package com.goit.url_shortener.statistics;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Represents the response object for time-series statistics.
+ * The series contains one point per bucket of the requested range, including buckets without visits.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@NoArgsConstructor
+public class TimeSeriesResponse {
+
+    /**
+     * The size of the buckets, `hour` or `day`.
+     */
+    private String granularity;
+
+    /**
+     * The start of the first bucket.
+     */
+    private LocalDateTime from;
+
+    /**
+     * The end of the range, exclusive.
+     */
+    private LocalDateTime to;
+
+    /**
+     * The total number of visits within the range.
+     */
+    private Long visits;
+
+    /**
+     * The number of visits per bucket, in chronological order.
+     */
+    private List<TimeSeriesPoint> points;
+
+    /**
+     * A message providing additional information about the response.
+     */
+    private String message;
+
+    /**
+     * The HTTP status of the response.
+     */
+    @JsonIgnore
+    private HttpStatus status;
+
+    /**
+     * Static method to create a successful time-series response.
+     *
+     * @param granularity The size of the buckets.
+     * @param from        The start of the first bucket.
+     * @param to          The end of the range, exclusive.
+     * @param points      The number of visits per bucket.
+     * @return A new TimeSeriesResponse instance representing success.
+     */
+    public static TimeSeriesResponse success(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                             List<TimeSeriesPoint> points) {
+        TimeSeriesResponse response = new TimeSeriesResponse();
+        response.setGranularity(granularity.value());
+        response.setFrom(from);
+        response.setTo(to);
+        response.setVisits(points.stream().mapToLong(TimeSeriesPoint::visits).sum());
+        response.setPoints(points);
+        response.setStatus(HttpStatus.OK);
+        return response;
+    }
+
+    /**
+     * Static method to create a failed time-series response.
+     *
+     * @param message The failure message.
+     * @param status  The HTTP status of the response.
+     * @return A new TimeSeriesResponse instance representing failure.
+     */
+    public static TimeSeriesResponse failed(String message, HttpStatus status) {
+        TimeSeriesResponse response = new TimeSeriesResponse();
+        response.setMessage(message);
+        response.setStatus(status);
+        return response;
+    }
+}
@@ -0,0 +1,131 @@
+package com.goit.url_shortener.statistics;
+
+import com.goit.url_shortener.security.AuthorizationService;
+import com.goit.url_shortener.url.ShortUrlGenerator;
+import com.goit.url_shortener.url.Url;
+import com.goit.url_shortener.url.UrlRepository;
+import com.goit.url_shortener.url.dto.UrlRequest;
+import com.goit.url_shortener.user.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.goit.url_shortener.util.MessageProvider.*;
+
+/**
+ * Service providing visits over time, read from the rollups maintained by the {@link ClickRollupJob}.
+ *
+ * <p> A series covers either one URL of the user or all of their URLs. The range is aligned to whole buckets
+ * and may span at most {@code url.stats.timeseries.max-buckets} buckets, so the cost of a request is bounded
+ * regardless of the number of clicks. Missing buckets are returned with zero visits. The last
+ * {@code url.stats.rollup.lag-seconds} are not aggregated yet. </p>
+ */
+@Service
+public class TimeSeriesService {
+
+    private final UrlRepository urlRepository;
+    private final AuthorizationService authorizationService;
+    private final ClickRollupRepository rollupRepository;
+    private final int maxBuckets;
+
+    /**
+     * Creates the service.
+     *
+     * @param urlRepository        The URL repository.
+     * @param authorizationService The authorization service.
+     * @param rollupRepository     The repository of click rollups.
+     * @param maxBuckets           The largest number of buckets of a single series.
+     */
+    public TimeSeriesService(UrlRepository urlRepository,
+                             AuthorizationService authorizationService,
+                             ClickRollupRepository rollupRepository,
+                             @Value("${url.stats.timeseries.max-buckets:2000}") int maxBuckets) {
+        this.urlRepository = urlRepository;
+        this.authorizationService = authorizationService;
+        this.rollupRepository = rollupRepository;
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Retrieves the visits per bucket of a URL of the authenticated user, or of all their URLs.
+     *
+     * @param request     The request containing the authorization header and, optionally, the short URL.
+     * @param granularity The size of the buckets, `hour` or `day`.
+     * @param from        The start of the range, or {@code null} for 30 days before its end.
+     * @param to          The end of the range, exclusive, or {@code null} for now.
+     * @return A response containing one point per bucket, or a failure if the request was rejected.
+     */
+    @Transactional(readOnly = true)
+    public TimeSeriesResponse getTimeSeries(UrlRequest request, String granularity,
+                                            LocalDateTime from, LocalDateTime to) {
+        Optional<User> userOptional = authorizationService.getAuthorizedUser(request.getAuthorizationHeader());
+
+        if (userOptional.isEmpty()) {
+            return TimeSeriesResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED);
+        }
+
+        Optional<RollupGranularity> granularityOptional = RollupGranularity.parse(granularity);
+
+        if (granularityOptional.isEmpty()) {
+            return TimeSeriesResponse.failed(INCORRECT_GRANULARITY_MESSAGE, HttpStatus.BAD_REQUEST);
+        }
+
+        RollupGranularity unit = granularityOptional.get();
+        LocalDateTime end = unit.truncate(to == null ? LocalDateTime.now() : to);
+        end = end.equals(to) ? end : unit.next(end);
+        LocalDateTime start = unit.truncate(from == null ? end.minusDays(30) : from);
+
+        if (!start.isBefore(end)) {
+            return TimeSeriesResponse.failed(INCORRECT_TIME_RANGE_MESSAGE, HttpStatus.BAD_REQUEST);
+        }
+
+        if (unit.bucketsBetween(start, end) > maxBuckets) {
+            return TimeSeriesResponse.failed(generateTooManyBucketsMessage(maxBuckets), HttpStatus.BAD_REQUEST);
+        }
+
+        User user = userOptional.get();
+        List<TimeSeriesPoint> points;
+
+        if (request.getUrl() == null || request.getUrl().isEmpty()) {
+            points = rollupRepository.findUserSeries(user.getId(), unit, start, end);
+        } else {
+            Optional<Url> urlOptional = urlRepository.findUrlByShortUrl(ShortUrlGenerator.toCode(request.getUrl()));
+
+            if (urlOptional.isEmpty() || !isOwnedBy(urlOptional.get(), user)) {
+                return TimeSeriesResponse.failed(URL_NOT_FOUND_MESSAGE, HttpStatus.NOT_FOUND);
+            }
+
+            points = rollupRepository.findUrlSeries(urlOptional.get().getId(), unit, start, end);
+        }
+
+        return TimeSeriesResponse.success(unit, start, end, fillGaps(points, unit, start, end));
+    }
+
+    private static boolean isOwnedBy(Url url, User user) {
+        return url.getUser() != null && Objects.equals(url.getUser().getId(), user.getId());
+    }
+
+    /**
+     * Adds a point with zero visits for every bucket of the range that has no rollup.
+     */
+    private static List<TimeSeriesPoint> fillGaps(List<TimeSeriesPoint> points, RollupGranularity unit,
+                                                  LocalDateTime start, LocalDateTime end) {
+        List<TimeSeriesPoint> series = new ArrayList<>();
+        int next = 0;
+        for (LocalDateTime bucket = start; bucket.isBefore(end); bucket = unit.next(bucket)) {
+            if (next < points.size() && points.get(next).bucket().equals(bucket)) {
+                series.add(points.get(next++));
+            } else {
+                series.add(new TimeSeriesPoint(bucket, 0));
+            }
+        }
+        return series;
+    }
+}
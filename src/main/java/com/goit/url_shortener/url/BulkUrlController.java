@@ -0,0 +1,87 @@
+package com.goit.url_shortener.url;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goit.url_shortener.url.dto.BulkUrlResponse;
+import com.goit.url_shortener.url.dto.UrlRequest;
+import com.goit.url_shortener.url.dto.UrlResponse;
+import com.goit.url_shortener.user.User;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+import static com.goit.url_shortener.util.MessageProvider.NOT_AUTHENTICATED_MESSAGE;
+
+/**
+ * The `BulkUrlController` class handles requests shortening many URLs at once.
+ *
+ * <p>Two request formats are accepted on the same path:</p>
+ * <ul>
+ *     <li>a JSON array of {@link UrlRequest} objects, answered with a single {@link BulkUrlResponse};</li>
+ *     <li>NDJSON with one {@link UrlRequest} per line, answered with NDJSON results written chunk by chunk,
+ *     which suits imports too large to hold in memory.</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/api/v1/url/")
+@RequiredArgsConstructor
+public class BulkUrlController {
+
+    private final BulkUrlService bulkUrlService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Endpoint to shorten a JSON array of long URLs.
+     *
+     * @param requests The long URLs to shorten, each with an optional expiration date.
+     * @param header   The "Authorization" header used for authentication. Default is an empty string.
+     * @return A `ResponseEntity` containing the `BulkUrlResponse` with one result per URL.
+     */
+    @PostMapping(path = {"/bulk", "/bulk/"}, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkUrlResponse> shortenAll(@RequestBody List<UrlRequest> requests,
+                                                      @RequestHeader(value = "Authorization", defaultValue = "")
+                                                      String header) {
+        BulkUrlResponse response = bulkUrlService.shortenAll(requests, header);
+        return ResponseEntity.status(response.getStatus()).body(response);
+    }
+
+    /**
+     * Endpoint to shorten long URLs streamed as NDJSON.
+     *
+     * <p>The request body is read and stored in chunks, and the results of each chunk are flushed
+     * to the client before the next one is read. If the request is not authenticated, a `UrlResponse`
+     * with status 401 is returned instead.</p>
+     *
+     * @param body     The NDJSON request body.
+     * @param header   The "Authorization" header used for authentication. Default is an empty string.
+     * @param response The servlet response the NDJSON results are written to.
+     * @throws IOException if reading the request or writing the response fails.
+     */
+    @PostMapping(path = {"/bulk", "/bulk/"},
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void shortenStream(InputStream body,
+                              @RequestHeader(value = "Authorization", defaultValue = "") String header,
+                              HttpServletResponse response) throws IOException {
+        Optional<User> user = bulkUrlService.authorize(header);
+
+        if (user.isEmpty()) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    UrlResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED));
+            return;
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        bulkUrlService.shortenStream(user.get(), body, response.getOutputStream());
+    }
+}
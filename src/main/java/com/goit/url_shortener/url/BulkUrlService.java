@@ -0,0 +1,313 @@
+package com.goit.url_shortener.url;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goit.url_shortener.security.AuthorizationService;
+import com.goit.url_shortener.url.code.SequenceBlockAllocator;
+import com.goit.url_shortener.url.dto.BulkUrlResponse;
+import com.goit.url_shortener.url.dto.BulkUrlResult;
+import com.goit.url_shortener.url.dto.UrlRequest;
+import com.goit.url_shortener.user.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static com.goit.url_shortener.util.MessageProvider.*;
+
+/**
+ * Service shortening many URLs of one user in a single request.
+ *
+ * <p> The user is authenticated once per request. URLs are then processed in chunks of
+ * {@code url.bulk.chunk-size}: each chunk is validated in parallel, short URLs for all valid entries
+ * are minted in one batch, and the chunk is inserted with a single JDBC batch in its own transaction.
+ * Identifiers are leased from the {@code urls_id_seq} sequence in blocks, the same way Hibernate does. </p>
+ *
+ * <p> Stored URLs carry the long URL hash used by {@link UrlDeduplicator}, so later single submissions
+ * of the same URL can reuse them. Entries of a bulk request are not deduplicated themselves. </p>
+ *
+ * <p> Results are reported per URL, so invalid entries do not fail the whole request. With NDJSON input,
+ * the next chunk is read only after the results of the previous one have been written, which lets a slow
+ * client throttle the import. </p>
+ */
+@Service
+@Slf4j
+public class BulkUrlService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO url_shortener.urls (id, long_url, short_url, expires_at, user_id, long_url_hash)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+
+    private static final int[] INSERT_TYPES =
+            {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.BIGINT, Types.BIGINT};
+
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+
+    private final AuthorizationService authorizationService;
+    private final LongUrlValidator validator;
+    private final ShortUrlGenerator urlGenerator;
+    private final UrlResolutionCache resolutionCache;
+    private final UrlDeduplicator deduplicator;
+    private final ShortCodeFilter shortCodeFilter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final SequenceBlockAllocator idAllocator;
+    private final int chunkSize;
+    private final int maxItems;
+
+    /**
+     * Creates the service.
+     *
+     * @param authorizationService The service authenticating the user.
+     * @param validator            The validator of long URLs.
+     * @param urlGenerator         The generator of short URLs.
+     * @param resolutionCache      The cache whose entries of new short URLs are invalidated.
+     * @param deduplicator         The deduplicator computing and recording long URL hashes.
+     * @param shortCodeFilter      The filter the new short URLs are added to.
+     * @param jdbcTemplate         The JDBC template used for batch inserts.
+     * @param transactionManager   The transaction manager wrapping each chunk.
+     * @param objectMapper         The mapper used to read and write NDJSON lines.
+     * @param chunkSize            The number of URLs validated and inserted together.
+     * @param maxItems             The maximum number of URLs in a JSON array request.
+     */
+    @Autowired
+    public BulkUrlService(AuthorizationService authorizationService,
+                          LongUrlValidator validator,
+                          ShortUrlGenerator urlGenerator,
+                          UrlResolutionCache resolutionCache,
+                          UrlDeduplicator deduplicator,
+                          ShortCodeFilter shortCodeFilter,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper,
+                          @Value("${url.bulk.chunk-size:1000}") int chunkSize,
+                          @Value("${url.bulk.max-items:10000}") int maxItems) {
+        this(authorizationService, validator, urlGenerator, resolutionCache, deduplicator, shortCodeFilter,
+                jdbcTemplate, transactionManager, objectMapper,
+                new SequenceBlockAllocator(jdbcTemplate, "url_shortener", "urls_id_seq"), chunkSize, maxItems);
+    }
+
+    BulkUrlService(AuthorizationService authorizationService,
+                   LongUrlValidator validator,
+                   ShortUrlGenerator urlGenerator,
+                   UrlResolutionCache resolutionCache,
+                   UrlDeduplicator deduplicator,
+                   ShortCodeFilter shortCodeFilter,
+                   JdbcTemplate jdbcTemplate,
+                   PlatformTransactionManager transactionManager,
+                   ObjectMapper objectMapper,
+                   SequenceBlockAllocator idAllocator,
+                   int chunkSize,
+                   int maxItems) {
+        this.authorizationService = authorizationService;
+        this.validator = validator;
+        this.urlGenerator = urlGenerator;
+        this.resolutionCache = resolutionCache;
+        this.deduplicator = deduplicator;
+        this.shortCodeFilter = shortCodeFilter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.idAllocator = idAllocator;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Authenticates the user of a bulk request.
+     *
+     * @param authorizationHeader The authorization header containing the JWT token.
+     * @return An Optional containing the authenticated user, or an empty Optional otherwise.
+     */
+    public Optional<User> authorize(String authorizationHeader) {
+        return authorizationService.getAuthorizedUser(authorizationHeader);
+    }
+
+    /**
+     * Shortens all URLs of a JSON array request.
+     *
+     * @param requests            The URLs to shorten, each with an optional expiration date.
+     * @param authorizationHeader The authorization header containing the JWT token.
+     * @return A {@link BulkUrlResponse} with one result per URL, or a failure if the request was rejected.
+     */
+    public BulkUrlResponse shortenAll(List<UrlRequest> requests, String authorizationHeader) {
+        Optional<User> userOptional = authorize(authorizationHeader);
+
+        if (userOptional.isEmpty()) {
+            return BulkUrlResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED);
+        }
+
+        if (requests == null || requests.isEmpty()) {
+            return BulkUrlResponse.failed(INCORRECT_URL_MESSAGE, HttpStatus.BAD_REQUEST);
+        }
+
+        if (requests.size() > maxItems) {
+            return BulkUrlResponse.failed(generateTooManyUrlsMessage(maxItems), HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+
+        User user = userOptional.get();
+        List<BulkUrlResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            List<UrlRequest> chunk = requests.subList(from, Math.min(from + chunkSize, requests.size()));
+            results.addAll(shortenChunk(user, chunk, from));
+        }
+        return BulkUrlResponse.success(results);
+    }
+
+    /**
+     * Shortens URLs read as NDJSON, one {@link UrlRequest} per line, and writes one {@link BulkUrlResult}
+     * per line to the output as soon as its chunk has been stored. Blank lines are skipped.
+     *
+     * @param user   The authenticated user owning the URLs.
+     * @param input  The NDJSON input.
+     * @param output The NDJSON output.
+     * @throws IOException if reading the input or writing the output fails.
+     */
+    public void shortenStream(User user, InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<UrlRequest> chunk = new ArrayList<>(chunkSize);
+        long offset = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(line));
+            if (chunk.size() == chunkSize) {
+                write(shortenChunk(user, chunk, offset), output);
+                offset += chunk.size();
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            write(shortenChunk(user, chunk, offset), output);
+        }
+    }
+
+    /**
+     * Validates, mints and stores one chunk of URLs.
+     *
+     * @param user   The owner of the URLs.
+     * @param chunk  The requests of the chunk, {@code null} for entries that could not be parsed.
+     * @param offset The index of the first request of the chunk within the whole request.
+     * @return The results of the chunk in request order.
+     */
+    List<BulkUrlResult> shortenChunk(User user, List<UrlRequest> chunk, long offset) {
+        BulkUrlResult[] results = new BulkUrlResult[chunk.size()];
+        LocalDateTime now = LocalDateTime.now();
+
+        IntStream.range(0, chunk.size())
+                .parallel()
+                .forEach(i -> results[i] = validate(chunk.get(i), offset + i, now));
+
+        int[] accepted = IntStream.range(0, chunk.size())
+                .filter(i -> results[i] == null)
+                .toArray();
+
+        if (accepted.length == 0) {
+            return Arrays.asList(results);
+        }
+
+        try {
+            List<String> shortUrls = urlGenerator.generateShortUrls(accepted.length);
+            List<Object[]> rows = new ArrayList<>(accepted.length);
+            long[] hashes = new long[accepted.length];
+            for (int k = 0; k < accepted.length; k++) {
+                UrlRequest request = chunk.get(accepted[k]);
+                LocalDateTime expiresAt = request.getExpiresAt();
+                hashes[k] = deduplicator.hash(request.getUrl());
+                rows.add(new Object[]{
+                        idAllocator.nextValue(),
+                        request.getUrl(),
+                        shortUrls.get(k),
+                        expiresAt == null ? null : Timestamp.valueOf(expiresAt),
+                        user.getId(),
+                        hashes[k]});
+            }
+
+            shortCodeFilter.add(shortUrls.toArray(new String[0]));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows, INSERT_TYPES));
+            resolutionCache.invalidate(shortUrls.toArray(new String[0]));
+            for (long hash : hashes) {
+                deduplicator.recordCreated(user.getId(), hash);
+            }
+
+            for (int k = 0; k < accepted.length; k++) {
+                UrlRequest request = chunk.get(accepted[k]);
+                results[accepted[k]] = BulkUrlResult.success(offset + accepted[k], shortUrls.get(k),
+                        request.getUrl(), request.getExpiresAt(), URL_CREATED_MESSAGE);
+            }
+        } catch (DataAccessException | IllegalStateException e) {
+            log.error("Failed to store {} urls of a bulk request", accepted.length, e);
+            for (int i : accepted) {
+                results[i] = BulkUrlResult.failed(offset + i, chunk.get(i).getUrl(),
+                        URL_NOT_SAVED_MESSAGE, HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Validates a single request.
+     *
+     * @return A failure result, or {@code null} if the request is valid.
+     */
+    private BulkUrlResult validate(UrlRequest request, long index, LocalDateTime now) {
+        if (request == null) {
+            return BulkUrlResult.failed(index, null, MALFORMED_REQUEST_MESSAGE, HttpStatus.BAD_REQUEST);
+        }
+
+        String longUrl = request.getUrl();
+
+        if (longUrl == null || longUrl.isEmpty() || !validator.isValid(longUrl)) {
+            return BulkUrlResult.failed(index, longUrl, INCORRECT_URL_MESSAGE, HttpStatus.BAD_REQUEST);
+        }
+
+        LocalDateTime expiresAt = request.getExpiresAt();
+
+        if (expiresAt != null && now.isAfter(expiresAt)) {
+            return BulkUrlResult.failed(index, longUrl, INCORRECT_EXPIRES_AT, HttpStatus.BAD_REQUEST);
+        }
+
+        return null;
+    }
+
+    private UrlRequest parse(String line) {
+        try {
+            return objectMapper.readValue(line, UrlRequest.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private void write(List<BulkUrlResult> results, OutputStream output) throws IOException {
+        for (BulkUrlResult result : results) {
+            output.write(objectMapper.writeValueAsBytes(result));
+            output.write(LINE_SEPARATOR);
+        }
+        output.flush();
+    }
+}
@@ -0,0 +1,53 @@
+package com.goit.url_shortener.url;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of a {@link Url} kept by the {@link UrlResolutionCache}.
+ *
+ * <p> Only the data needed to resolve a short URL is stored: the identifier used for visit accounting,
+ * the long URL, the optional expiration date and the owner. The {@link #MISSING} instance marks short URLs
+ * that are known not to exist (negative caching). </p>
+ *
+ * @param id        The identifier of the URL entity.
+ * @param longUrl   The original long URL.
+ * @param expiresAt The expiration date of the short URL, or {@code null} if it never expires.
+ * @param userId    The identifier of the owner, used to attribute visits to users.
+ */
+public record CachedUrl(Long id, String longUrl, LocalDateTime expiresAt, Long userId) {
+
+    /**
+     * Marker entry for short URLs that could not be found in the database.
+     */
+    public static final CachedUrl MISSING = new CachedUrl(null, null, null, null);
+
+    /**
+     * Creates a snapshot of the given URL entity.
+     *
+     * @param url The URL entity.
+     * @return A new {@link CachedUrl} holding the resolution data of the entity.
+     */
+    public static CachedUrl of(Url url) {
+        return new CachedUrl(url.getId(), url.getLongUrl(), url.getExpiresAt(),
+                url.getUser() == null ? null : url.getUser().getId());
+    }
+
+    /**
+     * Checks whether this entry marks a non-existent short URL.
+     *
+     * @return {@code true} if this is the {@link #MISSING} marker, {@code false} otherwise.
+     */
+    public boolean isMissing() {
+        return this == MISSING;
+    }
+
+    /**
+     * Checks whether the short URL has expired at the given moment.
+     *
+     * @param now The moment to check against.
+     * @return {@code true} if the expiration date is set and lies before {@code now}.
+     */
+    public boolean isExpiredAt(LocalDateTime now) {
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
+}
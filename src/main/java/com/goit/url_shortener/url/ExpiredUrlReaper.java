@@ -0,0 +1,145 @@
+package com.goit.url_shortener.url;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scheduled job removing URLs that expired more than {@code url.reaper.grace-period-hours} ago.
+ *
+ * <p> Every {@code url.reaper.interval-ms} the job deletes expired URLs in batches of
+ * {@code url.reaper.batch-size}, each in its own short transaction, until no expired URL is left or
+ * {@code url.reaper.max-batches} batches have been deleted. Rows are selected through the
+ * `idx_urls_expires_at` index with {@code FOR UPDATE SKIP LOCKED}, so several instances can reap
+ * concurrently and rows locked by users are skipped instead of waited for. With {@code url.reaper.archive}
+ * the deleted rows are copied to the `expired_urls` table in the same statement. </p>
+ *
+ * <p> During the grace period expired URLs are still answered with 410 Gone, afterwards with 404.
+ * Removed short URLs are evicted from the {@link UrlResolutionCache}. They stay in the {@link ShortCodeFilter}
+ * and the {@link UrlDeduplicator} filter until their next rebuild, which only costs a query. </p>
+ */
+@Service
+@Slf4j
+public class ExpiredUrlReaper {
+
+    private static final String EXPIRED_IDS_SQL = """
+            SELECT id FROM url_shortener.urls
+            WHERE expires_at < ?
+            ORDER BY expires_at
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED""";
+
+    private static final String DELETE_SQL = """
+            DELETE FROM url_shortener.urls
+            WHERE id IN (%s)
+            RETURNING short_url""".formatted(EXPIRED_IDS_SQL);
+
+    private static final String ARCHIVE_SQL = """
+            WITH removed AS (
+                DELETE FROM url_shortener.urls
+                WHERE id IN (%s)
+                RETURNING id, long_url, short_url, visits, created_at, expires_at, user_id
+            )
+            INSERT INTO url_shortener.expired_urls (id, long_url, short_url, visits, created_at, expires_at, user_id)
+            SELECT id, long_url, short_url, visits, created_at, expires_at, user_id FROM removed
+            RETURNING short_url""".formatted(EXPIRED_IDS_SQL);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UrlResolutionCache resolutionCache;
+    private final boolean enabled;
+    private final boolean archive;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final LongAdder reaped = new LongAdder();
+
+    /**
+     * Creates the reaper.
+     *
+     * @param jdbcTemplate       The JDBC template used to delete the URLs.
+     * @param transactionManager The transaction manager wrapping each batch.
+     * @param resolutionCache    The cache whose entries of removed short URLs are invalidated.
+     * @param enabled            Whether expired URLs are removed.
+     * @param archive            Whether removed URLs are copied to the `expired_urls` table.
+     * @param gracePeriodHours   The number of hours an expired URL is kept.
+     * @param batchSize          The maximum number of URLs deleted in one transaction.
+     * @param maxBatches         The maximum number of batches deleted per run.
+     */
+    public ExpiredUrlReaper(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            UrlResolutionCache resolutionCache,
+                            @Value("${url.reaper.enabled:true}") boolean enabled,
+                            @Value("${url.reaper.archive:false}") boolean archive,
+                            @Value("${url.reaper.grace-period-hours:168}") long gracePeriodHours,
+                            @Value("${url.reaper.batch-size:1000}") int batchSize,
+                            @Value("${url.reaper.max-batches:100}") int maxBatches) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resolutionCache = resolutionCache;
+        this.enabled = enabled;
+        this.archive = archive;
+        this.gracePeriod = Duration.ofHours(gracePeriodHours);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    /**
+     * Removes URLs that expired before the grace period, batch by batch.
+     * A failed batch is logged and ends the run; the remaining URLs are removed by the next run.
+     */
+    @Scheduled(fixedDelayString = "${url.reaper.interval-ms:60000}")
+    public void reap() {
+        if (!enabled) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(gracePeriod));
+        long removed = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                List<String> shortUrls = reapBatch(cutoff);
+                removed += shortUrls.size();
+                if (shortUrls.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            log.error("Failed to remove expired urls", e);
+        }
+        if (removed > 0) {
+            log.info("Removed {} expired urls", removed);
+        }
+    }
+
+    /**
+     * Returns the number of URLs removed by this instance.
+     *
+     * @return The number of removed URLs since startup.
+     */
+    public long reaped() {
+        return reaped.sum();
+    }
+
+    private List<String> reapBatch(Timestamp cutoff) {
+        List<String> shortUrls = transactionTemplate.execute(status ->
+                jdbcTemplate.queryForList(archive ? ARCHIVE_SQL : DELETE_SQL, String.class, cutoff, batchSize));
+        if (shortUrls == null || shortUrls.isEmpty()) {
+            return List.of();
+        }
+        resolutionCache.invalidate(shortUrls.toArray(new String[0]));
+        reaped.add(shortUrls.size());
+        return shortUrls;
+    }
+}
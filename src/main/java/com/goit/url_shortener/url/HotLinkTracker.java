@@ -0,0 +1,213 @@
+package com.goit.url_shortener.url;
+
+import com.goit.url_shortener.util.SpaceSaving;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Service tracking the most visited short URLs of the last minute and the last hour in bounded memory.
+ *
+ * <p> Every window is divided into slices ({@link Window}); each slice keeps {@code url.hot.stripes}
+ * {@link SpaceSaving} summaries of {@code url.hot.capacity} links, and a visit is counted in the summary
+ * of the current slice selected by the visiting thread, so concurrent redirects rarely wait for each other.
+ * A summary is cleared when its slice is reused, which lets old visits expire slice by slice. A query merges
+ * the summaries of the slices within the window and costs the same regardless of traffic. </p>
+ *
+ * <p> Counts are estimates: a link is reported if it is among the most visited links of the summaries,
+ * and its count may exceed the true number of visits by the reported error. The top links of a user are
+ * selected among the tracked links, so links of a user with little traffic may be missing. </p>
+ */
+@Service
+public class HotLinkTracker {
+
+    /**
+     * Time window of a top-N query.
+     */
+    public enum Window {
+
+        /**
+         * The last minute, in slices of ten seconds.
+         */
+        MINUTE(Duration.ofMinutes(1), Duration.ofSeconds(10)),
+
+        /**
+         * The last hour, in slices of five minutes.
+         */
+        HOUR(Duration.ofHours(1), Duration.ofMinutes(5));
+
+        private final long sliceMillis;
+        private final int slices;
+
+        Window(Duration length, Duration slice) {
+            this.sliceMillis = slice.toMillis();
+            this.slices = (int) (length.toMillis() / sliceMillis);
+        }
+    }
+
+    /**
+     * A tracked link.
+     *
+     * @param urlId    The identifier of the URL.
+     * @param shortUrl The short URL that was visited.
+     * @param userId   The identifier of the owner.
+     */
+    public record HotLink(Long urlId, String shortUrl, Long userId) {
+    }
+
+    /**
+     * A link reported by a top-N query.
+     *
+     * @param link   The link.
+     * @param visits The estimated number of visits within the window.
+     * @param error  The maximum overestimation of the visits.
+     */
+    public record HotLinkCount(HotLink link, long visits, long error) {
+    }
+
+    private final boolean enabled;
+    private final LongSupplier clock;
+    private final Map<Window, Slice[]> slices = new HashMap<>();
+    private final int stripeMask;
+
+    /**
+     * Creates the tracker.
+     *
+     * @param enabled  Whether visits are tracked.
+     * @param capacity The number of links tracked by each summary.
+     * @param stripes  The number of summaries per slice, rounded up to a power of two.
+     */
+    @Autowired
+    public HotLinkTracker(@Value("${url.hot.enabled:true}") boolean enabled,
+                          @Value("${url.hot.capacity:256}") int capacity,
+                          @Value("${url.hot.stripes:4}") int stripes) {
+        this(enabled, capacity, stripes, System::currentTimeMillis);
+    }
+
+    HotLinkTracker(boolean enabled, int capacity, int stripes, LongSupplier clock) {
+        this.enabled = enabled;
+        this.clock = clock;
+        int stripeCount = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripeMask = stripeCount - 1;
+        for (Window window : Window.values()) {
+            Slice[] ring = new Slice[window.slices + 1];
+            for (int i = 0; i < ring.length; i++) {
+                ring[i] = new Slice(stripeCount, capacity);
+            }
+            slices.put(window, ring);
+        }
+    }
+
+    /**
+     * Records a visit of a link.
+     *
+     * @param urlId    The identifier of the URL. {@code null} values are ignored.
+     * @param shortUrl The short URL that was visited.
+     * @param userId   The identifier of the owner.
+     */
+    public void record(Long urlId, String shortUrl, Long userId) {
+        if (!enabled || urlId == null) {
+            return;
+        }
+        HotLink link = new HotLink(urlId, shortUrl, userId);
+        long now = clock.getAsLong();
+        int stripe = (int) Thread.currentThread().threadId() & stripeMask;
+        for (Window window : Window.values()) {
+            long epoch = now / window.sliceMillis;
+            Slice[] ring = slices.get(window);
+            ring[(int) (epoch % ring.length)].summaries[stripe].offer(epoch, link);
+        }
+    }
+
+    /**
+     * Returns the most visited links within a window.
+     *
+     * @param window The window.
+     * @param limit  The maximum number of links.
+     * @param userId The owner whose links are returned, or {@code null} for the links of all users.
+     * @return The links ordered by descending estimated visits.
+     */
+    public List<HotLinkCount> top(Window window, int limit, Long userId) {
+        long current = clock.getAsLong() / window.sliceMillis;
+        long oldest = current - window.slices + 1;
+        Map<HotLink, long[]> merged = new HashMap<>();
+        for (Slice slice : slices.get(window)) {
+            for (StripeSummary summary : slice.summaries) {
+                summary.collect(oldest, current, userId, merged);
+            }
+        }
+
+        List<HotLinkCount> links = new ArrayList<>(merged.size());
+        merged.forEach((link, counts) -> links.add(new HotLinkCount(link, counts[0], counts[1])));
+        links.sort(Comparator.comparingLong(HotLinkCount::visits).reversed());
+        return links.size() > limit ? new ArrayList<>(links.subList(0, limit)) : links;
+    }
+
+    private static final class Slice {
+
+        private final StripeSummary[] summaries;
+
+        private Slice(int stripes, int capacity) {
+            summaries = new StripeSummary[stripes];
+            for (int i = 0; i < stripes; i++) {
+                summaries[i] = new StripeSummary(capacity);
+            }
+        }
+    }
+
+    /**
+     * A summary of one slice and stripe, tagged with the slice epoch it counts.
+     * It is guarded by a {@link ReentrantLock} rather than a monitor, so a contended stripe parks a virtual
+     * thread instead of pinning its carrier thread.
+     */
+    private static final class StripeSummary {
+
+        private final SpaceSaving<HotLink> summary;
+        private final ReentrantLock lock = new ReentrantLock();
+        private long epoch = -1;
+
+        private StripeSummary(int capacity) {
+            summary = new SpaceSaving<>(capacity);
+        }
+
+        private void offer(long currentEpoch, HotLink link) {
+            lock.lock();
+            try {
+                if (epoch != currentEpoch) {
+                    summary.clear();
+                    epoch = currentEpoch;
+                }
+                summary.offer(link);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void collect(long oldest, long current, Long userId, Map<HotLink, long[]> merged) {
+            lock.lock();
+            try {
+                if (epoch < oldest || epoch > current) {
+                    return;
+                }
+                summary.forEach((link, count, error) -> {
+                    if (userId == null || userId.equals(link.userId())) {
+                        long[] counts = merged.computeIfAbsent(link, key -> new long[2]);
+                        counts[0] += count;
+                        counts[1] += error;
+                    }
+                });
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -2,33 +2,617 @@ package com.goit.url_shortener.url;
 
 import org.springframework.stereotype.Service;
 
+import java.net.IDN;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
- * Service class responsible for validating long URLs.
- * This class contains a method to check if a given long URL starts with 'http://' or 'https://'.
+ * Service class responsible for validating and normalizing long URLs.
  *
  * <p> The {@code isValid} method verifies that the provided URL:
  * <ul>
- *   <li>Is not null or empty.</li>
- *   <li>Starts with 'http://' or 'https://'.</li>
+ *   <li>Is not null, empty or longer than {@value #MAX_URL_LENGTH} bytes in UTF-8.</li>
+ *   <li>Starts with 'http://' or 'https://' (case-insensitive).</li>
+ *   <li>Has a host that is either a DNS name, possibly internationalized, or a bracketed IPv6 literal,
+ *       optionally followed by a port between 1 and 65535. Credentials ({@code user@host}) are not accepted.</li>
+ *   <li>Has a path, query and fragment consisting only of the characters allowed by RFC 3986, valid
+ *       percent-encodings, or non-ASCII characters that are not whitespace or control characters.</li>
  * </ul>
  *
- * <p> This class uses a regular expression to perform the validation.</p>
+ * <p> The URL is parsed by hand in a single pass without regular expressions, so validation does not
+ * allocate and takes linear time even for adversarial input. </p>
+ *
+ * <p> The {@code normalize} method uses the same parser to produce the canonical form of a URL,
+ * following the normalizations of RFC 3986, section 6.2. Two URLs with the same canonical form refer
+ * to the same resource. </p>
  */
 @Service
 public class LongUrlValidator {
 
     /**
-     * Validates whether the provided long URL starts with 'http://' or 'https://'.
+     * The maximum length of a long URL in UTF-8 bytes. It fits the `long_url` column, which counts characters,
+     * and keeps the URL small enough to be included in the entries of the index of short URLs.
+     */
+    public static final int MAX_URL_LENGTH = 2000;
+
+    private static final int MAX_HOST_LENGTH = 253;
+    private static final int MAX_LABEL_LENGTH = 63;
+    private static final int MAX_PORT = 65535;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * ASCII characters allowed in a path segment without encoding: unreserved, sub-delims, ':' and '@'.
+     */
+    private static final boolean[] PCHAR = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            PCHAR[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            PCHAR[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            PCHAR[c] = true;
+        }
+        for (char c : "-._~!$&'()*+,;=:@".toCharArray()) {
+            PCHAR[c] = true;
+        }
+    }
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Validates whether the provided long URL is a well-formed 'http://' or 'https://' URL.
      *
      * @param longUrl - The long URL to validate.
-     * @return {@code true} if the URL is valid (starts with 'http://' or 'https://'), {@code false} otherwise.
+     * @return {@code true} if the URL is valid, {@code false} otherwise.
      */
     public boolean isValid(String longUrl) {
-        if (longUrl == null || longUrl.isEmpty()) {
+        boolean valid = longUrl != null && parse(longUrl, null);
+        if (!valid) {
+            rejected.increment();
+        }
+        return valid;
+    }
+
+    /**
+     * Returns the number of URLs rejected by {@link #isValid(String)}.
+     *
+     * @return The number of rejected URLs since startup.
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the canonical form of the provided long URL.
+     *
+     * <p> The scheme and host are lower-cased, internationalized host names are converted to punycode,
+     * IPv6 literals are written in their shortest form, default ports are removed, an empty path becomes
+     * '/', dot segments are removed, percent-encodings of unreserved characters are decoded, other
+     * percent-encodings use upper-case hex digits, and non-ASCII characters are percent-encoded as UTF-8. </p>
+     *
+     * @param longUrl - The long URL to normalize.
+     * @return The canonical URL, or {@code null} if the URL is not valid.
+     */
+    public String normalize(String longUrl) {
+        if (longUrl == null) {
+            return null;
+        }
+        StringBuilder canonical = new StringBuilder(longUrl.length() + 8);
+        if (!parse(longUrl, canonical) || canonical.length() > MAX_URL_LENGTH) {
+            return null;
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * Checks that the URL takes at most {@value #MAX_URL_LENGTH} bytes in UTF-8, stopping at the first byte over.
+     */
+    private static boolean fitsMaxLength(String url) {
+        int length = url.length();
+        if (length > MAX_URL_LENGTH) {
+            return false;
+        }
+        int bytes = 0;
+        for (int i = 0; i < length; i++) {
+            char c = url.charAt(i);
+            bytes += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+            if (bytes > MAX_URL_LENGTH) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the URL and, if {@code out} is not {@code null}, appends its canonical form to it.
+     */
+    private static boolean parse(String url, StringBuilder out) {
+        int length = url.length();
+        if (length == 0 || !fitsMaxLength(url)) {
+            return false;
+        }
+
+        boolean https;
+        int i;
+        if (url.regionMatches(true, 0, "https://", 0, 8)) {
+            https = true;
+            i = 8;
+        } else if (url.regionMatches(true, 0, "http://", 0, 7)) {
+            https = false;
+            i = 7;
+        } else {
+            return false;
+        }
+        if (out != null) {
+            out.append(https ? "https://" : "http://");
+        }
+
+        int authorityEnd = i;
+        while (authorityEnd < length) {
+            char c = url.charAt(authorityEnd);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            authorityEnd++;
+        }
+        if (!parseAuthority(url, i, authorityEnd, https ? 443 : 80, out)) {
+            return false;
+        }
+
+        int pathEnd = authorityEnd;
+        while (pathEnd < length && url.charAt(pathEnd) != '?' && url.charAt(pathEnd) != '#') {
+            pathEnd++;
+        }
+        int pathStart = out == null ? 0 : out.length();
+        if (!parseComponent(url, authorityEnd, pathEnd, false, out)) {
             return false;
         }
+        if (out != null) {
+            normalizePath(out, pathStart);
+        }
+
+        i = pathEnd;
+        if (i < length && url.charAt(i) == '?') {
+            int queryEnd = url.indexOf('#', i);
+            if (queryEnd < 0) {
+                queryEnd = length;
+            }
+            if (out != null) {
+                out.append('?');
+            }
+            if (!parseComponent(url, i + 1, queryEnd, true, out)) {
+                return false;
+            }
+            i = queryEnd;
+        }
+        if (i < length) {
+            if (out != null) {
+                out.append('#');
+            }
+            return parseComponent(url, i + 1, length, true, out);
+        }
+        return true;
+    }
+
+    private static boolean parseAuthority(String url, int from, int to, int defaultPort, StringBuilder out) {
+        if (from == to) {
+            return false;
+        }
+
+        int hostEnd;
+        if (url.charAt(from) == '[') {
+            int close = url.indexOf(']', from);
+            if (close < 0 || close >= to) {
+                return false;
+            }
+            int[] groups = out == null ? null : new int[8];
+            if (!parseIpv6(url, from + 1, close, groups)) {
+                return false;
+            }
+            if (out != null) {
+                appendIpv6(out, groups);
+            }
+            hostEnd = close + 1;
+        } else {
+            hostEnd = from;
+            while (hostEnd < to && url.charAt(hostEnd) != ':') {
+                hostEnd++;
+            }
+            if (!parseRegName(url, from, hostEnd, out)) {
+                return false;
+            }
+        }
 
-        String URL_REGEX = "^(http://|https://).+";
-        return longUrl.matches(URL_REGEX);
+        if (hostEnd == to) {
+            return true;
+        }
+        if (url.charAt(hostEnd) != ':') {
+            return false;
+        }
+        int port = 0;
+        for (int i = hostEnd + 1; i < to; i++) {
+            char c = url.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            port = port * 10 + (c - '0');
+            if (port > MAX_PORT) {
+                return false;
+            }
+        }
+        boolean hasPort = hostEnd + 1 < to;
+        if (hasPort && port == 0) {
+            return false;
+        }
+        if (out != null && hasPort && port != defaultPort) {
+            out.append(':').append(port);
+        }
+        return true;
+    }
+
+    /**
+     * Validates a DNS host name made of labels of letters, digits and hyphens. Letters and digits
+     * outside ASCII are accepted for internationalized names and converted to punycode on output.
+     */
+    private static boolean parseRegName(String url, int from, int to, StringBuilder out) {
+        if (from == to || to - from > MAX_HOST_LENGTH) {
+            return false;
+        }
+        boolean ascii = true;
+        int labelStart = from;
+        for (int i = from; i < to; i++) {
+            char c = url.charAt(i);
+            if (c == '.') {
+                if (!isValidLabel(url, labelStart, i)) {
+                    return false;
+                }
+                labelStart = i + 1;
+            } else if (c < 128) {
+                if (!isAsciiLetterOrDigit(c) && c != '-') {
+                    return false;
+                }
+            } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(url.charAt(i + 1))) {
+                if (!isIdnCodePoint(Character.toCodePoint(c, url.charAt(i + 1)))) {
+                    return false;
+                }
+                ascii = false;
+                i++;
+            } else if (isIdnCodePoint(c)) {
+                ascii = false;
+            } else {
+                return false;
+            }
+        }
+        if (!isValidLabel(url, labelStart, to)) {
+            return false;
+        }
+
+        if (out != null) {
+            if (ascii) {
+                for (int i = from; i < to; i++) {
+                    out.append(toLowerAscii(url.charAt(i)));
+                }
+            } else {
+                String host;
+                try {
+                    host = IDN.toASCII(url.substring(from, to));
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+                for (int i = 0; i < host.length(); i++) {
+                    out.append(toLowerAscii(host.charAt(i)));
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidLabel(String url, int from, int to) {
+        return to > from
+                && to - from <= MAX_LABEL_LENGTH
+                && url.charAt(from) != '-'
+                && url.charAt(to - 1) != '-';
+    }
+
+    private static boolean isIdnCodePoint(int codePoint) {
+        if (Character.isLetterOrDigit(codePoint)) {
+            return true;
+        }
+        int type = Character.getType(codePoint);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    /**
+     * Parses the content of an IPv6 literal, including the compressed '::' form and a trailing IPv4 address.
+     * If {@code groups} is not {@code null}, it receives the eight 16-bit groups of the address.
+     */
+    private static boolean parseIpv6(String url, int from, int to, int[] groups) {
+        int count = 0;
+        int compressAt = -1;
+        int i = from;
+
+        if (i < to && url.charAt(i) == ':') {
+            if (i + 1 >= to || url.charAt(i + 1) != ':') {
+                return false;
+            }
+            compressAt = 0;
+            i += 2;
+        }
+
+        while (i < to) {
+            if (count == 8) {
+                return false;
+            }
+            int start = i;
+            int value = 0;
+            while (i < to && i - start < 4 && hexValue(url.charAt(i)) >= 0) {
+                value = (value << 4) | hexValue(url.charAt(i));
+                i++;
+            }
+            if (i < to && url.charAt(i) == '.') {
+                if (count > 6) {
+                    return false;
+                }
+                long ipv4 = parseIpv4(url, start, to);
+                if (ipv4 < 0) {
+                    return false;
+                }
+                if (groups != null) {
+                    groups[count] = (int) (ipv4 >>> 16);
+                    groups[count + 1] = (int) (ipv4 & 0xFFFF);
+                }
+                count += 2;
+                break;
+            }
+            if (i == start) {
+                return false;
+            }
+            if (groups != null) {
+                groups[count] = value;
+            }
+            count++;
+            if (i == to) {
+                break;
+            }
+            if (url.charAt(i) != ':') {
+                return false;
+            }
+            i++;
+            if (i < to && url.charAt(i) == ':') {
+                if (compressAt >= 0) {
+                    return false;
+                }
+                compressAt = count;
+                i++;
+            } else if (i == to) {
+                return false;
+            }
+        }
+
+        if (compressAt < 0) {
+            return count == 8;
+        }
+        if (count > 7) {
+            return false;
+        }
+        if (groups != null) {
+            int shift = 8 - count;
+            for (int g = count - 1; g >= compressAt; g--) {
+                groups[g + shift] = groups[g];
+            }
+            for (int g = compressAt; g < compressAt + shift; g++) {
+                groups[g] = 0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a dotted IPv4 address.
+     *
+     * @return The address as an unsigned 32-bit value, or {@code -1} if it is malformed.
+     */
+    private static long parseIpv4(String url, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int i = from;
+        while (i < to) {
+            int start = i;
+            int value = 0;
+            while (i < to && i - start < 3 && url.charAt(i) >= '0' && url.charAt(i) <= '9') {
+                value = value * 10 + (url.charAt(i) - '0');
+                i++;
+            }
+            if (i == start || value > 255 || (i - start > 1 && url.charAt(start) == '0')) {
+                return -1;
+            }
+            address = (address << 8) | value;
+            octets++;
+            if (i == to) {
+                break;
+            }
+            if (url.charAt(i) != '.' || octets == 4) {
+                return -1;
+            }
+            i++;
+            if (i == to) {
+                return -1;
+            }
+        }
+        return octets == 4 ? address : -1;
+    }
+
+    /**
+     * Appends an IPv6 literal in the form recommended by RFC 5952: lower-case hex digits without leading zeros
+     * and the longest run of at least two zero groups replaced by '::'.
+     */
+    private static void appendIpv6(StringBuilder out, int[] groups) {
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int g = 0; g < 8; ) {
+            if (groups[g] != 0) {
+                g++;
+                continue;
+            }
+            int start = g;
+            while (g < 8 && groups[g] == 0) {
+                g++;
+            }
+            if (g - start > bestLength) {
+                bestStart = start;
+                bestLength = g - start;
+            }
+        }
+
+        out.append('[');
+        for (int g = 0; g < 8; g++) {
+            if (g == bestStart) {
+                out.append("::");
+                g += bestLength - 1;
+                continue;
+            }
+            if (g > 0 && g != bestStart + bestLength) {
+                out.append(':');
+            }
+            out.append(Integer.toHexString(groups[g]));
+        }
+        out.append(']');
+    }
+
+    /**
+     * Validates a path, query or fragment and appends its canonical encoding.
+     *
+     * @param allowQuestionMark Whether '?' is allowed, which is the case in queries and fragments.
+     */
+    private static boolean parseComponent(String url, int from, int to, boolean allowQuestionMark, StringBuilder out) {
+        for (int i = from; i < to; i++) {
+            char c = url.charAt(i);
+            if (c == '%') {
+                if (i + 2 >= to) {
+                    return false;
+                }
+                int high = hexValue(url.charAt(i + 1));
+                int low = hexValue(url.charAt(i + 2));
+                if (high < 0 || low < 0) {
+                    return false;
+                }
+                if (out != null) {
+                    int decoded = (high << 4) | low;
+                    if (isUnreserved(decoded)) {
+                        out.append((char) decoded);
+                    } else {
+                        appendPercentEncoded(out, decoded);
+                    }
+                }
+                i += 2;
+            } else if (c < 128) {
+                if (!PCHAR[c] && c != '/' && !(allowQuestionMark && c == '?')) {
+                    return false;
+                }
+                if (out != null) {
+                    out.append(c);
+                }
+            } else {
+                int codePoint = c;
+                if (Character.isHighSurrogate(c)) {
+                    if (i + 1 >= to || !Character.isLowSurrogate(url.charAt(i + 1))) {
+                        return false;
+                    }
+                    codePoint = Character.toCodePoint(c, url.charAt(i + 1));
+                    i++;
+                } else if (Character.isLowSurrogate(c)) {
+                    return false;
+                }
+                if (Character.isISOControl(codePoint) || Character.isWhitespace(codePoint)
+                        || Character.isSpaceChar(codePoint)) {
+                    return false;
+                }
+                if (out != null) {
+                    appendUtf8(out, codePoint);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces an empty path with '/' and removes '.' and '..' segments, as described in RFC 3986, section 5.2.4.
+     */
+    private static void normalizePath(StringBuilder out, int pathStart) {
+        if (out.length() == pathStart) {
+            out.append('/');
+            return;
+        }
+        String path = out.substring(pathStart);
+        if (!path.contains("/.")) {
+            return;
+        }
+        out.setLength(pathStart);
+        int i = 0;
+        while (i < path.length()) {
+            int next = path.indexOf('/', i + 1);
+            if (next < 0) {
+                next = path.length();
+            }
+            String segment = path.substring(i + 1, next);
+            boolean last = next == path.length();
+            if (segment.equals(".")) {
+                if (last) {
+                    out.append('/');
+                }
+            } else if (segment.equals("..")) {
+                int parent = out.lastIndexOf("/");
+                out.setLength(Math.max(parent, pathStart));
+                if (last) {
+                    out.append('/');
+                }
+            } else {
+                out.append('/').append(segment);
+            }
+            i = next;
+        }
+        if (out.length() == pathStart) {
+            out.append('/');
+        }
+    }
+
+    private static void appendUtf8(StringBuilder out, int codePoint) {
+        byte[] bytes = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            appendPercentEncoded(out, b & 0xFF);
+        }
+    }
+
+    private static void appendPercentEncoded(StringBuilder out, int value) {
+        out.append('%').append(HEX_DIGITS[value >> 4]).append(HEX_DIGITS[value & 0xF]);
+    }
+
+    private static boolean isUnreserved(int c) {
+        return isAsciiLetterOrDigit(c) || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    private static boolean isAsciiLetterOrDigit(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static char toLowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
     }
 }
@@ -0,0 +1,128 @@
+package com.goit.url_shortener.url;
+
+import com.goit.url_shortener.click.ClickRecorder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * The `RedirectController` class redirects browsers from a short code to the original long URL.
+ *
+ * <p> The endpoint {@code GET /{code}} takes the short code from the path, resolves it through
+ * {@link UrlService#resolve(String)} and answers with an empty body and a {@code Location} header.
+ * The redirect status is configured with {@code url.redirect.status} (301, 302, 307 or 308).
+ * Unknown codes are answered with 404 and expired codes with 410, both without a body. </p>
+ *
+ * <p> Responses may be cached by clients for {@code url.redirect.max-age-seconds}, but never beyond the
+ * expiration date of the short URL. Cached redirects are not counted as visits, so a lower value
+ * gives more precise statistics. </p>
+ *
+ * <p> Every redirect is also handed to the {@link ClickRecorder} with its referrer, user agent and client
+ * address, without waiting for it to be stored, and counted by the {@link UniqueVisitorCounter}. </p>
+ */
+@RestController
+public class RedirectController {
+
+    private static final String NO_STORE = "no-store";
+
+    private final UrlService urlService;
+    private final ClickRecorder clickRecorder;
+    private final UniqueVisitorCounter uniqueVisitorCounter;
+    private final HttpStatus redirectStatus;
+    private final long maxAgeSeconds;
+    private final String defaultCacheControl;
+
+    /**
+     * Creates the controller with the configured redirect status and cache lifetime.
+     *
+     * @param urlService           The service resolving short URLs.
+     * @param clickRecorder        The recorder of click events.
+     * @param uniqueVisitorCounter The counter of unique visitors.
+     * @param redirectStatus       The HTTP status code used for redirects.
+     * @param maxAgeSeconds        The maximum time clients may cache a redirect, {@code 0} disables caching.
+     */
+    public RedirectController(UrlService urlService,
+                              ClickRecorder clickRecorder,
+                              UniqueVisitorCounter uniqueVisitorCounter,
+                              @Value("${url.redirect.status:302}") int redirectStatus,
+                              @Value("${url.redirect.max-age-seconds:60}") long maxAgeSeconds) {
+        HttpStatus status = HttpStatus.valueOf(redirectStatus);
+        if (status != HttpStatus.MOVED_PERMANENTLY && status != HttpStatus.FOUND
+                && status != HttpStatus.TEMPORARY_REDIRECT && status != HttpStatus.PERMANENT_REDIRECT) {
+            throw new IllegalArgumentException("Unsupported redirect status: " + redirectStatus);
+        }
+        this.urlService = urlService;
+        this.clickRecorder = clickRecorder;
+        this.uniqueVisitorCounter = uniqueVisitorCounter;
+        this.redirectStatus = status;
+        this.maxAgeSeconds = Math.max(0, maxAgeSeconds);
+        this.defaultCacheControl = cacheControl(this.maxAgeSeconds);
+    }
+
+    /**
+     * Endpoint redirecting a short code to its long URL.
+     *
+     * @param code    The short code taken from the path.
+     * @param request The request, whose headers and client address are recorded as a click.
+     * @return An empty {@link ResponseEntity} with the redirect status and {@code Location} header,
+     *         or with the 404 or 410 status if the code is unknown or expired.
+     */
+    @GetMapping(path = "/{code:[a-zA-Z0-9]+}")
+    public ResponseEntity<Void> redirect(@PathVariable("code") String code, HttpServletRequest request) {
+        return respond(urlService.resolve(code),
+                request.getHeader(HttpHeaders.REFERER),
+                request.getHeader(HttpHeaders.USER_AGENT),
+                request.getRemoteAddr());
+    }
+
+    /**
+     * Builds the redirect response for a resolved short code and records the click of a found URL.
+     * Shared with endpoints that resolve codes in another way, so all redirects behave the same.
+     *
+     * @param resolution    The resolution of the short code.
+     * @param referrer      The {@code Referer} header of the request, or {@code null}.
+     * @param userAgent     The {@code User-Agent} header of the request, or {@code null}.
+     * @param remoteAddress The address of the client.
+     * @return An empty {@link ResponseEntity} with the redirect status and {@code Location} header,
+     *         or with the 404 or 410 status if the code is unknown or expired.
+     */
+    public ResponseEntity<Void> respond(UrlResolution resolution, String referrer, String userAgent,
+                                        String remoteAddress) {
+        if (!resolution.isFound()) {
+            return ResponseEntity.status(resolution.status())
+                    .header(HttpHeaders.CACHE_CONTROL, NO_STORE)
+                    .build();
+        }
+
+        CachedUrl cachedUrl = resolution.cachedUrl();
+        clickRecorder.record(cachedUrl.id(), referrer, userAgent, remoteAddress);
+        uniqueVisitorCounter.record(cachedUrl.id(), remoteAddress, userAgent);
+        return ResponseEntity.status(redirectStatus)
+                .header(HttpHeaders.LOCATION, cachedUrl.longUrl())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControlFor(cachedUrl.expiresAt()))
+                .build();
+    }
+
+    /**
+     * Builds the {@code Cache-Control} value for a URL, limiting the lifetime to its expiration date.
+     */
+    private String cacheControlFor(LocalDateTime expiresAt) {
+        if (expiresAt == null || maxAgeSeconds == 0) {
+            return defaultCacheControl;
+        }
+        long untilExpiry = Duration.between(LocalDateTime.now(), expiresAt).getSeconds();
+        return untilExpiry >= maxAgeSeconds ? defaultCacheControl : cacheControl(untilExpiry);
+    }
+
+    private static String cacheControl(long maxAgeSeconds) {
+        return maxAgeSeconds > 0 ? "max-age=" + maxAgeSeconds : NO_STORE;
+    }
+}
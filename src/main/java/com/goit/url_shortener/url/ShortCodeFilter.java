@@ -0,0 +1,179 @@
+package com.goit.url_shortener.url;
+
+import com.goit.url_shortener.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory Bloom filter of all stored short URLs, used by {@link UrlServiceImpl#resolve(String)}
+ * to answer lookups of unknown codes without a database query.
+ *
+ * <p> The filter is loaded by streaming the `short_url` column when the application starts and then every
+ * {@code url.code.filter.rebuild-interval-ms}, in a read-only transaction so that the driver fetches
+ * rows in batches instead of reading the whole column at once. Codes created or updated by this instance are added
+ * immediately. Deleted codes cannot be removed from a Bloom filter, so they remain possible members
+ * until the next rebuild, which only costs a query. Until the first load completes, nothing is rejected. </p>
+ *
+ * <p> Codes created by other instances are unknown until the next rebuild, so the filter is disabled
+ * by default and should only be enabled with a single instance or a rebuild interval shorter than
+ * the time users need to share a new short URL. </p>
+ */
+@Service
+@Slf4j
+public class ShortCodeFilter {
+
+    private static final String LOAD_CODES_SQL = "SELECT short_url FROM url_shortener.urls";
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates the filter.
+     *
+     * @param jdbcTemplate       The JDBC template used to load the stored codes.
+     * @param transactionManager The transaction manager of the read-only transaction the codes are streamed in.
+     * @param enabled            Whether unknown codes are rejected without a query.
+     * @param expectedInsertions The number of stored codes the filter is sized for.
+     * @param falsePositiveRate  The false positive rate the filter is sized for.
+     */
+    public ShortCodeFilter(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${url.code.filter.enabled:false}") boolean enabled,
+                           @Value("${url.code.filter.expected-insertions:10000000}") long expectedInsertions,
+                           @Value("${url.code.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Checks whether the given short URL is certainly not stored.
+     *
+     * @param shortUrl The short URL to check.
+     * @return {@code true} if no stored URL has this short URL, {@code false} if one may have it
+     *         or the filter is disabled or not loaded yet.
+     */
+    public boolean isDefinitelyAbsent(String shortUrl) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(hash(shortUrl))) {
+            return false;
+        }
+        rejected.increment();
+        return true;
+    }
+
+    /**
+     * Adds short URLs that are about to be stored. Must be called before the URLs become visible
+     * to other transactions, so that a concurrent lookup cannot miss them.
+     *
+     * @param shortUrls The new short URLs.
+     */
+    public void add(String... shortUrls) {
+        if (!enabled) {
+            return;
+        }
+        BloomFilter current = filter;
+        BloomFilter next = rebuilding;
+        for (String shortUrl : shortUrls) {
+            long hash = hash(shortUrl);
+            if (current != null) {
+                current.put(hash);
+            }
+            if (next != null) {
+                next.put(hash);
+            }
+        }
+    }
+
+    /**
+     * Loads a new filter from all stored short URLs and replaces the current one.
+     * If loading fails, the current filter is kept.
+     */
+    @Scheduled(fixedDelayString = "${url.code.filter.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        BloomFilter next = new BloomFilter(expectedInsertions, falsePositiveRate);
+        rebuilding = next;
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement statement = con.prepareStatement(LOAD_CODES_SQL);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, rs -> {
+                next.put(hash(rs.getString(1)));
+            }));
+            filter = next;
+            log.info("Loaded short url filter of {} bytes, estimated false positive rate {}",
+                    next.bitSize() / 8, next.expectedFalsePositiveRate());
+        } catch (DataAccessException e) {
+            log.error("Failed to load short url filter", e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * Returns the number of lookups rejected without a query.
+     *
+     * @return The number of rejected lookups since startup.
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Estimates the current false positive rate of the filter.
+     *
+     * @return The probability that an unknown code still reaches the database, or 1 if no filter is loaded.
+     */
+    public double falsePositiveRate() {
+        BloomFilter current = filter;
+        return current == null ? 1.0 : current.expectedFalsePositiveRate();
+    }
+
+    /**
+     * Returns the memory used by the bit array of the filter.
+     *
+     * @return The size of the filter in bytes, or 0 if no filter is loaded.
+     */
+    public long memoryBytes() {
+        BloomFilter current = filter;
+        return current == null ? 0 : current.bitSize() / 8;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the code. {@link BloomFilter} mixes the result further.
+     */
+    private static long hash(String shortUrl) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < shortUrl.length(); i++) {
+            hash ^= shortUrl.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+}
@@ -1,58 +1,122 @@
 package com.goit.url_shortener.url;
 
+import com.goit.url_shortener.url.code.ShortCodeStrategy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Service class for generating short URLs.
+ *
+ * <p> Codes are minted by the {@link ShortCodeStrategy} selected with {@code url.code.strategy}.
+ * Codes of strategies that are not collision-free are checked against the database and re-minted
+ * up to {@code url.code.max-attempts} times. </p>
  */
 @Service
 public class ShortUrlGenerator {
 
     /**
-     * Array containing all possible characters for the short URL.
+     * Prefix that was prepended to short URLs created before codes were stored without it.
+     * Clients may still send short URLs in this form.
      */
-    private static final char[] CHARACTERS = {
-            'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j',
-            'k', 'l', 'm', 'n', 'o', 'p', 'q', 'r', 's', 't',
-            'u', 'v', 'w', 'x', 'y', 'z',
-            'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J',
-            'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T',
-            'U', 'V', 'W', 'X', 'Y', 'Z',
-            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9'
-    };
+    public static final String SHORT_URL_PREFIX = "https://";
+
+    private final ShortCodeStrategy strategy;
+    private final UrlRepository urlRepository;
+    private final int maxAttempts;
+    private final LongAdder retries = new LongAdder();
 
     /**
-     * Minimum length of the generated short URL.
+     * Creates the generator.
+     *
+     * @param strategy      The strategy minting the codes.
+     * @param urlRepository The repository used to detect conflicts with existing codes.
+     * @param maxAttempts   The maximum number of codes minted for a single short URL.
      */
-    private static final int MIN_SHORT_URL_LENGTH = 6;
+    public ShortUrlGenerator(ShortCodeStrategy strategy,
+                             UrlRepository urlRepository,
+                             @Value("${url.code.max-attempts:5}") int maxAttempts) {
+        this.strategy = strategy;
+        this.urlRepository = urlRepository;
+        this.maxAttempts = maxAttempts;
+    }
 
     /**
-     * Maximum length of the generated short URL.
+     * Generates a short URL that is not used by any stored URL.
+     *
+     * @return A string representing the generated short URL.
+     * @throws IllegalStateException if no unique short URL could be minted within the allowed attempts.
      */
-    private static final int MAX_SHORT_URL_LENGTH = 8;
+    public String generateShortUrl() {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            String shortUrl = strategy.nextCode();
+            if (strategy.isCollisionFree() || !urlRepository.existsByShortUrl(shortUrl)) {
+                return shortUrl;
+            }
+            retries.increment();
+        }
+        throw new IllegalStateException("Could not generate a unique short URL after " + maxAttempts + " attempts");
+    }
 
     /**
-     * Generates a random short URL.
-     * <p>
-     * The generated short URL will have a length between {@link #MIN_SHORT_URL_LENGTH}
-     * and {@link #MAX_SHORT_URL_LENGTH} characters and consists of randomly selected characters.
+     * Generates the given number of distinct short URLs that are not used by any stored URL.
+     *
+     * <p> Conflicts with stored URLs are detected with a single query per attempt, so minting
+     * a batch costs at most {@code url.code.max-attempts} database round trips. </p>
      *
-     * @return A string representing the generated short URL with the format "https://<shortUrl>"
+     * @param count The number of short URLs to generate.
+     * @return A list of distinct short URLs.
+     * @throws IllegalStateException if no unique short URLs could be minted within the allowed attempts.
      */
-    public String generateShortUrl() {
-        Random random = new Random();
-        int shortUrlLength =
-                random.nextInt(MAX_SHORT_URL_LENGTH - MIN_SHORT_URL_LENGTH + 1)
-                        + MIN_SHORT_URL_LENGTH;
-        StringBuilder shortUrl = new StringBuilder();
-
-        for (int i = 0; i < shortUrlLength; i++) {
-            int randomIndex = random.nextInt(CHARACTERS.length);
-            shortUrl.append(CHARACTERS[randomIndex]);
+    public List<String> generateShortUrls(int count) {
+        Set<String> shortUrls = new LinkedHashSet<>();
+        for (int attempt = 1; shortUrls.size() < count; attempt++) {
+            if (attempt > maxAttempts) {
+                throw new IllegalStateException(
+                        "Could not generate " + count + " unique short URLs after " + maxAttempts + " attempts");
+            }
+            int missing = count - shortUrls.size();
+            Set<String> minted = new HashSet<>();
+            while (minted.size() < missing) {
+                String shortUrl = strategy.nextCode();
+                if (!shortUrls.contains(shortUrl)) {
+                    minted.add(shortUrl);
+                }
+            }
+            if (!strategy.isCollisionFree()) {
+                Set<String> existing = urlRepository.findExistingShortUrls(minted);
+                retries.add(existing.size());
+                minted.removeAll(existing);
+            }
+            shortUrls.addAll(minted);
         }
-        return "https://" + shortUrl;
+        return new ArrayList<>(shortUrls);
     }
-}
 
+    /**
+     * Returns the number of codes that were re-minted because of a conflict.
+     *
+     * @return The number of retries since startup.
+     */
+    public long retries() {
+        return retries.sum();
+    }
+
+    /**
+     * Converts a short URL sent by a client into the stored code, removing the legacy {@link #SHORT_URL_PREFIX}.
+     *
+     * @param shortUrl The short URL as sent by the client.
+     * @return The short code, or {@code null} if {@code shortUrl} is {@code null}.
+     */
+    public static String toCode(String shortUrl) {
+        return shortUrl != null && shortUrl.startsWith(SHORT_URL_PREFIX)
+                ? shortUrl.substring(SHORT_URL_PREFIX.length())
+                : shortUrl;
+    }
+}
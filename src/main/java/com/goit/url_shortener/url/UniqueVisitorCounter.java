@@ -0,0 +1,291 @@
+package com.goit.url_shortener.url;
+
+import com.goit.url_shortener.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service estimating the number of distinct visitors of each URL with {@link HyperLogLog} sketches.
+ *
+ * <p> A visitor is identified by a 64-bit hash of the client address and the user agent, so repeated
+ * redirects of the same client count once, and neither value is stored. Each redirect updates an in-memory
+ * sketch of the URL, and the sketches are merged into the `url_visitor_sketches` table every
+ * {@code url.visits.unique.flush-interval-ms} milliseconds, in batches of {@code url.visits.unique.flush-batch-size}
+ * URLs. The stored sketch is read with {@code FOR UPDATE}, merged and written back in one transaction, so
+ * several instances can flush concurrently. Since merging is idempotent, a batch that failed is simply
+ * merged back into the pending sketches and written by the next flush. </p>
+ *
+ * <p> Sketches have a fixed precision of {@value #PRECISION}, which gives a standard error of about 2.3%
+ * and takes at most 2 KB per URL. Sketches of rarely visited URLs are stored sparsely in a few bytes. </p>
+ */
+@Service
+@Slf4j
+public class UniqueVisitorCounter {
+
+    /**
+     * The precision of the sketches. Stored sketches can only be merged with sketches of the same precision,
+     * so it cannot be changed without discarding them.
+     */
+    public static final int PRECISION = 11;
+
+    private static final byte[] EMPTY_SKETCH = new HyperLogLog(PRECISION).toBytes();
+
+    private static final String INSERT_MISSING_SQL = """
+            INSERT INTO url_shortener.url_visitor_sketches (url_id, sketch)
+            SELECT u.id, ? FROM url_shortener.urls u
+            WHERE u.id = ANY(?::bigint[])
+            ORDER BY u.id
+            ON CONFLICT (url_id) DO NOTHING""";
+
+    private static final String LOCK_SQL = """
+            SELECT url_id, sketch FROM url_shortener.url_visitor_sketches
+            WHERE url_id = ANY(?::bigint[])
+            ORDER BY url_id
+            FOR UPDATE""";
+
+    private static final String UPDATE_SQL = "UPDATE url_shortener.url_visitor_sketches SET sketch = ? WHERE url_id = ?";
+
+    private static final String SELECT_SQL = """
+            SELECT url_id, sketch FROM url_shortener.url_visitor_sketches
+            WHERE url_id = ANY(?::bigint[])""";
+
+    private final Map<Long, HyperLogLog> pending = new ConcurrentHashMap<>();
+    private final LongAdder flushedUrls = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    /**
+     * Creates the counter.
+     *
+     * @param jdbcTemplate       The JDBC template used to read and write the sketches.
+     * @param transactionManager The transaction manager wrapping each batch.
+     * @param enabled            Whether unique visitors are counted.
+     * @param batchSize          The maximum number of URLs whose sketches are merged in one transaction.
+     */
+    public UniqueVisitorCounter(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${url.visits.unique.enabled:true}") boolean enabled,
+                                @Value("${url.visits.unique.flush-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionManager == null ? null : new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Records a visit of the URL with the given identifier.
+     *
+     * @param urlId         The identifier of the visited URL. {@code null} values are ignored.
+     * @param remoteAddress The address of the client.
+     * @param userAgent     The user agent of the client, or {@code null}.
+     */
+    public void record(Long urlId, String remoteAddress, String userAgent) {
+        if (!enabled || urlId == null) {
+            return;
+        }
+        long fingerprint = fingerprint(remoteAddress, userAgent);
+        pending.compute(urlId, (id, sketch) -> {
+            HyperLogLog updated = sketch == null ? new HyperLogLog(PRECISION) : sketch;
+            updated.add(fingerprint);
+            return updated;
+        });
+    }
+
+    /**
+     * Estimates the number of distinct visitors of the given URLs, including visitors that have not been
+     * written to the database yet.
+     *
+     * @param urlIds The identifiers of the URLs.
+     * @return The estimates by URL identifier, with 0 for URLs without visitors,
+     *         or an empty map if unique visitors are not counted.
+     */
+    public Map<Long, Long> estimates(Collection<Long> urlIds) {
+        if (!enabled || urlIds.isEmpty()) {
+            return Map.of();
+        }
+        Long[] ids = urlIds.toArray(new Long[0]);
+        Map<Long, HyperLogLog> sketches = new HashMap<>();
+        jdbcTemplate.query(SELECT_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)),
+                rs -> {
+                    HyperLogLog stored = read(rs.getLong(1), rs.getBytes(2));
+                    if (stored != null) {
+                        sketches.put(rs.getLong(1), stored);
+                    }
+                });
+
+        Map<Long, Long> estimates = new HashMap<>();
+        for (Long id : ids) {
+            pending.computeIfPresent(id, (key, sketch) -> {
+                sketches.computeIfAbsent(key, k -> new HyperLogLog(PRECISION)).merge(sketch);
+                return sketch;
+            });
+            HyperLogLog sketch = sketches.get(id);
+            estimates.put(id, sketch == null ? 0 : sketch.estimate());
+        }
+        return estimates;
+    }
+
+    /**
+     * Returns the number of URLs that currently have a pending sketch.
+     *
+     * @return The number of tracked URLs.
+     */
+    public int pendingUrls() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the number of sketches merged into the database since startup.
+     *
+     * @return The number of flushed sketches.
+     */
+    public long flushedUrls() {
+        return flushedUrls.sum();
+    }
+
+    /**
+     * Returns the number of batches that could not be written to the database.
+     *
+     * @return The number of failed flushes.
+     */
+    public long failedFlushes() {
+        return failedFlushes.sum();
+    }
+
+    /**
+     * Removes all pending sketches and merges them into the stored sketches.
+     * Visits recorded while the flush is running start a new pending sketch.
+     */
+    @Scheduled(fixedDelayString = "${url.visits.unique.flush-interval-ms:10000}")
+    public void flush() {
+        List<Long> ids = new ArrayList<>(pending.keySet());
+        ids.sort(null);
+
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            Map<Long, HyperLogLog> batch = new HashMap<>();
+            for (Long id : ids.subList(from, Math.min(ids.size(), from + batchSize))) {
+                HyperLogLog sketch = pending.remove(id);
+                if (sketch != null) {
+                    batch.put(id, sketch);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    /**
+     * Writes the pending sketches before the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("Unique visitors of {} urls could not be written before shutdown", pending.size());
+        }
+    }
+
+    /**
+     * Hashes the client address and user agent into a well distributed 64-bit fingerprint,
+     * using FNV-1a followed by the MurmurHash3 finalizer.
+     *
+     * @param remoteAddress The address of the client.
+     * @param userAgent     The user agent of the client.
+     * @return The fingerprint of the client.
+     */
+    static long fingerprint(String remoteAddress, String userAgent) {
+        long hash = 0xcbf29ce484222325L;
+        hash = fnv(hash, remoteAddress);
+        hash = (hash ^ 0xFF) * 0x100000001b3L;
+        hash = fnv(hash, userAgent);
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static long fnv(long hash, String value) {
+        if (value == null) {
+            return hash;
+        }
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Merges a batch of sketches into the stored ones. Sketches of URLs that were deleted meanwhile are dropped.
+     */
+    private void write(Map<Long, HyperLogLog> batch) {
+        Long[] ids = batch.keySet().stream().sorted().toArray(Long[]::new);
+        try {
+            int written = transactionTemplate.execute(status -> {
+                jdbcTemplate.update(INSERT_MISSING_SQL, ps -> {
+                    ps.setBytes(1, EMPTY_SKETCH);
+                    ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids));
+                });
+
+                List<Object[]> updates = new ArrayList<>();
+                jdbcTemplate.query(LOCK_SQL,
+                        ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)),
+                        rs -> {
+                            long id = rs.getLong(1);
+                            HyperLogLog stored = read(id, rs.getBytes(2));
+                            HyperLogLog merged = stored == null ? batch.get(id) : stored;
+                            if (stored != null) {
+                                merged.merge(batch.get(id));
+                            }
+                            updates.add(new Object[]{merged.toBytes(), id});
+                        });
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                return updates.size();
+            });
+            flushedUrls.add(written);
+        } catch (DataAccessException | TransactionException e) {
+            failedFlushes.increment();
+            log.error("Failed to write unique visitors of {} urls, they will be retried", ids.length, e);
+            batch.forEach((id, sketch) -> pending.merge(id, sketch, (current, failed) -> {
+                current.merge(failed);
+                return current;
+            }));
+        }
+    }
+
+    /**
+     * Restores a stored sketch. A sketch that cannot be read is logged and replaced by the pending one.
+     */
+    private static HyperLogLog read(long urlId, byte[] bytes) {
+        try {
+            HyperLogLog sketch = HyperLogLog.fromBytes(bytes);
+            return sketch.precision() == PRECISION ? sketch : null;
+        } catch (IllegalArgumentException e) {
+            log.warn("Discarding unreadable visitor sketch of url {}", urlId, e);
+            return null;
+        }
+    }
+}
@@ -16,7 +16,7 @@ import java.time.LocalDateTime;
  *
  * <p> The `Url` entity is annotated with {@link Entity},
  * {@link Table}, {@link Id},
- * {@link GeneratedValue}, {@link GenerationType},
+ * {@link GeneratedValue}, {@link GenerationType}, {@link SequenceGenerator},
  * and lombok annotations {@link Data}, {@link AllArgsConstructor},
  * {@link NoArgsConstructor}, {@link Builder} to define the entity and
  * automatically generate standard methods. </p>
@@ -36,10 +36,13 @@ public class Url {
 
     /**
      * Unique identifier for the URL entity.
-     * Auto-generated by the database.
+     * Allocated from the `urls_id_seq` sequence in blocks, so inserts can be batched
+     * without a database round trip per identifier.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "urls_id_seq")
+    @SequenceGenerator(name = "urls_id_seq", schema = "url_shortener", sequenceName = "urls_id_seq",
+            allocationSize = 50)
     private Long id;
 
     /**
@@ -77,6 +80,13 @@ public class Url {
     @Column(name = "expires_at")
     private LocalDateTime expiresAt;
 
+    /**
+     * The hash of the canonical form of the long URL, used to find repeated submissions.
+     * This field is null for URLs created before the hash was introduced.
+     */
+    @Column(name = "long_url_hash")
+    private Long longUrlHash;
+
     /**
      * The user associated with this URL.
      * Represents a Many-to-One relationship linking each URL to a User entity.
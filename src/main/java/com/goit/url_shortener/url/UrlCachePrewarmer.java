@@ -0,0 +1,190 @@
+package com.goit.url_shortener.url;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fills the {@link UrlResolutionCache} with the most visited and the most recently created short URLs
+ * when the application starts, so that the first redirects after a deploy do not all query the database.
+ *
+ * <p> Spring Boot reports the application ready to accept traffic only once every {@link ApplicationRunner}
+ * has returned, so the readiness probe stays down while the cache is filled. Both lists are streamed
+ * concurrently, each in its own read-only transaction, so that the driver fetches rows in batches through
+ * a server-side cursor, and with read replicas configured they are read from a replica. </p>
+ *
+ * <p> Prewarming never blocks the startup for longer than {@code url.cache.prewarm.time-budget-ms}: the
+ * queries are cancelled by a statement timeout, the streams stop at the deadline, and whatever was loaded
+ * by then stays cached. Failures are logged and do not prevent the startup. Expired URLs are skipped. </p>
+ */
+@Service
+@Slf4j
+public class UrlCachePrewarmer implements ApplicationRunner {
+
+    /**
+     * Runs as a scan with a top-N sort. {@code visits} is deliberately not indexed: the column is rewritten by
+     * every visit flush, and an index on it would turn those updates into updates of every index of the table.
+     * The statement timeout and the time budget bound the scan instead.
+     */
+    private static final String TOP_VISITED_SQL = """
+            SELECT short_url, id, long_url, expires_at, user_id FROM url_shortener.urls
+            WHERE expires_at IS NULL OR expires_at > ?
+            ORDER BY visits DESC
+            LIMIT ?""";
+
+    /**
+     * Identifiers are leased in blocks per instance, so the order by id approximates the order of creation
+     * and is served by the primary key without sorting.
+     */
+    private static final String MOST_RECENT_SQL = """
+            SELECT short_url, id, long_url, expires_at, user_id FROM url_shortener.urls
+            WHERE expires_at IS NULL OR expires_at > ?
+            ORDER BY id DESC
+            LIMIT ?""";
+
+    private static final int FETCH_SIZE = 1_000;
+
+    private final UrlResolutionCache resolutionCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int topVisited;
+    private final int mostRecent;
+    private final long timeBudgetMillis;
+
+    private final LongAdder prewarmed = new LongAdder();
+
+    /**
+     * Creates the prewarmer.
+     *
+     * @param resolutionCache    The cache to fill.
+     * @param jdbcTemplate       The JDBC template used to stream the URLs.
+     * @param transactionManager The transaction manager of the read-only transactions the URLs are streamed in.
+     * @param enabled            Whether the cache is filled at startup.
+     * @param topVisited         The number of most visited URLs to load.
+     * @param mostRecent         The number of most recently created URLs to load.
+     * @param timeBudgetMillis   The longest time the startup waits for the cache to be filled.
+     */
+    public UrlCachePrewarmer(UrlResolutionCache resolutionCache,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${url.cache.prewarm.enabled:true}") boolean enabled,
+                             @Value("${url.cache.prewarm.top-visited:10000}") int topVisited,
+                             @Value("${url.cache.prewarm.most-recent:0}") int mostRecent,
+                             @Value("${url.cache.prewarm.time-budget-ms:10000}") long timeBudgetMillis) {
+        this.resolutionCache = resolutionCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.topVisited = topVisited;
+        this.mostRecent = mostRecent;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        prewarm();
+    }
+
+    /**
+     * Loads the most visited and the most recently created URLs into the cache, waiting at most for the
+     * time budget.
+     */
+    public void prewarm() {
+        if (!enabled || (topVisited <= 0 && mostRecent <= 0)) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        LocalDateTime now = LocalDateTime.now();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2,
+                Thread.ofPlatform().name("url-cache-prewarm-", 0).daemon().factory());
+        List<Future<?>> loads = new ArrayList<>();
+        if (topVisited > 0) {
+            loads.add(executor.submit(() -> load("most visited", TOP_VISITED_SQL, topVisited, now, deadline)));
+        }
+        if (mostRecent > 0) {
+            loads.add(executor.submit(() -> load("most recent", MOST_RECENT_SQL, mostRecent, now, deadline)));
+        }
+        executor.shutdown();
+
+        try {
+            for (Future<?> load : loads) {
+                load.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            log.warn("Url cache prewarming exceeded its budget of {} ms", timeBudgetMillis);
+        } catch (ExecutionException e) {
+            log.error("Url cache prewarming failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Prewarmed url cache with {} urls in {} ms", prewarmed.sum(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Returns the number of URLs loaded into the cache at startup.
+     *
+     * @return The number of prewarmed URLs.
+     */
+    public long prewarmed() {
+        return prewarmed.sum();
+    }
+
+    /**
+     * Streams the URLs selected by the query into the cache until the deadline.
+     */
+    private void load(String source, String sql, int limit, LocalDateTime now, long deadline) {
+        int timeoutSeconds = (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(deadline - System.nanoTime()) + 1);
+        long stamp = resolutionCache.stamp();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement statement = con.prepareStatement(sql);
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setQueryTimeout(timeoutSeconds);
+                statement.setObject(1, now);
+                statement.setInt(2, limit);
+                return statement;
+            }, (ResultSet rs) -> {
+                while (System.nanoTime() < deadline && rs.next()) {
+                    if (resolutionCache.put(rs.getString(1), read(rs), stamp)) {
+                        prewarmed.increment();
+                    }
+                }
+                return null;
+            }));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Failed to prewarm url cache with the {} urls", source, e);
+        }
+    }
+
+    private static CachedUrl read(ResultSet rs) throws SQLException {
+        return new CachedUrl(rs.getLong(2), rs.getString(3), rs.getObject(4, LocalDateTime.class), rs.getLong(5));
+    }
+}
@@ -0,0 +1,203 @@
+package com.goit.url_shortener.url;
+
+import com.goit.url_shortener.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service detecting repeated submissions of the same long URL by the same user.
+ *
+ * <p> Every stored URL carries the hash of its canonical form (see {@link LongUrlValidator#normalize(String)})
+ * in the `long_url_hash` column, indexed together with the owner. When {@code url.dedup.enabled} is set,
+ * {@link #findExisting} returns a live URL of the user with the same canonical long URL and the same
+ * expiration date, so the caller can hand out the existing short URL instead of inserting a new row. </p>
+ *
+ * <p> A Bloom filter over all (user, hash) pairs answers most lookups of new URLs without a query.
+ * It is loaded from the database every {@code url.dedup.bloom.rebuild-interval-ms} and extended with
+ * every URL created by this instance. Until the first load completes, every lookup queries the database.
+ * URLs created by other instances before the next rebuild may be missed, in which case a duplicate row
+ * is inserted, so deduplication is best-effort. </p>
+ */
+@Service
+@Slf4j
+public class UrlDeduplicator {
+
+    private static final String LOAD_HASHES_SQL =
+            "SELECT user_id, long_url_hash FROM url_shortener.urls WHERE long_url_hash IS NOT NULL";
+
+    private final UrlRepository urlRepository;
+    private final LongUrlValidator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+
+    private final LongAdder skippedLookups = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+
+    /**
+     * Creates the deduplicator.
+     *
+     * @param urlRepository      The repository used to find candidate URLs.
+     * @param validator          The validator producing canonical long URLs.
+     * @param jdbcTemplate       The JDBC template used to load the Bloom filter.
+     * @param enabled            Whether repeated submissions are deduplicated.
+     * @param expectedInsertions The number of stored URLs the Bloom filter is sized for.
+     * @param falsePositiveRate  The false positive rate the Bloom filter is sized for.
+     */
+    public UrlDeduplicator(UrlRepository urlRepository,
+                           LongUrlValidator validator,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${url.dedup.enabled:false}") boolean enabled,
+                           @Value("${url.dedup.bloom.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${url.dedup.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.urlRepository = urlRepository;
+        this.validator = validator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Computes the hash stored in the `long_url_hash` column: the first 64 bits of the SHA-256 digest
+     * of the canonical long URL.
+     *
+     * @param longUrl The long URL as submitted.
+     * @return The hash of its canonical form, or of the URL itself if it cannot be normalized.
+     */
+    public long hash(String longUrl) {
+        String canonical = validator.normalize(longUrl);
+        byte[] input = (canonical != null ? canonical : longUrl).getBytes(StandardCharsets.UTF_8);
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(input)).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Finds a live URL of the user with the same canonical long URL and expiration date.
+     *
+     * @param userId    The id of the user submitting the URL.
+     * @param longUrl   The long URL as submitted.
+     * @param hash      The hash of the long URL, as returned by {@link #hash(String)}.
+     * @param expiresAt The requested expiration date, or {@code null}.
+     * @return The existing URL, or an empty Optional if deduplication is disabled or there is no match.
+     */
+    public Optional<Url> findExisting(Long userId, String longUrl, long hash, LocalDateTime expiresAt) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(key(userId, hash))) {
+            skippedLookups.increment();
+            return Optional.empty();
+        }
+
+        lookups.increment();
+        String canonical = validator.normalize(longUrl);
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Url> existing = urlRepository.findAllByUser_IdAndLongUrlHash(userId, hash).stream()
+                .filter(url -> Objects.equals(url.getExpiresAt(), expiresAt))
+                .filter(url -> url.getExpiresAt() == null || url.getExpiresAt().isAfter(now))
+                .filter(url -> Objects.equals(validator.normalize(url.getLongUrl()), canonical))
+                .findFirst();
+        existing.ifPresent(url -> matches.increment());
+        return existing;
+    }
+
+    /**
+     * Records a URL created by this instance, so that later lookups of the same URL query the database.
+     *
+     * @param userId The id of the owner.
+     * @param hash   The hash of the long URL.
+     */
+    public void recordCreated(Long userId, long hash) {
+        if (!enabled) {
+            return;
+        }
+        long key = key(userId, hash);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+
+    /**
+     * Loads a new Bloom filter from all stored hashes and replaces the current one.
+     * If loading fails, the current filter is kept.
+     */
+    @Scheduled(fixedDelayString = "${url.dedup.bloom.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        BloomFilter next = new BloomFilter(expectedInsertions, falsePositiveRate);
+        rebuilding = next;
+        try {
+            jdbcTemplate.query(LOAD_HASHES_SQL, rs -> {
+                next.put(key(rs.getLong(1), rs.getLong(2)));
+            });
+            filter = next;
+            log.info("Loaded long url dedup filter, estimated false positive rate {}", next.expectedFalsePositiveRate());
+        } catch (DataAccessException e) {
+            log.error("Failed to load long url dedup filter", e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * Returns the number of lookups answered by the Bloom filter without a query.
+     *
+     * @return The number of skipped lookups since startup.
+     */
+    public long skippedLookups() {
+        return skippedLookups.sum();
+    }
+
+    /**
+     * Returns the number of lookups that queried the database.
+     *
+     * @return The number of database lookups since startup.
+     */
+    public long lookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * Returns the number of submissions answered with an existing URL.
+     *
+     * @return The number of matches since startup.
+     */
+    public long matches() {
+        return matches.sum();
+    }
+
+    private static long key(long userId, long hash) {
+        return hash * 31 + userId;
+    }
+}
@@ -6,8 +6,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * The `UrlRepository` interface is a repository layer for performing CRUD operations on `Url` entities.
@@ -29,12 +31,59 @@ public interface UrlRepository extends JpaRepository<Url, Long> {
      */
     Optional<Url> findUrlByShortUrl(String shortUrl);
 
+    /**
+     * Finds the data needed to resolve a shortened URL, without loading the `Url` entity.
+     *
+     * The result is a `CachedUrl` projection, so nothing is added to the persistence context or dirty checked.
+     * The query reads only columns included in the `urls_short_url_key` index, so it is answered by an
+     * index-only scan, and the owner is read from the foreign key without joining the users table.
+     *
+     * @param shortUrl The shortened URL to search for.
+     * @return An `Optional` containing the resolution data of the URL, or empty if not found.
+     */
+    @Query(value = "SELECT new com.goit.url_shortener.url.CachedUrl(u.id, u.longUrl, u.expiresAt, u.user.id) "
+            + "FROM Url u WHERE u.shortUrl = :shortUrl")
+    Optional<CachedUrl> findResolutionByShortUrl(@Param("shortUrl") String shortUrl);
+
+    /**
+     * Checks whether an `Url` entity with the given shortened URL exists.
+     *
+     * @param shortUrl The shortened URL to check.
+     * @return `true` if the shortened URL is already in use, `false` otherwise.
+     */
+    boolean existsByShortUrl(String shortUrl);
+
+    /**
+     * Finds which of the given shortened URLs are already in use.
+     *
+     * @param shortUrls The shortened URLs to check.
+     * @return The subset of the given shortened URLs that belong to stored `Url` entities.
+     */
+    @Query(value = "SELECT u.shortUrl FROM Url u WHERE u.shortUrl IN :shortUrls")
+    Set<String> findExistingShortUrls(@Param("shortUrls") Collection<String> shortUrls);
+
+    /**
+     * Finds the `Url` entities of a user whose canonical long URL has the given hash.
+     *
+     * Served by the `idx_urls_user_id_long_url_hash` index. The result may contain URLs with
+     * a different long URL whose hash collides, so callers must compare the long URLs.
+     *
+     * @param userId      The id of the owner.
+     * @param longUrlHash The hash of the canonical long URL.
+     * @return A list of `Url` entities of the user with the given hash.
+     */
+    List<Url> findAllByUser_IdAndLongUrlHash(Long userId, Long longUrlHash);
+
     /**
      * Finds all `Url` entities associated with a specific username.
      *
      * This custom query uses JPQL (Java Persistence Query Language) to retrieve URLs where
      * the `username` matches the provided parameter.
      *
+     * <p> The query joins `users` and loads every entity. Listings of the URLs of the authenticated user
+     * use the queries of {@link com.goit.url_shortener.statistics.StatisticsRepository} instead, which
+     * filter by the user id and are served by the indexes on `urls.user_id`. </p>
+     *
      * @param username The username whose URLs need to be fetched.
      * @return A list of `Url` entities that belong to the specified username.
      */
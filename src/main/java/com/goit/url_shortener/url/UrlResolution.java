@@ -0,0 +1,42 @@
+package com.goit.url_shortener.url;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Result of resolving a short URL with {@link UrlService#resolve(String)}.
+ *
+ * @param status    {@link HttpStatus#OK} if the short URL is active, {@link HttpStatus#NOT_FOUND} if it does not
+ *                  exist or {@link HttpStatus#GONE} if it has expired.
+ * @param cachedUrl The resolved URL data, present only when the status is {@link HttpStatus#OK}.
+ */
+public record UrlResolution(HttpStatus status, CachedUrl cachedUrl) {
+
+    /**
+     * Resolution of a short URL that does not exist.
+     */
+    public static final UrlResolution NOT_FOUND = new UrlResolution(HttpStatus.NOT_FOUND, null);
+
+    /**
+     * Resolution of a short URL that has expired.
+     */
+    public static final UrlResolution GONE = new UrlResolution(HttpStatus.GONE, null);
+
+    /**
+     * Creates a successful resolution.
+     *
+     * @param cachedUrl The resolved URL data.
+     * @return A resolution with the {@link HttpStatus#OK} status.
+     */
+    public static UrlResolution found(CachedUrl cachedUrl) {
+        return new UrlResolution(HttpStatus.OK, cachedUrl);
+    }
+
+    /**
+     * Checks whether the short URL was resolved to an active long URL.
+     *
+     * @return {@code true} if the status is {@link HttpStatus#OK}.
+     */
+    public boolean isFound() {
+        return status == HttpStatus.OK;
+    }
+}
@@ -0,0 +1,224 @@
+package com.goit.url_shortener.url;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process cache of short URL resolutions used by {@link UrlServiceImpl#getLongUrlFromShortUrl}.
+ *
+ * <p> The cache maps a short URL to a {@link CachedUrl} and is bounded by {@code url.cache.max-size} entries,
+ * evicting the least valuable entries once the limit is reached. Every entry lives at most
+ * {@code url.cache.ttl-seconds}; an entry of a URL with an expiration date in the future is additionally
+ * dropped when that date is reached. Short URLs that do not exist are cached as {@link CachedUrl#MISSING}
+ * for {@code url.cache.negative-ttl-seconds}. </p>
+ *
+ * <p> Write operations on URLs must invalidate the affected short URLs through {@link #invalidate(String...)}.
+ * Lookups take a {@link #stamp()} before reading a short URL from the database and store the result with
+ * {@link #put(String, CachedUrl, long)}, which drops it if the short URL was invalidated meanwhile, so a row
+ * read before a write commits is never cached after the write. Invalidations are recorded for
+ * {@value #INVALIDATION_RETENTION_SECONDS} seconds, longer than any lookup is expected to take. </p>
+ *
+ * <p> The cache is local to an instance: a URL updated or deleted through another instance keeps being
+ * answered from this cache until its entry expires after {@code url.cache.ttl-seconds}. Deployments with
+ * several instances should keep that TTL as short as the tolerated staleness of a changed link. </p>
+ */
+@Service
+public class UrlResolutionCache {
+
+    /**
+     * How long an invalidation is remembered to reject lookups that started before it.
+     */
+    static final long INVALIDATION_RETENTION_SECONDS = 60;
+
+    private final Cache<String, CachedUrl> cache;
+    private final Cache<String, Invalidation> invalidations;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Creates the cache with the configured limits.
+     *
+     * @param maxSize            The maximum number of cached short URLs.
+     * @param ttlSeconds         The maximum lifetime of an entry for an existing short URL.
+     * @param negativeTtlSeconds The lifetime of an entry for a non-existent short URL.
+     */
+    public UrlResolutionCache(@Value("${url.cache.max-size:100000}") long maxSize,
+                              @Value("${url.cache.ttl-seconds:600}") long ttlSeconds,
+                              @Value("${url.cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ResolutionExpiry(
+                        Duration.ofSeconds(ttlSeconds).toNanos(),
+                        Duration.ofSeconds(negativeTtlSeconds).toNanos()))
+                .recordStats()
+                .build();
+        this.invalidations = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(INVALIDATION_RETENTION_SECONDS))
+                .build();
+    }
+
+    /**
+     * Returns the cached resolution of the given short URL.
+     *
+     * @param shortUrl The short URL to look up.
+     * @return The cached entry, {@link CachedUrl#MISSING} for a known miss, or {@code null} if nothing is cached.
+     */
+    public CachedUrl getIfPresent(String shortUrl) {
+        return cache.getIfPresent(shortUrl);
+    }
+
+    /**
+     * Stores the resolution of the given short URL unconditionally.
+     *
+     * @param shortUrl  The short URL.
+     * @param cachedUrl The resolution, or {@link CachedUrl#MISSING} if the short URL does not exist.
+     */
+    public void put(String shortUrl, CachedUrl cachedUrl) {
+        cache.put(shortUrl, cachedUrl);
+    }
+
+    /**
+     * Returns the current invalidation stamp, to be taken before the resolution of a short URL is read
+     * from the database and passed to {@link #put(String, CachedUrl, long)}.
+     *
+     * @return The number of invalidations so far.
+     */
+    public long stamp() {
+        return sequence.get();
+    }
+
+    /**
+     * Stores the resolution of the given short URL read from the database, unless the short URL was
+     * invalidated after the stamp was taken, in which case the resolution may predate the change.
+     *
+     * @param shortUrl  The short URL.
+     * @param cachedUrl The resolution, or {@link CachedUrl#MISSING} if the short URL does not exist.
+     * @param stamp     The {@link #stamp()} taken before the resolution was read.
+     * @return {@code true} if the resolution was stored.
+     */
+    public boolean put(String shortUrl, CachedUrl cachedUrl, long stamp) {
+        boolean[] stored = {false};
+        cache.asMap().compute(shortUrl, (key, current) -> {
+            Invalidation invalidation = invalidations.getIfPresent(key);
+            if (invalidation != null && invalidation.sequence() > stamp) {
+                return current;
+            }
+            stored[0] = true;
+            return cachedUrl;
+        });
+        return stored[0];
+    }
+
+    /**
+     * Checks whether the given short URL was invalidated by this instance within the given time, so that
+     * a read replica may still return its previous state.
+     *
+     * @param shortUrl The short URL.
+     * @param window   The time since the invalidation, at most {@value #INVALIDATION_RETENTION_SECONDS} seconds.
+     * @return {@code true} if the short URL was invalidated within the window.
+     */
+    public boolean isRecentlyInvalidated(String shortUrl, Duration window) {
+        Invalidation invalidation = invalidations.getIfPresent(shortUrl);
+        return invalidation != null && System.nanoTime() - invalidation.nanoTime() < window.toNanos();
+    }
+
+    /**
+     * Removes the given short URLs from the cache and rejects the results of lookups that started before.
+     *
+     * <p> When called inside a transaction the short URLs are invalidated both immediately and once more
+     * after the commit, so that a lookup reading the state being replaced before the commit cannot store
+     * it in the cache, whether it completes before or after the commit. </p>
+     *
+     * @param shortUrls The short URLs to remove. {@code null} values are ignored.
+     */
+    public void invalidate(String... shortUrls) {
+        evict(shortUrls);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(shortUrls);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the hit and miss statistics of the cache.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Returns the approximate number of cached short URLs.
+     *
+     * @return The estimated number of entries.
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Records the invalidation before removing the entry, so a concurrent {@link #put(String, CachedUrl, long)}
+     * either sees the invalidation or is followed by the removal.
+     */
+    private void evict(String... shortUrls) {
+        for (String shortUrl : shortUrls) {
+            if (shortUrl != null) {
+                invalidations.put(shortUrl, new Invalidation(sequence.incrementAndGet(), System.nanoTime()));
+                cache.invalidate(shortUrl);
+            }
+        }
+    }
+
+    /**
+     * Expiration policy bounding each entry by the configured TTL and by the expiration date of the URL.
+     */
+    private record ResolutionExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<String, CachedUrl> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedUrl value, long currentTime) {
+            if (value.isMissing()) {
+                return negativeTtlNanos;
+            }
+            LocalDateTime expiresAt = value.expiresAt();
+            if (expiresAt == null) {
+                return ttlNanos;
+            }
+            Duration untilExpiry = Duration.between(LocalDateTime.now(), expiresAt);
+            // An already expired URL stays expired until it is updated, so it is cached for the full TTL.
+            if (untilExpiry.isNegative() || untilExpiry.isZero()) {
+                return ttlNanos;
+            }
+            return untilExpiry.compareTo(Duration.ofNanos(ttlNanos)) < 0 ? untilExpiry.toNanos() : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedUrl value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedUrl value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Invalidation of a short URL, with its position in the sequence of invalidations and its time.
+     */
+    private record Invalidation(long sequence, long nanoTime) {
+    }
+}
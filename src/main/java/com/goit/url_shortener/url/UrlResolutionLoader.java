@@ -0,0 +1,93 @@
+package com.goit.url_shortener.url;
+
+import com.goit.url_shortener.datasource.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * Reads the resolution of a short URL missing from the {@link UrlResolutionCache} and caches it.
+ *
+ * <p> Lookups run in their own read-only transaction, so callers answering from the cache need neither a
+ * transaction nor a connection, and are served by a read replica when replicas are configured
+ * (see {@link ReplicaRoutingDataSource}). A replica lags behind the primary, so two
+ * of its answers are read again from the primary before being cached: a short URL it does not know, which
+ * may have been created since, and a short URL changed by this instance less than the tolerated lag plus
+ * the lag check interval ago, whose previous state the replica may still return. Without replicas the
+ * lookups already read the primary and nothing is read twice. </p>
+ */
+@Service
+public class UrlResolutionLoader {
+
+    private final UrlRepository urlRepository;
+    private final UrlResolutionCache resolutionCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate primaryTransaction;
+    private final boolean replicated;
+    private final Duration replicaStaleness;
+
+    /**
+     * Creates the loader.
+     *
+     * @param urlRepository          The repository the resolutions are read from.
+     * @param resolutionCache        The cache the resolutions are stored in.
+     * @param transactionManager     The transaction manager of the transactions reading the resolutions.
+     * @param replicaDataSource      The data source of the read replicas, if configured.
+     * @param maxLagMillis           The maximum replication lag of a replica receiving reads, in milliseconds.
+     * @param lagCheckIntervalMillis The interval between two measures of the replication lag, in milliseconds.
+     */
+    public UrlResolutionLoader(UrlRepository urlRepository,
+                               UrlResolutionCache resolutionCache,
+                               PlatformTransactionManager transactionManager,
+                               ObjectProvider<ReplicaRoutingDataSource> replicaDataSource,
+                               @Value("${url.datasource.replica.max-lag-ms:1000}") long maxLagMillis,
+                               @Value("${url.datasource.replica.lag-check-interval-ms:1000}")
+                               long lagCheckIntervalMillis) {
+        this.urlRepository = urlRepository;
+        this.resolutionCache = resolutionCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.replicated = replicaDataSource.getIfAvailable() != null;
+        this.replicaStaleness = Duration.ofMillis(maxLagMillis + lagCheckIntervalMillis);
+    }
+
+    /**
+     * Reads the resolution of the given short URL and stores it in the cache, unless the short URL was
+     * invalidated during the lookup.
+     *
+     * @param shortUrl The short URL.
+     * @return The resolution, or {@link CachedUrl#MISSING} if the short URL does not exist.
+     */
+    public CachedUrl load(String shortUrl) {
+        long stamp = resolutionCache.stamp();
+        CachedUrl cachedUrl;
+        if (replicated && resolutionCache.isRecentlyInvalidated(shortUrl, replicaStaleness)) {
+            cachedUrl = readPrimary(shortUrl);
+        } else {
+            cachedUrl = readOnlyTransaction.execute(status -> read(shortUrl));
+            if (replicated && cachedUrl.isMissing()) {
+                cachedUrl = readPrimary(shortUrl);
+            }
+        }
+        resolutionCache.put(shortUrl, cachedUrl, stamp);
+        return cachedUrl;
+    }
+
+    private CachedUrl read(String shortUrl) {
+        return urlRepository.findResolutionByShortUrl(shortUrl).orElse(CachedUrl.MISSING);
+    }
+
+    /**
+     * Reads the resolution in a new transaction that is not read-only, which always uses the primary.
+     */
+    private CachedUrl readPrimary(String shortUrl) {
+        return primaryTransaction.execute(status -> read(shortUrl));
+    }
+}
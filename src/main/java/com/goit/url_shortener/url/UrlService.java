@@ -3,6 +3,8 @@ package com.goit.url_shortener.url;
 import com.goit.url_shortener.url.dto.UrlRequest;
 import com.goit.url_shortener.url.dto.UrlResponse;
 
+import java.util.Optional;
+
 /**
  * Interface for the URL service, responsible for handling URL shortening and retrieval.
  */
@@ -16,6 +18,15 @@ public interface UrlService {
      */
     UrlResponse getShortUrlFromLongUrl(UrlRequest urlRequest);
 
+    /**
+     * Checks the long URL and the expiration date of a request to shorten a URL.
+     * The request is not authenticated.
+     *
+     * @param urlRequest The URL request containing the long URL.
+     * @return An Optional containing the failed response if the request is invalid, or an empty Optional otherwise.
+     */
+    Optional<UrlResponse> validateCreation(UrlRequest urlRequest);
+
     /**
      * Retrieves the long URL from a given short URL.
      *
@@ -24,6 +35,27 @@ public interface UrlService {
      */
     UrlResponse getLongUrlFromShortUrl(UrlRequest urlRequest);
 
+    /**
+     * Resolves a short URL to its long URL and records a visit if the short URL is active.
+     *
+     * <p>This is the lookup shared by all endpoints that follow short URLs. It does not build
+     * any response DTO, so callers on the redirect path can use the result directly.</p>
+     *
+     * @param shortUrl The short URL to resolve.
+     * @return A {@link UrlResolution} describing the outcome of the lookup.
+     */
+    UrlResolution resolve(String shortUrl);
+
+    /**
+     * Completes the resolution of a short URL whose data has already been looked up by the caller,
+     * for example without blocking: reports unknown and expired URLs and records a visit of active ones.
+     *
+     * @param shortUrl  The resolved short URL.
+     * @param cachedUrl The data of the short URL, or {@link CachedUrl#MISSING} if it does not exist.
+     * @return A {@link UrlResolution} describing the outcome of the lookup.
+     */
+    UrlResolution resolve(String shortUrl, CachedUrl cachedUrl);
+
     /**
      * Method to handle the update URL operation.
      *
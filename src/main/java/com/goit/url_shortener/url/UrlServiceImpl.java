@@ -4,6 +4,7 @@ import com.goit.url_shortener.security.AuthorizationService;
 import com.goit.url_shortener.url.dto.UrlRequest;
 import com.goit.url_shortener.url.dto.UrlResponse;
 import com.goit.url_shortener.user.User;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -24,6 +25,7 @@ import static com.goit.url_shortener.util.MessageProvider.*;
  * The class is annotated with `@Service` to indicate it's a service component in the Spring framework.
  */
 @Service
+@Timed(value = "url.service", histogram = true)
 @RequiredArgsConstructor
 public class UrlServiceImpl implements UrlService {
 
@@ -31,6 +33,12 @@ public class UrlServiceImpl implements UrlService {
     private final LongUrlValidator validator;
     private final ShortUrlGenerator urlGenerator;
     private final AuthorizationService authorizationService;
+    private final UrlResolutionCache resolutionCache;
+    private final VisitCounter visitCounter;
+    private final UrlDeduplicator deduplicator;
+    private final ShortCodeFilter shortCodeFilter;
+    private final HotLinkTracker hotLinkTracker;
+    private final UrlResolutionLoader resolutionLoader;
 
     /**
      * Generates a shortened URL from a given long URL.
@@ -38,8 +46,10 @@ public class UrlServiceImpl implements UrlService {
      * This method performs the following steps:
      * 1. Validates the long URL to ensure it's in the correct format.
      * 2. Checks if the user is authorized using the `AuthorizationService`.
-     * 3. Generates a unique shortened URL using `ShortUrlGenerator`.
-     * 4. Persists the URL entity into the database using `UrlRepository`.
+     * 3. Returns the existing shortened URL if the user already shortened the same URL with the same
+     *    expiration date and deduplication is enabled (see {@link UrlDeduplicator}).
+     * 4. Generates a unique shortened URL using `ShortUrlGenerator`.
+     * 5. Persists the URL entity into the database using `UrlRepository`.
      * <p>
      * If the long URL is invalid, the method returns a `UrlResponse` with a `BAD_REQUEST` status.
      * If the user is not authenticated, the method returns a `UrlResponse` with an `UNAUTHORIZED` status.
@@ -57,34 +67,46 @@ public class UrlServiceImpl implements UrlService {
             return UrlResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED);
         }
 
-        String longUrl = request.getUrl();
-
-        if (longUrl == null || longUrl.isEmpty()) {
-            return UrlResponse.failed(INCORRECT_URL_MESSAGE, HttpStatus.BAD_REQUEST);
-        }
+        Optional<UrlResponse> invalid = validateCreation(request);
 
-        if (!validator.isValid(longUrl)) {
-            return UrlResponse.failed(INCORRECT_URL_MESSAGE, HttpStatus.BAD_REQUEST);
+        if (invalid.isPresent()) {
+            return invalid.get();
         }
 
         User user = userOptional.get();
-
-        String shortUrl = urlGenerator.generateShortUrl();
-
+        String longUrl = request.getUrl();
         LocalDateTime expiresAt = request.getExpiresAt();
 
-        if (expiresAt != null && LocalDateTime.now().isAfter(expiresAt)) {
-            return UrlResponse.failed(INCORRECT_EXPIRES_AT, HttpStatus.BAD_REQUEST);
+        long longUrlHash = deduplicator.hash(longUrl);
+        Optional<Url> existing = deduplicator.findExisting(user.getId(), longUrl, longUrlHash, expiresAt);
+
+        if (existing.isPresent()) {
+            Url url = existing.get();
+            return UrlResponse.success(
+                    url.getShortUrl(),
+                    url.getLongUrl(),
+                    url.getCreatedAt(),
+                    url.getExpiresAt(),
+                    user.getUsername(),
+                    URL_ALREADY_EXISTS_MESSAGE,
+                    HttpStatus.OK
+            );
         }
 
+        String shortUrl = urlGenerator.generateShortUrl();
+
         Url url = Url.builder()
                 .shortUrl(shortUrl)
                 .longUrl(longUrl)
+                .longUrlHash(longUrlHash)
                 .expiresAt(expiresAt)
                 .user(user)
                 .build();
 
+        shortCodeFilter.add(shortUrl);
         urlRepository.save(url);
+        resolutionCache.invalidate(shortUrl);
+        deduplicator.recordCreated(user.getId(), longUrlHash);
 
         return UrlResponse.success(
                 shortUrl,
@@ -97,14 +119,38 @@ public class UrlServiceImpl implements UrlService {
         );
     }
 
+    /**
+     * Checks that the long URL is present and valid according to the `LongUrlValidator`,
+     * and that the expiration date, if any, is in the future.
+     *
+     * @param request The `UrlRequest` containing the long URL and the expiration date.
+     * @return An Optional containing a `UrlResponse` with a `BAD_REQUEST` status if the request is invalid,
+     *         or an empty Optional otherwise.
+     */
+    @Override
+    public Optional<UrlResponse> validateCreation(UrlRequest request) {
+        String longUrl = request.getUrl();
+
+        if (longUrl == null || longUrl.isEmpty() || !validator.isValid(longUrl)) {
+            return Optional.of(UrlResponse.failed(INCORRECT_URL_MESSAGE, HttpStatus.BAD_REQUEST));
+        }
+
+        LocalDateTime expiresAt = request.getExpiresAt();
+
+        if (expiresAt != null && LocalDateTime.now().isAfter(expiresAt)) {
+            return Optional.of(UrlResponse.failed(INCORRECT_EXPIRES_AT, HttpStatus.BAD_REQUEST));
+        }
+
+        return Optional.empty();
+    }
+
     /**
      * Retrieves the long URL from a given shortened URL.
      * <p>
      * This method performs the following steps:
      * 1. Validates the shortened URL.
-     * 2. Searches for the corresponding `Url` entity in the database using `UrlRepository`.
-     * 3. If found, increments the visit count.
-     * 4. Returns a `UrlResponse` with the long URL, or a failure response if the URL is not found.
+     * 2. Resolves the shortened URL using {@link #resolve(String)}, which also records the visit.
+     * 3. Returns a `UrlResponse` with the long URL, or a failure response if the URL is not found.
      * <p>
      * If the shortened URL is invalid or not found, the method returns a `UrlResponse` with appropriate status codes.
      *
@@ -112,7 +158,6 @@ public class UrlServiceImpl implements UrlService {
      * @return A `UrlResponse` indicating success with the long URL or failure with an appropriate status.
      */
     @Override
-    @Transactional
     public UrlResponse getLongUrlFromShortUrl(UrlRequest request) {
         String shortUrl = request.getUrl();
 
@@ -120,24 +165,19 @@ public class UrlServiceImpl implements UrlService {
             return UrlResponse.failed(INCORRECT_URL_MESSAGE, HttpStatus.BAD_REQUEST);
         }
 
-        Optional<Url> urlOptional = urlRepository.findUrlByShortUrl(shortUrl);
-        if (urlOptional.isEmpty()) {
+        UrlResolution resolution = resolve(ShortUrlGenerator.toCode(shortUrl));
+
+        if (resolution == UrlResolution.NOT_FOUND) {
             return UrlResponse.failed(URL_NOT_FOUND_MESSAGE, HttpStatus.NOT_FOUND);
         }
 
-        Url url = urlOptional.get();
-
-        LocalDateTime expiresAt = url.getExpiresAt();
-
-        if (expiresAt != null && expiresAt.isBefore(LocalDateTime.now())) {
+        if (resolution == UrlResolution.GONE) {
             return UrlResponse.failed(EXPIRED_URL_MESSAGE, HttpStatus.GONE);
         }
 
-        url.setVisits(url.getVisits() + 1);
-        urlRepository.save(url);
         return UrlResponse.success(
                 null,
-                url.getLongUrl(),
+                resolution.cachedUrl().longUrl(),
                 null,
                 null,
                 null,
@@ -145,6 +185,69 @@ public class UrlServiceImpl implements UrlService {
                 HttpStatus.OK);
     }
 
+    /**
+     * Resolves a shortened URL and records a visit if it is active.
+     * <p>
+     * This method performs the following steps:
+     * 1. Looks the shortened URL up in the `UrlResolutionCache` and, on a cache miss, reads its resolution
+     *    data from the covering index of short URLs through the `UrlResolutionLoader`, which caches
+     *    the result, unless the `ShortCodeFilter` knows that the shortened URL does not exist.
+     * 2. If the URL exists and has not expired, records the visit in the `VisitCounter`,
+     *    which writes visits to the database in batches, and in the `HotLinkTracker`.
+     * <p>
+     * The method runs outside of a transaction, so a cache hit takes no database connection. Only the
+     * lookup of a cache miss runs in a read-only transaction of the `UrlResolutionLoader`.
+     * <p>
+     * Short URLs that do not exist are cached as well, so repeated lookups of unknown codes
+     * do not reach the database until the negative entry expires. Codes rejected by the filter
+     * are not cached, so random codes of scanners do not evict live entries.
+     *
+     * @param shortUrl The shortened URL to resolve.
+     * @return The {@link UrlResolution} holding the long URL, or {@link UrlResolution#NOT_FOUND}
+     *         and {@link UrlResolution#GONE} for unknown and expired URLs.
+     */
+    @Override
+    public UrlResolution resolve(String shortUrl) {
+        if (shortUrl == null || shortUrl.isEmpty()) {
+            return UrlResolution.NOT_FOUND;
+        }
+
+        CachedUrl cachedUrl = resolutionCache.getIfPresent(shortUrl);
+
+        if (cachedUrl == null) {
+            if (shortCodeFilter.isDefinitelyAbsent(shortUrl)) {
+                return UrlResolution.NOT_FOUND;
+            }
+            cachedUrl = resolutionLoader.load(shortUrl);
+        }
+
+        return resolve(shortUrl, cachedUrl);
+    }
+
+    /**
+     * Reports missing and expired URLs and records a visit of an active URL in the `VisitCounter`
+     * and the `HotLinkTracker`. The caller is responsible for caching the looked up data.
+     *
+     * @param shortUrl  The resolved short URL.
+     * @param cachedUrl The data of the short URL, or {@link CachedUrl#MISSING} if it does not exist.
+     * @return The {@link UrlResolution} holding the long URL, or {@link UrlResolution#NOT_FOUND}
+     *         and {@link UrlResolution#GONE} for unknown and expired URLs.
+     */
+    @Override
+    public UrlResolution resolve(String shortUrl, CachedUrl cachedUrl) {
+        if (cachedUrl.isMissing()) {
+            return UrlResolution.NOT_FOUND;
+        }
+
+        if (cachedUrl.isExpiredAt(LocalDateTime.now())) {
+            return UrlResolution.GONE;
+        }
+
+        visitCounter.increment(cachedUrl.id());
+        hotLinkTracker.record(cachedUrl.id(), shortUrl, cachedUrl.userId());
+        return UrlResolution.found(cachedUrl);
+    }
+
     /**
      * Implementation of the {@link UrlResponse} interface for handling URL update operations.
      *
@@ -166,7 +269,7 @@ public class UrlServiceImpl implements UrlService {
             return UrlResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED);
         }
 
-        Optional<Url> urlOptional = urlRepository.findUrlByShortUrl(request.getUrl());
+        Optional<Url> urlOptional = urlRepository.findUrlByShortUrl(ShortUrlGenerator.toCode(request.getUrl()));
 
         if (urlOptional.isEmpty()) {
             return UrlResponse.failed(URL_NOT_FOUND_MESSAGE, HttpStatus.NOT_FOUND);
@@ -179,15 +282,17 @@ public class UrlServiceImpl implements UrlService {
         }
 
         Url url = urlOptional.get();
+        String oldShortUrl = url.getShortUrl();
         String shortUrl = urlGenerator.generateShortUrl();
         url.setShortUrl(shortUrl);
-
+        shortCodeFilter.add(shortUrl);
 
         if (Objects.nonNull(expiresAt)) {
             url.setExpiresAt(expiresAt);
         }
 
         urlRepository.save(url);
+        resolutionCache.invalidate(oldShortUrl, shortUrl);
         return UrlResponse.success(
                 shortUrl,
                 url.getLongUrl(),
@@ -219,7 +324,7 @@ public class UrlServiceImpl implements UrlService {
             return UrlResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED);
         }
 
-        Optional<Url> urlOptional = urlRepository.findUrlByShortUrl(request.getUrl());
+        Optional<Url> urlOptional = urlRepository.findUrlByShortUrl(ShortUrlGenerator.toCode(request.getUrl()));
 
         if (urlOptional.isEmpty()) {
             return UrlResponse.failed(URL_NOT_FOUND_MESSAGE, HttpStatus.NOT_FOUND);
@@ -227,6 +332,7 @@ public class UrlServiceImpl implements UrlService {
 
         Url url = urlOptional.get();
         urlRepository.delete(url);
+        resolutionCache.invalidate(url.getShortUrl());
         return UrlResponse.success(
                 null,
                 null,
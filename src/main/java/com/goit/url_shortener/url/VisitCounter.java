@@ -0,0 +1,225 @@
+package com.goit.url_shortener.url;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service accumulating URL visits in memory and writing them to the database in batches.
+ *
+ * <p> Every resolved short URL increments a {@link LongAdder} keyed by the identifier of the {@link Url},
+ * so concurrent visits of the same link do not contend on a single row lock or a single counter.
+ * The accumulated deltas are drained every {@code url.visits.flush-interval-ms} milliseconds and written
+ * with one {@code UPDATE} statement per {@code url.visits.flush-batch-size} URLs. Pending visits are
+ * also flushed when the application shuts down. </p>
+ *
+ * <p> Counters that stayed idle for a whole flush interval are removed to keep memory bounded by the
+ * number of recently visited URLs. A counter is marked retired before it is checked to be still empty,
+ * and a visit that finds its counter retired is taken back and recorded again in the current one, so no
+ * visit is recorded in a removed counter. If a batch cannot be written, its deltas are returned to the
+ * pending counters and retried on the next flush. </p>
+ */
+@Service
+@Slf4j
+public class VisitCounter {
+
+    private static final String FLUSH_SQL = """
+            UPDATE url_shortener.urls u
+            SET visits = u.visits + d.delta
+            FROM unnest(?::bigint[], ?::bigint[]) AS d(id, delta)
+            WHERE u.id = d.id""";
+
+    private final Map<Long, Counter> pending = new ConcurrentHashMap<>();
+    private final LongAdder flushedVisits = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    /**
+     * Creates the visit counter.
+     *
+     * @param jdbcTemplate The JDBC template used to write the accumulated visits.
+     * @param batchSize    The maximum number of URLs updated by a single statement.
+     */
+    public VisitCounter(JdbcTemplate jdbcTemplate,
+                        @Value("${url.visits.flush-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Records a single visit of the URL with the given identifier.
+     *
+     * @param urlId The identifier of the visited URL. {@code null} values are ignored.
+     */
+    public void increment(Long urlId) {
+        if (urlId == null) {
+            return;
+        }
+        while (true) {
+            Counter counter = pending.computeIfAbsent(urlId, id -> new Counter());
+            counter.increment();
+            if (!counter.retired) {
+                return;
+            }
+            counter.decrement();
+        }
+    }
+
+    /**
+     * Returns the number of visits of the given URL that have not been written to the database yet.
+     *
+     * @param urlId The identifier of the URL.
+     * @return The number of pending visits.
+     */
+    public long pendingVisits(Long urlId) {
+        LongAdder adder = urlId == null ? null : pending.get(urlId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Returns the number of URLs that currently have a pending counter.
+     *
+     * @return The number of tracked URLs.
+     */
+    public int pendingUrls() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the total number of visits that have not been written to the database yet.
+     *
+     * @return The sum of all pending visits.
+     */
+    public long pendingVisits() {
+        long total = 0;
+        for (LongAdder adder : pending.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the total number of visits written to the database since startup.
+     *
+     * @return The number of flushed visits.
+     */
+    public long flushedVisits() {
+        return flushedVisits.sum();
+    }
+
+    /**
+     * Returns the number of batches that could not be written to the database.
+     *
+     * @return The number of failed flushes.
+     */
+    public long failedFlushes() {
+        return failedFlushes.sum();
+    }
+
+    /**
+     * Drains all pending visits and writes them to the database.
+     *
+     * <p> Each counter is decreased by exactly the amount that was read from it, so visits recorded
+     * while the flush is running stay pending for the next flush. </p>
+     */
+    @Scheduled(fixedDelayString = "${url.visits.flush-interval-ms:1000}")
+    public void flush() {
+        List<Long> ids = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+
+        for (Map.Entry<Long, Counter> entry : pending.entrySet()) {
+            Long id = entry.getKey();
+            Counter adder = entry.getValue();
+            long delta = adder.sum();
+
+            if (delta == 0) {
+                retire(id, adder);
+                continue;
+            }
+
+            adder.add(-delta);
+            ids.add(id);
+            deltas.add(delta);
+
+            if (ids.size() >= batchSize) {
+                write(ids, deltas);
+                ids = new ArrayList<>();
+                deltas = new ArrayList<>();
+            }
+        }
+
+        if (!ids.isEmpty()) {
+            write(ids, deltas);
+        }
+    }
+
+    /**
+     * Writes the pending visits before the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        long remaining = pendingVisits();
+        if (remaining > 0) {
+            log.warn("{} visits could not be written before shutdown", remaining);
+        }
+    }
+
+    /**
+     * Removes an idle counter. The counter is marked retired before its sum is read: a visit recorded before
+     * the mark is seen in the sum and keeps the counter, and a visit recorded after it sees the mark and is
+     * recorded again in the counter that replaces it.
+     */
+    private void retire(Long id, Counter counter) {
+        pending.computeIfPresent(id, (key, current) -> {
+            if (current != counter) {
+                return current;
+            }
+            counter.retired = true;
+            if (counter.sum() == 0) {
+                return null;
+            }
+            counter.retired = false;
+            return counter;
+        });
+    }
+
+    private void write(List<Long> ids, List<Long> deltas) {
+        Long[] idArray = ids.toArray(new Long[0]);
+        Long[] deltaArray = deltas.toArray(new Long[0]);
+        try {
+            jdbcTemplate.update(FLUSH_SQL, ps -> {
+                ps.setArray(1, ps.getConnection().createArrayOf("bigint", idArray));
+                ps.setArray(2, ps.getConnection().createArrayOf("bigint", deltaArray));
+            });
+            for (Long delta : deltaArray) {
+                flushedVisits.add(delta);
+            }
+        } catch (DataAccessException e) {
+            failedFlushes.increment();
+            log.error("Failed to write visits of {} urls, they will be retried", idArray.length, e);
+            for (int i = 0; i < idArray.length; i++) {
+                pending.computeIfAbsent(idArray[i], key -> new Counter()).add(deltaArray[i]);
+            }
+        }
+    }
+
+    /**
+     * Pending visits of one URL, marked retired while it is being removed.
+     */
+    private static final class Counter extends LongAdder {
+
+        private volatile boolean retired;
+    }
+}
@@ -0,0 +1,62 @@
+package com.goit.url_shortener.url.code;
+
+/**
+ * Base62 encoding of non-negative numbers into short codes.
+ *
+ * <p> The alphabet consists of lowercase letters, uppercase letters and digits, in this order,
+ * so the digit with value {@code 0} is {@code 'a'}. </p>
+ */
+public final class Base62 {
+
+    /**
+     * Array containing all characters of a short code, indexed by their digit value.
+     */
+    static final char[] ALPHABET =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+
+    /**
+     * The number of characters in the alphabet.
+     */
+    static final int RADIX = ALPHABET.length;
+
+    /**
+     * The number of characters needed to encode any non-negative {@code long}.
+     */
+    private static final int MAX_LENGTH = 11;
+
+    private Base62() {
+    }
+
+    /**
+     * Encodes a non-negative number using as few characters as possible.
+     *
+     * @param value The number to encode.
+     * @return The Base62 representation of the number.
+     */
+    public static String encode(long value) {
+        return encode(value, 1);
+    }
+
+    /**
+     * Encodes a non-negative number, left-padding the result with the zero digit to the given length.
+     *
+     * @param value     The number to encode.
+     * @param minLength The minimum length of the result.
+     * @return The Base62 representation of the number.
+     */
+    public static String encode(long value, int minLength) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        char[] buffer = new char[Math.max(MAX_LENGTH, minLength)];
+        int position = buffer.length;
+        do {
+            buffer[--position] = ALPHABET[(int) (value % RADIX)];
+            value /= RADIX;
+        } while (value > 0);
+        while (buffer.length - position < minLength) {
+            buffer[--position] = ALPHABET[0];
+        }
+        return new String(buffer, position, buffer.length - position);
+    }
+}
@@ -0,0 +1,58 @@
+package com.goit.url_shortener.url.code;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Strategy minting random short codes between {@link #MIN_SHORT_URL_LENGTH} and {@link #MAX_SHORT_URL_LENGTH}
+ * characters long.
+ *
+ * <p> The source of randomness is selected with {@code url.code.random.source}: {@code thread-local}
+ * uses {@link ThreadLocalRandom} and does not contend between threads, {@code secure} uses a shared
+ * {@link SecureRandom} for codes that must not be predictable. Random codes are not collision-free. </p>
+ */
+@Service
+@ConditionalOnProperty(name = "url.code.strategy", havingValue = "random", matchIfMissing = true)
+public class RandomShortCodeStrategy implements ShortCodeStrategy {
+
+    /**
+     * Minimum length of the generated short code.
+     */
+    static final int MIN_SHORT_URL_LENGTH = 6;
+
+    /**
+     * Maximum length of the generated short code.
+     */
+    static final int MAX_SHORT_URL_LENGTH = 8;
+
+    private final SecureRandom secureRandom;
+
+    /**
+     * Creates the strategy with the configured source of randomness.
+     *
+     * @param source {@code thread-local} or {@code secure}.
+     */
+    public RandomShortCodeStrategy(@Value("${url.code.random.source:thread-local}") String source) {
+        this.secureRandom = switch (source) {
+            case "thread-local" -> null;
+            case "secure" -> new SecureRandom();
+            default -> throw new IllegalArgumentException("Unsupported random source: " + source);
+        };
+    }
+
+    @Override
+    public String nextCode() {
+        Random random = secureRandom != null ? secureRandom : ThreadLocalRandom.current();
+        int length = MIN_SHORT_URL_LENGTH + random.nextInt(MAX_SHORT_URL_LENGTH - MIN_SHORT_URL_LENGTH + 1);
+        char[] code = new char[length];
+        for (int i = 0; i < length; i++) {
+            code[i] = Base62.ALPHABET[random.nextInt(Base62.RADIX)];
+        }
+        return new String(code);
+    }
+}
@@ -0,0 +1,74 @@
+package com.goit.url_shortener.url.code;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out numbers from a PostgreSQL sequence leased in blocks.
+ *
+ * <p> The sequence must be created with {@code INCREMENT BY n}: every {@code nextval} call then reserves
+ * the range {@code [value, value + n)} for this node, and the following {@code n} numbers are served from
+ * memory without a database round trip. Numbers are unique across nodes but not strictly ordered,
+ * and a range that is not used up before shutdown is skipped. </p>
+ */
+public class SequenceBlockAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String schema;
+    private final String sequence;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long blockSize;
+    private long next;
+    private long limit;
+
+    /**
+     * Creates the allocator for the given sequence.
+     *
+     * @param jdbcTemplate The JDBC template used to lease blocks.
+     * @param schema       The schema of the sequence.
+     * @param sequence     The name of the sequence.
+     */
+    public SequenceBlockAllocator(JdbcTemplate jdbcTemplate, String schema, String sequence) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schema = schema;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Returns the next number, leasing a new block from the database when the current one is used up.
+     *
+     * @return A number that has not been handed out before by any node.
+     */
+    public long nextValue() {
+        lock.lock();
+        try {
+            if (next >= limit) {
+                leaseBlock();
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void leaseBlock() {
+        if (blockSize == 0) {
+            Long increment = jdbcTemplate.queryForObject(
+                    "SELECT increment_by FROM pg_sequences WHERE schemaname = ? AND sequencename = ?",
+                    Long.class, schema, sequence);
+            if (increment == null || increment < 1) {
+                throw new IllegalStateException("Sequence " + schema + "." + sequence + " does not exist");
+            }
+            blockSize = increment;
+        }
+        Long start = jdbcTemplate.queryForObject(
+                "SELECT nextval('" + schema + "." + sequence + "')", Long.class);
+        if (start == null) {
+            throw new IllegalStateException("Sequence " + schema + "." + sequence + " returned no value");
+        }
+        next = start;
+        limit = start + blockSize;
+    }
+}
@@ -0,0 +1,78 @@
+package com.goit.url_shortener.url.code;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Strategy minting short codes from the {@code url_shortener.short_code_seq} database sequence.
+ *
+ * <p> Sequence numbers are leased in blocks by a {@link SequenceBlockAllocator}, so most codes are minted
+ * without a database round trip. Each number is passed through a bijective mix over {@value #BITS} bits,
+ * which keeps the codes unique but makes consecutive codes look unrelated, and is then encoded as a
+ * Base62 code of {@value #CODE_LENGTH} characters. </p>
+ *
+ * <p> The minted codes never repeat, but they have the length of the codes of the {@code random} strategy,
+ * so they may match a code stored before the strategy was switched and are still checked against the
+ * database. </p>
+ */
+@Service
+@ConditionalOnProperty(name = "url.code.strategy", havingValue = "sequence")
+public class SequenceShortCodeStrategy implements ShortCodeStrategy {
+
+    /**
+     * The number of bits of the code space, {@code 2^40} codes fit into {@value #CODE_LENGTH} Base62 characters.
+     */
+    static final int BITS = 40;
+
+    /**
+     * The length of every minted code.
+     */
+    static final int CODE_LENGTH = 7;
+
+    private static final long MASK = (1L << BITS) - 1;
+    private static final long MULTIPLIER = 0x9E3779B97L;
+
+    private final SequenceBlockAllocator allocator;
+
+    /**
+     * Creates the strategy backed by the short code sequence.
+     *
+     * @param jdbcTemplate The JDBC template used to lease sequence blocks.
+     */
+    public SequenceShortCodeStrategy(JdbcTemplate jdbcTemplate) {
+        this(new SequenceBlockAllocator(jdbcTemplate, "url_shortener", "short_code_seq"));
+    }
+
+    SequenceShortCodeStrategy(SequenceBlockAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    @Override
+    public String nextCode() {
+        return encode(allocator.nextValue());
+    }
+
+    /**
+     * Encodes a sequence number into a short code.
+     *
+     * @param value The sequence number.
+     * @return The short code of the number.
+     */
+    static String encode(long value) {
+        if (value < 0 || value > MASK) {
+            throw new IllegalStateException("Short code sequence is exhausted: " + value);
+        }
+        return Base62.encode(mix(value), CODE_LENGTH);
+    }
+
+    /**
+     * Bijective mix of a number within the code space. Every step is invertible modulo {@code 2^BITS}.
+     */
+    static long mix(long value) {
+        value ^= value >>> 21;
+        value = (value * MULTIPLIER) & MASK;
+        value ^= value >>> 19;
+        return value;
+    }
+}
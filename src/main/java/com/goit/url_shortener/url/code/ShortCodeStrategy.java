@@ -0,0 +1,34 @@
+package com.goit.url_shortener.url.code;
+
+/**
+ * Strategy for minting short codes.
+ *
+ * <p> The active implementation is selected with the {@code url.code.strategy} property:
+ * <ul>
+ *   <li>{@code random} - random codes, checked against the database before use ({@link RandomShortCodeStrategy}).</li>
+ *   <li>{@code sequence} - codes derived from a database sequence leased in blocks, checked against the database
+ *       like random codes ({@link SequenceShortCodeStrategy}).</li>
+ *   <li>{@code snowflake} - codes derived from time, node and counter bits ({@link SnowflakeShortCodeStrategy}).</li>
+ * </ul>
+ */
+public interface ShortCodeStrategy {
+
+    /**
+     * Mints the next short code.
+     *
+     * @return A short code consisting of the characters of {@link Base62}.
+     */
+    String nextCode();
+
+    /**
+     * Tells whether codes minted by this strategy are unique by construction.
+     *
+     * <p> Codes of strategies that are not collision-free are checked against the database
+     * and re-minted on conflict. </p>
+     *
+     * @return {@code true} if the strategy never returns the same code twice.
+     */
+    default boolean isCollisionFree() {
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package com.goit.url_shortener.url.code;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Strategy minting Snowflake-style short codes without any coordination between nodes.
+ *
+ * <p> Every code is a Base62-encoded 63-bit number made of {@value #TIMESTAMP_BITS} bits of milliseconds
+ * since {@link #EPOCH_MILLIS}, {@value #NODE_BITS} bits of the node identifier configured with
+ * {@code url.code.node-id}, and a {@value #SEQUENCE_BITS}-bit counter for codes minted within the same
+ * millisecond. Codes are unique as long as every node uses a distinct identifier. </p>
+ */
+@Service
+@ConditionalOnProperty(name = "url.code.strategy", havingValue = "snowflake")
+public class SnowflakeShortCodeStrategy implements ShortCodeStrategy {
+
+    /**
+     * Custom epoch of the timestamp bits, 2025-01-01T00:00:00Z.
+     */
+    static final long EPOCH_MILLIS = 1735689600000L;
+
+    static final int TIMESTAMP_BITS = 41;
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    /**
+     * Creates the strategy for the configured node.
+     *
+     * @param nodeId The identifier of this node, unique among all nodes minting codes.
+     */
+    public SnowflakeShortCodeStrategy(@Value("${url.code.node-id:0}") long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeShortCodeStrategy(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextCode() {
+        return Base62.encode(nextId());
+    }
+
+    @Override
+    public boolean isCollisionFree() {
+        return true;
+    }
+
+    /**
+     * Mints the next identifier. If the clock moves backwards the last timestamp is reused,
+     * and if the counter of a millisecond is used up the next millisecond is borrowed.
+     *
+     * @return A unique 63-bit identifier.
+     */
+    long nextId() {
+        lock.lock();
+        try {
+            long timestamp = Math.max(clock.getAsLong() - EPOCH_MILLIS, lastTimestamp);
+            if (timestamp == lastTimestamp) {
+                sequence = (sequence + 1) & SEQUENCE_MASK;
+                if (sequence == 0) {
+                    timestamp++;
+                }
+            } else {
+                sequence = 0;
+            }
+            lastTimestamp = timestamp;
+            return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
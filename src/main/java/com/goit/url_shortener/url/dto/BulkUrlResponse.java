@@ -0,0 +1,57 @@
+package com.goit.url_shortener.url.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+/**
+ * DTO for representing the response of a bulk shortening request.
+ * Contains one {@link BulkUrlResult} per requested URL, in request order.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkUrlResponse {
+
+    /**
+     * The results of the individual URLs.
+     */
+    private List<BulkUrlResult> results;
+
+    /**
+     * A message indicating why the whole request failed.
+     */
+    private String message;
+
+    /**
+     * The HTTP status associated with the response.
+     * This field is ignored in the serialized JSON output.
+     */
+    @JsonIgnore
+    private HttpStatus status;
+
+    /**
+     * Static factory method to create a response for a processed request.
+     *
+     * @param results The results of the individual URLs.
+     * @return A new instance of {@link BulkUrlResponse}.
+     */
+    public static BulkUrlResponse success(List<BulkUrlResult> results) {
+        return new BulkUrlResponse(results, null, HttpStatus.OK);
+    }
+
+    /**
+     * Static factory method to create a response for a rejected request.
+     *
+     * @param message The failure message.
+     * @param status  The HTTP status of the operation.
+     * @return A new instance of {@link BulkUrlResponse}.
+     */
+    public static BulkUrlResponse failed(String message, HttpStatus status) {
+        return new BulkUrlResponse(null, message, status);
+    }
+}
@@ -0,0 +1,78 @@
+package com.goit.url_shortener.url.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO describing the outcome of a single URL of a bulk shortening request.
+ * The index refers to the position of the URL in the request, starting with 0.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkUrlResult {
+
+    /**
+     * The position of the URL in the request.
+     */
+    private long index;
+
+    /**
+     * The shortened URL, present only if the URL was created.
+     */
+    private String shortUrl;
+
+    /**
+     * The original long URL.
+     */
+    private String longUrl;
+
+    /**
+     * The expiration date and time of the URL, if one was requested.
+     */
+    private LocalDateTime expiresAt;
+
+    /**
+     * A message indicating the success or failure of the operation for this URL.
+     */
+    private String message;
+
+    /**
+     * The HTTP status code of the operation for this URL.
+     */
+    private int status;
+
+    /**
+     * Static factory method to create the result of a created URL.
+     *
+     * @param index     The position of the URL in the request.
+     * @param shortUrl  The shortened URL.
+     * @param longUrl   The original URL.
+     * @param expiresAt The expiration date and time of the URL.
+     * @param message   The success message.
+     * @return A new instance of {@link BulkUrlResult}.
+     */
+    public static BulkUrlResult success(long index, String shortUrl, String longUrl,
+                                        LocalDateTime expiresAt, String message) {
+        return new BulkUrlResult(index, shortUrl, longUrl, expiresAt, message, HttpStatus.CREATED.value());
+    }
+
+    /**
+     * Static factory method to create the result of a rejected URL.
+     *
+     * @param index   The position of the URL in the request.
+     * @param longUrl The original URL.
+     * @param message The failure message.
+     * @param status  The HTTP status of the failure.
+     * @return A new instance of {@link BulkUrlResult}.
+     */
+    public static BulkUrlResult failed(long index, String longUrl, String message, HttpStatus status) {
+        return new BulkUrlResult(index, null, longUrl, null, message, status.value());
+    }
+}
@@ -15,7 +15,7 @@ import java.util.Set;
  *
  * <p> The class is annotated with {@link Entity},
  * {@link Table}, {@link Id},
- * {@link GeneratedValue}, {@link GenerationType},
+ * {@link GeneratedValue}, {@link GenerationType}, {@link SequenceGenerator},
  * and {@link Data}, {@link AllArgsConstructor}, {@link NoArgsConstructor},
  * {@link Builder} to define the entity and automatically generate common methods. </p>
  * <p> This class has a one-to-many relationship with the {@link Url} entity.
@@ -32,10 +32,12 @@ public class User {
 
     /**
      * Unique identifier for the User entity.
-     * This field is auto-generated by the database.
+     * This field is allocated from the `users_id_seq` sequence in blocks.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", schema = "url_shortener", sequenceName = "users_id_seq",
+            allocationSize = 50)
     private Long id;
 
     /**
@@ -6,6 +6,7 @@ import com.goit.url_shortener.user.dto.RegisterUserResponse;
 import com.goit.url_shortener.user.dto.UserRequest;
 import com.goit.url_shortener.user.dto.UserResponse;
 import com.goit.url_shortener.util.MessageProvider;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,6 +22,7 @@ import java.util.Optional;
  * It also validates user input using the {@link UserValidator} and utilizes the {@link JwtTokenProvider} for token generation.
  */
 @Service
+@Timed(value = "user.service", histogram = true)
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
@@ -0,0 +1,117 @@
+package com.goit.url_shortener.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over 64-bit keys.
+ *
+ * <p> A negative answer of {@link #mightContain(long)} is exact, while a positive answer is wrong with
+ * a probability close to the false positive rate the filter was sized for, as long as no more keys than
+ * expected have been added. Keys are spread over the bit array with double hashing of a mixed key,
+ * so callers should pass keys that are already well distributed or at least distinct. </p>
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    /**
+     * Creates a filter sized for the given number of keys and false positive rate.
+     *
+     * @param expectedInsertions The number of keys the filter is expected to hold.
+     * @param falsePositiveRate  The acceptable probability of a false positive, between 0 and 1 exclusive.
+     * @throws IllegalArgumentException if the arguments are out of range.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive: " + expectedInsertions);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Adds a key to the filter.
+     *
+     * @param key The key to add.
+     */
+    public void put(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the key may have been added to the filter.
+     *
+     * @param key The key to check.
+     * @return {@code false} if the key has definitely not been added, {@code true} if it probably has.
+     */
+    public boolean mightContain(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bits of the filter.
+     *
+     * @return The size of the bit array.
+     */
+    public long bitSize() {
+        return bitCount;
+    }
+
+    /**
+     * Returns the number of bit positions checked per key.
+     *
+     * @return The number of hash functions.
+     */
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * Estimates the current false positive probability from the fraction of bits that are set.
+     *
+     * @return The estimated probability that {@link #mightContain(long)} returns {@code true} for a new key.
+     */
+    public double expectedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            set += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) set / bitCount, hashFunctions);
+    }
+
+    /**
+     * The finalizer of SplitMix64, spreading every input bit over the whole output.
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,286 @@
+package com.goit.url_shortener.util;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct 64-bit hashes added to it.
+ *
+ * <p> A sketch of precision {@code p} has {@code 2^p} registers and a standard error of about
+ * {@code 1.04 / sqrt(2^p)}, whatever the number of hashes added. Sketches of the same precision can be
+ * merged, and merging is idempotent and commutative, so sketches built on different nodes or for different
+ * time ranges can be combined in any order, and merging the same sketch twice does not change the result. </p>
+ *
+ * <p> Small sketches keep only their non-empty registers in a sorted array and switch to a dense register
+ * array once it would take more space. {@link #toBytes()} uses the smaller of both encodings, so rarely
+ * visited links are stored in a few bytes. The hashes should be well distributed over all 64 bits. </p>
+ *
+ * <p> Instances are not thread-safe. </p>
+ */
+public class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private static final int SPARSE_FLAG = 0x80;
+    private static final int SPARSE_ENTRY_BYTES = 3;
+
+    private final int precision;
+    private final int registerCount;
+
+    /**
+     * Non-empty registers as {@code index << 8 | rank}, sorted by index. Unused once the sketch is dense.
+     */
+    private int[] sparse;
+    private int sparseSize;
+
+    /**
+     * Register array of a dense sketch, {@code null} while the sketch is sparse.
+     */
+    private byte[] registers;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param precision The number of bits of a hash selecting the register, between 4 and 16.
+     * @throws IllegalArgumentException if the precision is out of range.
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and "
+                    + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.sparse = new int[4];
+    }
+
+    /**
+     * Adds a hash to the sketch.
+     *
+     * @param hash The hash of the item.
+     * @return {@code true} if a register changed, {@code false} if the hash did not change the estimate.
+     */
+    public boolean add(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        return update(index, rank);
+    }
+
+    /**
+     * Merges another sketch into this one, so it estimates the number of distinct hashes added to either.
+     *
+     * @param other The sketch to merge. It is not modified.
+     * @throws IllegalArgumentException if the precisions of the sketches differ.
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge a sketch of precision " + other.precision
+                    + " into a sketch of precision " + precision);
+        }
+        if (other.registers != null) {
+            toDense();
+            for (int i = 0; i < registerCount; i++) {
+                if (other.registers[i] > registers[i]) {
+                    registers[i] = other.registers[i];
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < other.sparseSize; i++) {
+            update(other.sparse[i] >>> 8, other.sparse[i] & 0xFF);
+        }
+    }
+
+    /**
+     * Estimates the number of distinct hashes added to the sketch and to the sketches merged into it.
+     * Small cardinalities are estimated with linear counting over the empty registers.
+     *
+     * @return The estimated number of distinct hashes.
+     */
+    public long estimate() {
+        double sum;
+        int zeros;
+        if (registers != null) {
+            sum = 0;
+            zeros = 0;
+            for (byte rank : registers) {
+                sum += Math.scalb(1.0, -rank);
+                if (rank == 0) {
+                    zeros++;
+                }
+            }
+        } else {
+            zeros = registerCount - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += Math.scalb(1.0, -(sparse[i] & 0xFF));
+            }
+        }
+
+        double raw = alpha() * registerCount * registerCount / sum;
+        if (raw <= 2.5 * registerCount && zeros > 0) {
+            return Math.round(registerCount * Math.log((double) registerCount / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    /**
+     * Returns the precision of the sketch.
+     *
+     * @return The number of bits selecting the register.
+     */
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * Serializes the sketch. The first byte holds the precision and the encoding, followed either by
+     * three bytes per non-empty register or by one byte per register, whichever is shorter.
+     *
+     * @return The serialized sketch.
+     */
+    public byte[] toBytes() {
+        if (registers == null && sparseSize * SPARSE_ENTRY_BYTES < registerCount) {
+            byte[] bytes = new byte[1 + sparseSize * SPARSE_ENTRY_BYTES];
+            bytes[0] = (byte) (precision | SPARSE_FLAG);
+            for (int i = 0, offset = 1; i < sparseSize; i++, offset += SPARSE_ENTRY_BYTES) {
+                int index = sparse[i] >>> 8;
+                bytes[offset] = (byte) (index >>> 8);
+                bytes[offset + 1] = (byte) index;
+                bytes[offset + 2] = (byte) sparse[i];
+            }
+            return bytes;
+        }
+        byte[] bytes = new byte[1 + registerCount];
+        bytes[0] = (byte) precision;
+        if (registers != null) {
+            System.arraycopy(registers, 0, bytes, 1, registerCount);
+        } else {
+            for (int i = 0; i < sparseSize; i++) {
+                bytes[1 + (sparse[i] >>> 8)] = (byte) sparse[i];
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Restores a sketch serialized with {@link #toBytes()}.
+     *
+     * @param bytes The serialized sketch.
+     * @return The restored sketch.
+     * @throws IllegalArgumentException if the bytes are not a valid sketch.
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            throw new IllegalArgumentException("Empty sketch");
+        }
+        boolean sparseEncoding = (bytes[0] & SPARSE_FLAG) != 0;
+        HyperLogLog sketch = new HyperLogLog(bytes[0] & ~SPARSE_FLAG & 0xFF);
+        int maxRank = Long.SIZE - sketch.precision + 1;
+
+        if (!sparseEncoding) {
+            if (bytes.length != 1 + sketch.registerCount) {
+                throw new IllegalArgumentException("Dense sketch has " + (bytes.length - 1) + " registers, expected "
+                        + sketch.registerCount);
+            }
+            sketch.registers = Arrays.copyOfRange(bytes, 1, bytes.length);
+            sketch.sparse = null;
+            for (byte rank : sketch.registers) {
+                if (rank < 0 || rank > maxRank) {
+                    throw new IllegalArgumentException("Invalid register value: " + rank);
+                }
+            }
+            return sketch;
+        }
+
+        if ((bytes.length - 1) % SPARSE_ENTRY_BYTES != 0) {
+            throw new IllegalArgumentException("Truncated sparse sketch of " + bytes.length + " bytes");
+        }
+        for (int offset = 1; offset < bytes.length; offset += SPARSE_ENTRY_BYTES) {
+            int index = (bytes[offset] & 0xFF) << 8 | (bytes[offset + 1] & 0xFF);
+            int rank = bytes[offset + 2] & 0xFF;
+            if (index >= sketch.registerCount || rank < 1 || rank > maxRank) {
+                throw new IllegalArgumentException("Invalid sparse register " + index + "=" + rank);
+            }
+            sketch.update(index, rank);
+        }
+        return sketch;
+    }
+
+    /**
+     * Raises the register to the given rank if it is lower.
+     */
+    private boolean update(int index, int rank) {
+        if (registers != null) {
+            if (registers[index] < rank) {
+                registers[index] = (byte) rank;
+                return true;
+            }
+            return false;
+        }
+
+        int position = search(index);
+        if (position >= 0) {
+            if ((sparse[position] & 0xFF) < rank) {
+                sparse[position] = index << 8 | rank;
+                return true;
+            }
+            return false;
+        }
+
+        if (sparseSize == sparse.length) {
+            if (sparseSize >= registerCount / 8) {
+                toDense();
+                registers[index] = (byte) rank;
+                return true;
+            }
+            sparse = Arrays.copyOf(sparse, sparseSize * 2);
+        }
+        int insertAt = -position - 1;
+        System.arraycopy(sparse, insertAt, sparse, insertAt + 1, sparseSize - insertAt);
+        sparse[insertAt] = index << 8 | rank;
+        sparseSize++;
+        return true;
+    }
+
+    /**
+     * Binary search of a register index in the sparse array, with the contract of {@link Arrays#binarySearch}.
+     */
+    private int search(int index) {
+        int low = 0;
+        int high = sparseSize - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int current = sparse[middle] >>> 8;
+            if (current < index) {
+                low = middle + 1;
+            } else if (current > index) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void toDense() {
+        if (registers != null) {
+            return;
+        }
+        registers = new byte[registerCount];
+        for (int i = 0; i < sparseSize; i++) {
+            registers[sparse[i] >>> 8] = (byte) sparse[i];
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    private double alpha() {
+        return switch (registerCount) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / registerCount);
+        };
+    }
+}
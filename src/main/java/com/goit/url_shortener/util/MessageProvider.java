@@ -45,6 +45,15 @@ public class MessageProvider {
     public static final String URL_CREATED_MESSAGE = "Url has been created successfully.";
     public static final String URL_UPDATED_MESSAGE = "Url has been updated successfully.";
     public static final String URL_DELETED_MESSAGE = "Url has been deleted successfully.";
+    public static final String URL_ALREADY_EXISTS_MESSAGE = "Url has already been shortened.";
+    public static final String URL_NOT_SAVED_MESSAGE = "Url could not be saved. Please try again.";
+    public static final String MALFORMED_REQUEST_MESSAGE = "Request could not be parsed.";
+    public static final String INCORRECT_GRANULARITY_MESSAGE = "Granularity must be either hour or day.";
+    public static final String INCORRECT_WINDOW_MESSAGE = "Window must be either minute or hour.";
+    public static final String ACCESS_DENIED_MESSAGE = "You are not allowed to access this resource.";
+    public static final String INCORRECT_TIME_RANGE_MESSAGE = "The start of the range must be before its end.";
+    public static final String INCORRECT_STATS_QUERY_MESSAGE =
+            "Sort must be id, created or expires, order must be asc or desc, and every range must start before its end.";
 
     /**
      * Generates a message indicating that a user with the specified username already exists.
@@ -56,6 +65,26 @@ public class MessageProvider {
         return "User with name " + username + " already exists. Please try a different name.";
     }
 
+    /**
+     * Generates a message indicating that a bulk request contains more URLs than allowed.
+     *
+     * @param maxItems The maximum number of URLs in a single request.
+     * @return A string message stating the limit.
+     */
+    public static String generateTooManyUrlsMessage(int maxItems) {
+        return "A single request may contain at most " + maxItems + " urls. Use NDJSON for larger imports.";
+    }
+
+    /**
+     * Generates a message indicating that a time series request covers more buckets than allowed.
+     *
+     * @param maxBuckets The maximum number of buckets of a single series.
+     * @return A string message stating the limit.
+     */
+    public static String generateTooManyBucketsMessage(int maxBuckets) {
+        return "A time series may contain at most " + maxBuckets + " buckets. Use a coarser granularity.";
+    }
+
     /**
      * Generates a message indicating that a user with the specified username was not found.
      *
@@ -0,0 +1,109 @@
+package com.goit.url_shortener.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ *
+ * <p> Every slot carries a sequence number telling producers whether the slot is free and the consumer
+ * whether it has been published (the bounded queue of Dmitry Vyukov). Producers claim a slot with a single
+ * compare-and-set on the tail and never block: {@link #offer(Object)} fails immediately when the buffer
+ * is full, leaving the overload policy to the caller. {@link #poll()} must only be called by one thread
+ * at a time. </p>
+ *
+ * @param <E> The type of the elements.
+ */
+public class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * Creates a buffer holding at least the given number of elements.
+     *
+     * @param capacity The requested capacity, rounded up to the next power of two.
+     * @throws IllegalArgumentException if the capacity is not positive or larger than 2^30.
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be in [1, 2^30]: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is room for it.
+     *
+     * @param element The element to add, not {@code null}.
+     * @return {@code true} if the element was added, {@code false} if the buffer is full.
+     */
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest published element. Must not be called concurrently.
+     *
+     * @return The oldest element, or {@code null} if there is none.
+     */
+    public E poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, position + mask + 1);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * Returns the number of elements that have been claimed but not yet polled.
+     *
+     * @return The approximate number of elements in the buffer.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * Returns the number of elements the buffer can hold.
+     *
+     * @return The capacity.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,167 @@
+package com.goit.url_shortener.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving summary tracking the most frequent keys of a stream in bounded memory.
+ *
+ * <p> At most {@code capacity} keys are counted. When a new key arrives and the summary is full,
+ * it replaces the key with the lowest count and inherits that count, which is remembered as the error of
+ * the new key. Every key occurring more often than {@code 1 / capacity} of the stream is therefore tracked,
+ * and its count overestimates the true count by at most its error. Counters are kept in a binary min-heap,
+ * so every offer costs O(log capacity). </p>
+ *
+ * <p> Instances are not thread-safe. </p>
+ *
+ * @param <K> The type of the keys.
+ */
+public class SpaceSaving<K> {
+
+    /**
+     * Receives the tracked keys of a summary.
+     *
+     * @param <K> The type of the keys.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<K> {
+
+        /**
+         * Accepts one tracked key.
+         *
+         * @param key   The key.
+         * @param count The estimated number of occurrences, never lower than the true number.
+         * @param error The maximum overestimation of the count.
+         */
+        void accept(K key, long count, long error);
+    }
+
+    private final Object[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<K, Integer> positions;
+    private int size;
+
+    /**
+     * Creates an empty summary.
+     *
+     * @param capacity The maximum number of tracked keys.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.keys = new Object[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Counts one occurrence of the key.
+     *
+     * @param key The key, not {@code null}.
+     */
+    public void offer(K key) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            counts[position]++;
+            siftDown(position);
+            return;
+        }
+        if (size < keys.length) {
+            keys[size] = key;
+            counts[size] = 1;
+            errors[size] = 0;
+            positions.put(key, size);
+            siftUp(size++);
+            return;
+        }
+        positions.remove(keyAt(0));
+        keys[0] = key;
+        errors[0] = counts[0];
+        counts[0]++;
+        positions.put(key, 0);
+        siftDown(0);
+    }
+
+    /**
+     * Passes every tracked key to the consumer, in no particular order.
+     *
+     * @param consumer The consumer of the keys.
+     */
+    public void forEach(EntryConsumer<K> consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(keyAt(i), counts[i], errors[i]);
+        }
+    }
+
+    /**
+     * Removes all tracked keys.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the number of tracked keys.
+     *
+     * @return The number of keys, at most the capacity.
+     */
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int position) {
+        return (K) keys[position];
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (counts[parent] <= counts[position]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Object key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        long count = counts[i];
+        counts[i] = counts[j];
+        counts[j] = count;
+        long error = errors[i];
+        errors[i] = errors[j];
+        errors[j] = error;
+        positions.put(keyAt(i), i);
+        positions.put(keyAt(j), j);
+    }
+}
@@ -0,0 +1,225 @@
+package com.goit.url_shortener.v2;
+
+import com.goit.url_shortener.security.AuthorizationService;
+import com.goit.url_shortener.url.CachedUrl;
+import com.goit.url_shortener.url.ShortCodeFilter;
+import com.goit.url_shortener.url.ShortUrlGenerator;
+import com.goit.url_shortener.url.Url;
+import com.goit.url_shortener.url.UrlDeduplicator;
+import com.goit.url_shortener.url.UrlResolution;
+import com.goit.url_shortener.url.UrlResolutionCache;
+import com.goit.url_shortener.url.UrlService;
+import com.goit.url_shortener.url.code.SequenceBlockAllocator;
+import com.goit.url_shortener.url.dto.UrlRequest;
+import com.goit.url_shortener.url.dto.UrlResponse;
+import com.goit.url_shortener.user.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static com.goit.url_shortener.util.MessageProvider.*;
+
+/**
+ * Non-blocking variant of the redirect and create operations of {@link UrlService}, backed by R2DBC.
+ *
+ * <p> Short codes are resolved from the {@link UrlResolutionCache} and the {@link ShortCodeFilter} first, and
+ * only cache misses query the database, through the {@link DatabaseClient} without holding a thread while
+ * the query runs. Visits are then recorded by {@link UrlService#resolve(String, CachedUrl)}, so both versions
+ * share the cache, the visit counting and the handling of unknown and expired codes. </p>
+ *
+ * <p> New URLs are validated by {@link UrlService#validateCreation(UrlRequest)} and receive codes from the
+ * same {@link ShortUrlGenerator}. Authentication, deduplication and code generation may query the database
+ * through JDBC, so they run on the bounded elastic scheduler. The row itself is inserted with R2DBC. </p>
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "url.v2.enabled", havingValue = "true")
+public class ReactiveUrlService {
+
+    private static final String FIND_SQL = """
+            SELECT id, long_url, expires_at, user_id FROM url_shortener.urls
+            WHERE short_url = $1""";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO url_shortener.urls (id, long_url, short_url, expires_at, user_id, long_url_hash)
+            VALUES ($1, $2, $3, $4, $5, $6)""";
+
+    private final UrlService urlService;
+    private final AuthorizationService authorizationService;
+    private final ShortUrlGenerator urlGenerator;
+    private final UrlDeduplicator deduplicator;
+    private final ShortCodeFilter shortCodeFilter;
+    private final UrlResolutionCache resolutionCache;
+    private final DatabaseClient databaseClient;
+    private final SequenceBlockAllocator idAllocator;
+
+    /**
+     * Creates the service.
+     *
+     * @param urlService           The blocking URL service whose validation and visit recording are shared.
+     * @param authorizationService The authorization service.
+     * @param urlGenerator         The generator of short codes.
+     * @param deduplicator         The deduplicator of long URLs.
+     * @param shortCodeFilter      The filter of existing short codes.
+     * @param resolutionCache      The cache of resolved short codes.
+     * @param databaseClient       The R2DBC client.
+     * @param jdbcTemplate         The JDBC template used to lease blocks of URL identifiers.
+     */
+    @Autowired
+    public ReactiveUrlService(UrlService urlService,
+                              AuthorizationService authorizationService,
+                              ShortUrlGenerator urlGenerator,
+                              UrlDeduplicator deduplicator,
+                              ShortCodeFilter shortCodeFilter,
+                              UrlResolutionCache resolutionCache,
+                              DatabaseClient databaseClient,
+                              JdbcTemplate jdbcTemplate) {
+        this(urlService, authorizationService, urlGenerator, deduplicator, shortCodeFilter, resolutionCache,
+                databaseClient, new SequenceBlockAllocator(jdbcTemplate, "url_shortener", "urls_id_seq"));
+    }
+
+    ReactiveUrlService(UrlService urlService,
+                       AuthorizationService authorizationService,
+                       ShortUrlGenerator urlGenerator,
+                       UrlDeduplicator deduplicator,
+                       ShortCodeFilter shortCodeFilter,
+                       UrlResolutionCache resolutionCache,
+                       DatabaseClient databaseClient,
+                       SequenceBlockAllocator idAllocator) {
+        this.urlService = urlService;
+        this.authorizationService = authorizationService;
+        this.urlGenerator = urlGenerator;
+        this.deduplicator = deduplicator;
+        this.shortCodeFilter = shortCodeFilter;
+        this.resolutionCache = resolutionCache;
+        this.databaseClient = databaseClient;
+        this.idAllocator = idAllocator;
+    }
+
+    /**
+     * Resolves a short code and records a visit if it is active.
+     *
+     * @param code The short code.
+     * @return A Mono emitting the {@link UrlResolution} of the code.
+     */
+    public Mono<UrlResolution> resolve(String code) {
+        if (code == null || code.isEmpty()) {
+            return Mono.just(UrlResolution.NOT_FOUND);
+        }
+
+        CachedUrl cachedUrl = resolutionCache.getIfPresent(code);
+
+        if (cachedUrl != null) {
+            return Mono.just(urlService.resolve(code, cachedUrl));
+        }
+
+        if (shortCodeFilter.isDefinitelyAbsent(code)) {
+            return Mono.just(UrlResolution.NOT_FOUND);
+        }
+
+        long stamp = resolutionCache.stamp();
+        return databaseClient.sql(FIND_SQL)
+                .bind(0, code)
+                .map((row, metadata) -> new CachedUrl(
+                        row.get("id", Long.class),
+                        row.get("long_url", String.class),
+                        row.get("expires_at", LocalDateTime.class),
+                        row.get("user_id", Long.class)))
+                .one()
+                .defaultIfEmpty(CachedUrl.MISSING)
+                .doOnNext(found -> resolutionCache.put(code, found, stamp))
+                .map(found -> urlService.resolve(code, found));
+    }
+
+    /**
+     * Creates a short URL for the long URL of the request.
+     *
+     * @param request The URL request containing the long URL, the expiration date and the authorization header.
+     * @return A Mono emitting the `UrlResponse` with the short URL, or a failed response with the matching status.
+     */
+    public Mono<UrlResponse> create(UrlRequest request) {
+        return Mono.fromCallable(() -> prepare(request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(prepared -> prepared.url() == null ? Mono.just(prepared.response()) : insert(prepared.url()));
+    }
+
+    /**
+     * Runs the blocking steps of a creation: authentication, validation, deduplication and code generation.
+     */
+    private Prepared prepare(UrlRequest request) {
+        Optional<User> userOptional = authorizationService.getAuthorizedUser(request.getAuthorizationHeader());
+
+        if (userOptional.isEmpty()) {
+            return Prepared.rejected(UrlResponse.failed(NOT_AUTHENTICATED_MESSAGE, HttpStatus.UNAUTHORIZED));
+        }
+
+        Optional<UrlResponse> invalid = urlService.validateCreation(request);
+
+        if (invalid.isPresent()) {
+            return Prepared.rejected(invalid.get());
+        }
+
+        User user = userOptional.get();
+        long longUrlHash = deduplicator.hash(request.getUrl());
+        Optional<Url> existing = deduplicator.findExisting(user.getId(), request.getUrl(), longUrlHash,
+                request.getExpiresAt());
+
+        if (existing.isPresent()) {
+            Url url = existing.get();
+            return Prepared.rejected(UrlResponse.success(url.getShortUrl(), url.getLongUrl(), url.getCreatedAt(),
+                    url.getExpiresAt(), user.getUsername(), URL_ALREADY_EXISTS_MESSAGE, HttpStatus.OK));
+        }
+
+        return new Prepared(null, new NewUrl(idAllocator.nextValue(), urlGenerator.generateShortUrl(),
+                request.getUrl(), longUrlHash, request.getExpiresAt(), user));
+    }
+
+    private Mono<UrlResponse> insert(NewUrl url) {
+        shortCodeFilter.add(url.shortUrl());
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(INSERT_SQL)
+                .bind(0, url.id())
+                .bind(1, url.longUrl())
+                .bind(2, url.shortUrl());
+        insert = url.expiresAt() == null
+                ? insert.bindNull(3, LocalDateTime.class)
+                : insert.bind(3, url.expiresAt());
+
+        return insert.bind(4, url.user().getId())
+                .bind(5, url.longUrlHash())
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> {
+                    resolutionCache.invalidate(url.shortUrl());
+                    deduplicator.recordCreated(url.user().getId(), url.longUrlHash());
+                    return UrlResponse.success(url.shortUrl(), url.longUrl(), LocalDateTime.now(), url.expiresAt(),
+                            url.user().getUsername(), URL_CREATED_MESSAGE, HttpStatus.CREATED);
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to save short url {}", url.shortUrl(), e);
+                    return Mono.just(UrlResponse.failed(URL_NOT_SAVED_MESSAGE, HttpStatus.INTERNAL_SERVER_ERROR));
+                });
+    }
+
+    /**
+     * Outcome of the blocking steps: either a response ending the request or a URL to insert.
+     */
+    private record Prepared(UrlResponse response, NewUrl url) {
+
+        private static Prepared rejected(UrlResponse response) {
+            return new Prepared(response, null);
+        }
+    }
+
+    private record NewUrl(long id, String shortUrl, String longUrl, long longUrlHash, LocalDateTime expiresAt,
+                          User user) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.goit.url_shortener.v2;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Configuration of the R2DBC connection pool used by version 2 of the API.
+ *
+ * <p> Active only with {@code url.v2.enabled=true}. The pool connects to the database of the JDBC data source
+ * unless {@code url.v2.r2dbc.url} is set, with the same credentials. Since no thread waits for a query,
+ * a pool of {@code url.v2.r2dbc.pool-size} connections serves many more concurrent requests than the
+ * same number of JDBC connections. </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "url.v2.enabled", havingValue = "true")
+public class V2Configuration {
+
+    private static final String JDBC_PREFIX = "jdbc:";
+
+    /**
+     * Creates the connection pool.
+     *
+     * @param r2dbcUrl The R2DBC URL, or an empty string to derive it from the JDBC URL.
+     * @param jdbcUrl  The JDBC URL of the data source.
+     * @param username The database user.
+     * @param password The database password.
+     * @param poolSize The maximum number of connections.
+     * @return The connection pool.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool v2ConnectionPool(@Value("${url.v2.r2dbc.url:}") String r2dbcUrl,
+                                           @Value("${spring.datasource.url:}") String jdbcUrl,
+                                           @Value("${spring.datasource.username:}") String username,
+                                           @Value("${spring.datasource.password:}") String password,
+                                           @Value("${url.v2.r2dbc.pool-size:20}") int poolSize) {
+        String url = r2dbcUrl.isBlank() ? toR2dbcUrl(jdbcUrl) : r2dbcUrl;
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(poolSize)
+                .build());
+    }
+
+    /**
+     * Creates the client used to run the queries of version 2.
+     *
+     * @param connectionPool The connection pool.
+     * @return The database client.
+     */
+    @Bean
+    public DatabaseClient v2DatabaseClient(ConnectionPool connectionPool) {
+        return DatabaseClient.create(connectionPool);
+    }
+
+    /**
+     * Converts a JDBC URL such as {@code jdbc:postgresql://db:5432/shortener_db?param=value} into the
+     * R2DBC URL of the same database. Driver parameters are dropped, since they differ between drivers.
+     *
+     * @param jdbcUrl The JDBC URL.
+     * @return The R2DBC URL.
+     * @throws IllegalStateException if the JDBC URL is missing or not a JDBC URL.
+     */
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith(JDBC_PREFIX)) {
+            throw new IllegalStateException("Set url.v2.r2dbc.url, the JDBC URL cannot be converted: " + jdbcUrl);
+        }
+        String url = "r2dbc:" + jdbcUrl.substring(JDBC_PREFIX.length());
+        int query = url.indexOf('?');
+        return query < 0 ? url : url.substring(0, query);
+    }
+}
@@ -1,5 +1,6 @@
 package com.goit.url_shortener.v2;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -13,9 +14,12 @@ import java.util.Map;
  * This controller provides endpoints specific to version 2, which might include features or information
  * related to ongoing development or planned improvements. The response format for all the version 2 endpoints
  * follows a similar structure, returning a `Map` containing a key-value message.
+ *
+ * It is replaced by {@link V2UrlController} when version 2 is enabled with {@code url.v2.enabled=true}.
  */
 @RestController
 @RequestMapping("/api/v2/")
+@ConditionalOnProperty(name = "url.v2.enabled", havingValue = "false", matchIfMissing = true)
 public class V2Controller {
 
     /**
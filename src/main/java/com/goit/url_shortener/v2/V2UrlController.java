@@ -0,0 +1,65 @@
+package com.goit.url_shortener.v2;
+
+import com.goit.url_shortener.url.RedirectController;
+import com.goit.url_shortener.url.dto.UrlRequest;
+import com.goit.url_shortener.url.dto.UrlResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST Controller of version 2 of the API, serving redirects and URL creation without blocking request threads.
+ *
+ * <p> Active only with {@code url.v2.enabled=true}; otherwise {@link V2Controller} answers all version 2 requests.
+ * The handlers return a {@link Mono}, so the servlet thread is released while the database is queried
+ * through {@link ReactiveUrlService} and the response is written when the query completes. </p>
+ *
+ * <p> Redirects are answered exactly like {@code GET /{code}} of {@link RedirectController}, with the same
+ * status, caching headers and click recording. </p>
+ */
+@RestController
+@RequestMapping("/api/v2/")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "url.v2.enabled", havingValue = "true")
+public class V2UrlController {
+
+    private final ReactiveUrlService reactiveUrlService;
+    private final RedirectController redirectController;
+
+    /**
+     * Endpoint to shorten a long URL.
+     *
+     * @param request The request body containing the long URL and an optional expiration date.
+     * @param header  The "Authorization" header used for authentication. Default is an empty string.
+     * @return A Mono emitting the `ResponseEntity` with the `UrlResponse` and its status.
+     */
+    @PostMapping(path = {"/url", "/url/"})
+    public Mono<ResponseEntity<UrlResponse>> shorten(@RequestBody UrlRequest request,
+                                                     @RequestHeader(value = "Authorization", defaultValue = "")
+                                                     String header) {
+        request.setAuthorizationHeader(header);
+        return reactiveUrlService.create(request)
+                .map(response -> ResponseEntity.status(response.getStatus()).body(response));
+    }
+
+    /**
+     * Endpoint redirecting a short code to its long URL.
+     *
+     * @param code    The short code taken from the path.
+     * @param request The request, whose headers and client address are recorded as a click.
+     * @return A Mono emitting an empty `ResponseEntity` with the redirect status and `Location` header,
+     *         or with the 404 or 410 status if the code is unknown or expired.
+     */
+    @GetMapping(path = "/r/{code:[a-zA-Z0-9]+}")
+    public Mono<ResponseEntity<Void>> redirect(@PathVariable("code") String code, HttpServletRequest request) {
+        String referrer = request.getHeader(HttpHeaders.REFERER);
+        String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+        String remoteAddress = request.getRemoteAddr();
+        return reactiveUrlService.resolve(code)
+                .map(resolution -> redirectController.respond(resolution, referrer, userAgent, remoteAddress));
+    }
+}
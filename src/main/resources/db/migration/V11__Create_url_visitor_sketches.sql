@@ -0,0 +1,7 @@
+-- HyperLogLog sketches of the distinct visitors of each URL, written by UniqueVisitorCounter.
+CREATE TABLE IF NOT EXISTS url_shortener.url_visitor_sketches
+(
+    url_id BIGINT PRIMARY KEY,
+    sketch BYTEA NOT NULL,
+    FOREIGN KEY (url_id) REFERENCES url_shortener.urls (id) ON DELETE CASCADE
+);
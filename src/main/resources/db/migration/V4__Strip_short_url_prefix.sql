@@ -0,0 +1,3 @@
+UPDATE url_shortener.urls
+SET short_url = substring(short_url FROM 9)
+WHERE short_url LIKE 'https://%';
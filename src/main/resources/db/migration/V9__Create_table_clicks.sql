@@ -0,0 +1,14 @@
+-- Append-only click events, partitioned by month. Monthly partitions are created ahead of time by the
+-- application; the default partition only catches clicks of months without a partition.
+CREATE TABLE IF NOT EXISTS url_shortener.clicks
+(
+    url_id      BIGINT      NOT NULL,
+    clicked_at  TIMESTAMP   NOT NULL,
+    referrer    VARCHAR(255),
+    agent_class VARCHAR(16) NOT NULL,
+    country     CHAR(2)
+) PARTITION BY RANGE (clicked_at);
+
+CREATE TABLE IF NOT EXISTS url_shortener.clicks_default PARTITION OF url_shortener.clicks DEFAULT;
+
+CREATE INDEX idx_clicks_url_id_clicked_at ON url_shortener.clicks (url_id, clicked_at);
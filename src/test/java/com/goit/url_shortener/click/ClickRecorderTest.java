@@ -0,0 +1,114 @@
+package com.goit.url_shortener.click;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ClickRecorder class.
+ *
+ * The tests verify that recorded clicks are classified and written in batches,
+ * and that clicks are dropped and counted when the buffer is full or a write fails.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ClickRecorderTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private GeoIpResolver geoIpResolver;
+
+    /**
+     * Test to ensure that buffered clicks are written in batches with their derived attributes.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlush_WritesBatches() {
+        when(geoIpResolver.country("192.0.2.1")).thenReturn("DE");
+        ClickRecorder recorder = new ClickRecorder(jdbcTemplate, geoIpResolver, true, 16, 2);
+
+        recorder.record(1L, "https://news.example.org/article?id=1",
+                "Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) Mobile/15E148", "192.0.2.1");
+        recorder.record(1L, null, "Googlebot/2.1 (+http://www.google.com/bot.html)", null);
+        recorder.record(2L, null, null, null);
+        recorder.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), rows.capture(), any(int[].class));
+        Object[] first = rows.getAllValues().get(0).get(0);
+        assertEquals(1L, first[0]);
+        assertEquals("news.example.org", first[2]);
+        assertEquals(UserAgentClass.MOBILE.name(), first[3]);
+        assertEquals("DE", first[4]);
+        assertEquals(UserAgentClass.BOT.name(), rows.getAllValues().get(0).get(1)[3]);
+        assertEquals(UserAgentClass.UNKNOWN.name(), rows.getAllValues().get(1).get(0)[3]);
+        assertEquals(3, recorder.written());
+        assertEquals(0, recorder.pending());
+    }
+
+    /**
+     * Test to ensure that clicks are dropped instead of blocking when the buffer is full.
+     */
+    @Test
+    public void testRecord_DropsWhenFull() {
+        ClickRecorder recorder = new ClickRecorder(jdbcTemplate, geoIpResolver, true, 2, 10);
+
+        for (int i = 0; i < 5; i++) {
+            recorder.record(1L, null, null, null);
+        }
+
+        assertEquals(2, recorder.pending());
+        assertEquals(3, recorder.dropped());
+    }
+
+    /**
+     * Test to ensure that a failed write drops its batch and is counted.
+     */
+    @Test
+    public void testFlush_WriteFailed() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+        ClickRecorder recorder = new ClickRecorder(jdbcTemplate, geoIpResolver, true, 16, 10);
+
+        recorder.record(1L, null, null, null);
+        recorder.flush();
+
+        assertEquals(1, recorder.failedWrites());
+        assertEquals(1, recorder.dropped());
+        assertEquals(0, recorder.written());
+    }
+
+    /**
+     * Test to ensure that user agents are classified into coarse classes.
+     */
+    @Test
+    public void testUserAgentClass() {
+        assertEquals(UserAgentClass.DESKTOP,
+                UserAgentClass.of("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 Chrome/120.0"));
+        assertEquals(UserAgentClass.MOBILE, UserAgentClass.of("Mozilla/5.0 (Linux; Android 14) Mobile Safari"));
+        assertEquals(UserAgentClass.BOT, UserAgentClass.of("curl/8.4.0"));
+        assertEquals(UserAgentClass.OTHER, UserAgentClass.of("SomeClient/1.0"));
+        assertEquals(UserAgentClass.UNKNOWN, UserAgentClass.of(" "));
+    }
+
+    /**
+     * Test to ensure that only the host of a referrer is kept.
+     */
+    @Test
+    public void testReferrerHost() {
+        assertEquals("example.com", ClickRecorder.referrerHost("https://example.com/path?q=1"));
+        assertNull(ClickRecorder.referrerHost("not a uri"));
+        assertNull(ClickRecorder.referrerHost(null));
+    }
+}
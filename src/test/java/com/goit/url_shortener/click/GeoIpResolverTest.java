@@ -0,0 +1,64 @@
+package com.goit.url_shortener.click;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the GeoIpResolver class.
+ *
+ * The tests verify that addresses are resolved to the country of the range containing them,
+ * in both supported range formats, and that unknown addresses are not resolved.
+ */
+public class GeoIpResolverTest {
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * Test to ensure that addresses are resolved with ranges given as dotted addresses or decimal values.
+     */
+    @Test
+    public void testCountry_Ranges() throws Exception {
+        Path file = directory.resolve("geoip.csv");
+        Files.writeString(file, """
+                "16777216","16777471","AU","Australia"
+                192.0.2.0,192.0.2.255,DE
+                "0","16777215","-","-"
+                not,a,range
+                """);
+
+        GeoIpResolver resolver = new GeoIpResolver(file.toString());
+
+        assertEquals("AU", resolver.country("1.0.0.7"));
+        assertEquals("DE", resolver.country("192.0.2.200"));
+        assertNull(resolver.country("192.0.3.1"));
+        assertNull(resolver.country("0.0.0.1"));
+        assertNull(resolver.country("2001:db8::1"));
+        assertNull(resolver.country(null));
+    }
+
+    /**
+     * Test to ensure that nothing is resolved without a file.
+     */
+    @Test
+    public void testCountry_NoFile() throws Exception {
+        assertNull(new GeoIpResolver("").country("1.0.0.7"));
+    }
+
+    /**
+     * Test to ensure that only well-formed IPv4 addresses are parsed.
+     */
+    @Test
+    public void testParseIpv4() {
+        assertEquals(0xC0000201L, GeoIpResolver.parseIpv4("192.0.2.1"));
+        assertEquals(-1, GeoIpResolver.parseIpv4("192.0.2"));
+        assertEquals(-1, GeoIpResolver.parseIpv4("192.0.2.256"));
+        assertEquals(-1, GeoIpResolver.parseIpv4("192..2.1"));
+        assertEquals(-1, GeoIpResolver.parseIpv4("192.0.2.1.5"));
+    }
+}
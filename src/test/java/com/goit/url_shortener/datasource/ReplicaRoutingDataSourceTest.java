@@ -0,0 +1,159 @@
+package com.goit.url_shortener.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ReplicaRoutingDataSource class.
+ *
+ * The tests verify that reads are spread over the usable replicas, that lagging and failing replicas
+ * are skipped with a fallback to the primary, and that only read-only transactions reach the replicas.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource firstReplica;
+
+    @Mock
+    private DataSource secondReplica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection firstConnection;
+
+    @Mock
+    private Connection secondConnection;
+
+    /**
+     * Test to ensure that connections are taken from the replicas in turn.
+     */
+    @Test
+    public void testGetConnection_RoundRobin() throws SQLException {
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary,
+                List.of(firstReplica, secondReplica), 1000, replica -> 0);
+
+        assertSame(firstConnection, dataSource.getConnection());
+        assertSame(secondConnection, dataSource.getConnection());
+        assertSame(firstConnection, dataSource.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    /**
+     * Test to ensure that a replica lagging more than allowed receives no reads until it catches up.
+     */
+    @Test
+    public void testGetConnection_SkipsLaggingReplica() throws SQLException {
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+        Map<DataSource, Long> lags = new HashMap<>(Map.of(firstReplica, 5000L, secondReplica, 0L));
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary,
+                List.of(firstReplica, secondReplica), 1000, lags::get);
+
+        dataSource.checkReplicas();
+
+        assertEquals(1, dataSource.usableReplicas());
+        assertEquals(5000, dataSource.lagMillis());
+        assertSame(secondConnection, dataSource.getConnection());
+        assertSame(secondConnection, dataSource.getConnection());
+
+        lags.put(firstReplica, 200L);
+        dataSource.checkReplicas();
+
+        assertEquals(2, dataSource.usableReplicas());
+        assertNotSame(dataSource.getConnection(), dataSource.getConnection());
+    }
+
+    /**
+     * Test to ensure that reads fall back to the primary when the replica fails, and that the replica
+     * receives reads again once a lag check succeeds.
+     */
+    @Test
+    public void testGetConnection_FallsBackToPrimary() throws SQLException {
+        when(firstReplica.getConnection()).thenThrow(new SQLException("Connection refused"))
+                .thenReturn(firstConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        boolean[] reachable = {false};
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, List.of(firstReplica), 1000,
+                replica -> {
+                    if (!reachable[0]) {
+                        throw new QueryTimeoutException("Connection refused");
+                    }
+                    return 0;
+                });
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertSame(primaryConnection, dataSource.getConnection());
+        verify(firstReplica, times(1)).getConnection();
+
+        dataSource.checkReplicas();
+        assertEquals(0, dataSource.usableReplicas());
+
+        reachable[0] = true;
+        dataSource.checkReplicas();
+
+        assertSame(firstConnection, dataSource.getConnection());
+        assertEquals(2, dataSource.fallbacks());
+    }
+
+    /**
+     * Test to ensure that read-only transactions use a replica and other transactions use the primary
+     * when the routing data source backs a {@link LazyConnectionDataSourceProxy}.
+     */
+    @Test
+    public void testTransactions_RoutedByReadOnlyFlag() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        ReplicaRoutingDataSource replicas = new ReplicaRoutingDataSource(primary, List.of(firstReplica), 1000,
+                replica -> 0);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(primary);
+        dataSource.setReadOnlyDataSource(replicas);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        readOnly.executeWithoutResult(status -> query(dataSource));
+        verify(firstConnection).createStatement();
+        verify(primary, never()).getConnection();
+
+        readWrite.executeWithoutResult(status -> query(dataSource));
+        verify(primaryConnection).createStatement();
+        verify(firstReplica, times(1)).getConnection();
+    }
+
+    private static void query(DataSource dataSource) {
+        try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
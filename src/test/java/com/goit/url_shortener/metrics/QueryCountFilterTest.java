@@ -0,0 +1,81 @@
+package com.goit.url_shortener.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the QueryCountFilter class.
+ *
+ * The tests verify that the statements prepared through the {@link QueryCountingDataSource} while a request
+ * is served are recorded under the URI pattern of the request, and that other statements are not counted.
+ */
+@ExtendWith(MockitoExtension.class)
+public class QueryCountFilterTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    /**
+     * Test to ensure that the statements of a request are counted and tagged with its method and URI pattern.
+     */
+    @Test
+    public void testDoFilter_CountsStatements() throws Exception {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        QueryCountingDataSource dataSource = new QueryCountingDataSource(targetDataSource);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/abc123");
+
+        FilterChain chain = (req, res) -> {
+            try (Connection c = dataSource.getConnection()) {
+                c.prepareStatement("SELECT 1");
+                c.prepareStatement("SELECT 2");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/{shortUrl}");
+        };
+
+        new QueryCountFilter(registry).doFilter(request, new MockHttpServletResponse(), chain);
+
+        DistributionSummary summary = registry.get("http.server.requests.queries")
+                .tags("method", "GET", "uri", "/{shortUrl}").summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+        verify(connection).close();
+    }
+
+    /**
+     * Test to ensure that statements prepared outside of a request are not counted by the next request.
+     */
+    @Test
+    public void testDoFilter_IgnoresStatementsOutsideRequests() throws Exception {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        QueryCountingDataSource dataSource = new QueryCountingDataSource(targetDataSource);
+        dataSource.getConnection().prepareStatement("SELECT 1");
+
+        new QueryCountFilter(registry).doFilter(new MockHttpServletRequest("GET", "/missing"),
+                new MockHttpServletResponse(), (req, res) -> { });
+
+        DistributionSummary summary = registry.get("http.server.requests.queries").tag("uri", "UNKNOWN").summary();
+        assertEquals(1, summary.count());
+        assertEquals(0, summary.totalAmount());
+    }
+}
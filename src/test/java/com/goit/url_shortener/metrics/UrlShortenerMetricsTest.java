@@ -0,0 +1,146 @@
+package com.goit.url_shortener.metrics;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.goit.url_shortener.click.ClickRecorder;
+import com.goit.url_shortener.datasource.ReplicaRoutingDataSource;
+import com.goit.url_shortener.security.AuthenticatedUserCache;
+import com.goit.url_shortener.security.JwtTokenProvider;
+import com.goit.url_shortener.statistics.ClickRollupJob;
+import com.goit.url_shortener.url.ExpiredUrlReaper;
+import com.goit.url_shortener.url.LongUrlValidator;
+import com.goit.url_shortener.url.ShortCodeFilter;
+import com.goit.url_shortener.url.ShortUrlGenerator;
+import com.goit.url_shortener.url.UniqueVisitorCounter;
+import com.goit.url_shortener.url.UrlCachePrewarmer;
+import com.goit.url_shortener.url.UrlDeduplicator;
+import com.goit.url_shortener.url.UrlResolutionCache;
+import com.goit.url_shortener.url.VisitCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the UrlShortenerMetrics class.
+ *
+ * The tests verify that the counters of the services are exported under their meter names
+ * and that cache statistics are split by result.
+ */
+@ExtendWith(MockitoExtension.class)
+public class UrlShortenerMetricsTest {
+
+    @Mock
+    private ShortUrlGenerator urlGenerator;
+
+    @Mock
+    private LongUrlValidator validator;
+
+    @Mock
+    private UrlResolutionCache resolutionCache;
+
+    @Mock
+    private UrlCachePrewarmer prewarmer;
+
+    @Mock
+    private AuthenticatedUserCache userCache;
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private UrlDeduplicator deduplicator;
+
+    @Mock
+    private ShortCodeFilter shortCodeFilter;
+
+    @Mock
+    private VisitCounter visitCounter;
+
+    @Mock
+    private UniqueVisitorCounter uniqueVisitorCounter;
+
+    @Mock
+    private ExpiredUrlReaper reaper;
+
+    @Mock
+    private ClickRecorder clickRecorder;
+
+    @Mock
+    private ClickRollupJob rollupJob;
+
+    @Mock
+    private ObjectProvider<ReplicaRoutingDataSource> replicaDataSource;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    public void setUp() {
+        new UrlShortenerMetrics(urlGenerator, validator, resolutionCache, prewarmer, userCache, tokenProvider,
+                deduplicator, shortCodeFilter, visitCounter, uniqueVisitorCounter, reaper, clickRecorder, rollupJob,
+                replicaDataSource)
+                .bindTo(registry);
+    }
+
+    /**
+     * Test to ensure that code generation retries and validation rejections are exported as counters.
+     */
+    @Test
+    public void testBindTo_RetriesAndRejections() {
+        when(urlGenerator.retries()).thenReturn(3L);
+        when(validator.rejected()).thenReturn(7L);
+
+        assertEquals(3, registry.get("url.code.retries").functionCounter().count());
+        assertEquals(7, registry.get("url.validation.rejected").functionCounter().count());
+    }
+
+    /**
+     * Test to ensure that cache lookups are exported by cache and result, so hit ratios can be computed.
+     */
+    @Test
+    public void testBindTo_CacheStatistics() {
+        when(resolutionCache.stats()).thenReturn(CacheStats.of(90, 10, 0, 0, 0, 4, 4));
+        when(resolutionCache.size()).thenReturn(25L);
+
+        assertEquals(90, registry.get("cache.gets").tags("cache", "url.resolution", "result", "hit")
+                .functionCounter().count());
+        assertEquals(10, registry.get("cache.gets").tags("cache", "url.resolution", "result", "miss")
+                .functionCounter().count());
+        assertEquals(4, registry.get("cache.evictions").tag("cache", "url.resolution").functionCounter().count());
+        assertEquals(25, registry.get("cache.size").tag("cache", "url.resolution").gauge().value());
+    }
+
+    /**
+     * Test to ensure that the verified token cache is exported like the other caches.
+     */
+    @Test
+    public void testBindTo_VerifiedTokenCache() {
+        when(tokenProvider.verificationCacheStats()).thenReturn(CacheStats.of(30, 70, 0, 0, 0, 2, 2));
+        when(tokenProvider.verificationCacheSize()).thenReturn(12L);
+
+        assertEquals(30, registry.get("cache.gets").tags("cache", "jwt.verified", "result", "hit")
+                .functionCounter().count());
+        assertEquals(70, registry.get("cache.gets").tags("cache", "jwt.verified", "result", "miss")
+                .functionCounter().count());
+        assertEquals(12, registry.get("cache.size").tag("cache", "jwt.verified").gauge().value());
+    }
+
+    /**
+     * Test to ensure that the rollup lag is measured from the watermark and is undefined before the first run.
+     */
+    @Test
+    public void testBindTo_RollupLag() {
+        when(rollupJob.watermark()).thenReturn(null, LocalDateTime.now().minusMinutes(2));
+
+        assertTrue(Double.isNaN(registry.get("click.rollup.lag").timeGauge().value(TimeUnit.SECONDS)));
+        assertEquals(120, registry.get("click.rollup.lag").timeGauge().value(TimeUnit.SECONDS), 5);
+    }
+}
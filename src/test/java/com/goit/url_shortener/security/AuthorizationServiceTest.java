@@ -0,0 +1,127 @@
+package com.goit.url_shortener.security;
+
+import com.goit.url_shortener.user.User;
+import com.goit.url_shortener.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the AuthorizationService class and its AuthenticatedUserCache.
+ *
+ * The tests verify that a valid token is resolved against the users table only once
+ * while it is cached, and that invalid or expired tokens are never cached.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AuthorizationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    private AuthenticatedUserCache userCache;
+
+    private AuthorizationService authorizationService;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        userCache = new AuthenticatedUserCache(100, 300);
+        authorizationService = new AuthorizationService(userRepository, tokenProvider, userCache);
+        user = new User(1L, "testUser", "testPassword", null);
+        lenient().when(tokenProvider.extractTokenFromHeader(anyString()))
+                .thenAnswer(invocation -> ((String) invocation.getArgument(0)).substring(7));
+    }
+
+    /**
+     * Test to ensure that the second request with the same token is served from the cache.
+     */
+    @Test
+    public void testGetAuthorizedUser_CachedAfterFirstLookup() {
+        when(tokenProvider.verify("token")).thenReturn(Optional.of(principal()));
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+
+        Optional<User> first = authorizationService.getAuthorizedUser("Bearer token");
+        Optional<User> second = authorizationService.getAuthorizedUser("Bearer token");
+
+        assertTrue(first.isPresent());
+        assertTrue(second.isPresent());
+        assertEquals(1L, second.get().getId());
+        assertEquals("testUser", second.get().getUsername());
+        assertNull(second.get().getPassword());
+        verify(userRepository, times(1)).findByUsername("testUser");
+        verify(tokenProvider, times(1)).verify("token");
+        assertEquals(1, userCache.stats().hitCount());
+    }
+
+    /**
+     * Test to ensure that invalid tokens are neither resolved nor cached.
+     */
+    @Test
+    public void testGetAuthorizedUser_InvalidToken() {
+        when(tokenProvider.verify("token")).thenReturn(Optional.empty());
+
+        assertTrue(authorizationService.getAuthorizedUser("Bearer token").isEmpty());
+        assertTrue(authorizationService.getAuthorizedUser("Bearer token").isEmpty());
+
+        verify(userRepository, never()).findByUsername(anyString());
+        assertEquals(0, userCache.size());
+    }
+
+    /**
+     * Test to ensure that an invalidated user is looked up again.
+     */
+    @Test
+    public void testInvalidateUser() {
+        when(tokenProvider.verify("token")).thenReturn(Optional.of(principal()));
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+
+        authorizationService.getAuthorizedUser("Bearer token");
+        userCache.invalidateUser("testUser");
+        authorizationService.getAuthorizedUser("Bearer token");
+
+        verify(userRepository, times(2)).findByUsername("testUser");
+    }
+
+    /**
+     * Test to ensure that invalidating the whole cache drops every token.
+     */
+    @Test
+    public void testInvalidateAll() {
+        userCache.put("token", user, Instant.now().plusSeconds(60));
+        userCache.put("other", new User(2L, "otherUser", "otherPassword", null), Instant.now().plusSeconds(60));
+
+        userCache.invalidateAll();
+
+        assertNull(userCache.getIfPresent("token"));
+        assertNull(userCache.getIfPresent("other"));
+    }
+
+    /**
+     * Test to ensure that tokens that have already expired are not cached.
+     */
+    @Test
+    public void testExpiredTokenNotCached() {
+        userCache.put("token", user, Instant.now().minusSeconds(1));
+
+        assertNull(userCache.getIfPresent("token"));
+    }
+
+    private static JwtPrincipal principal() {
+        Instant now = Instant.now();
+        return new JwtPrincipal("testUser", now, now.plus(1, ChronoUnit.HOURS));
+    }
+}
@@ -0,0 +1,100 @@
+package com.goit.url_shortener.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the JwtTokenProvider class.
+ *
+ * The tests verify that tokens are accepted only with a valid signature, subject and expiration,
+ * and that repeated verifications of the same token are served from the cache.
+ */
+public class JwtTokenProviderTest {
+
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider("testSecret", 100);
+
+    /**
+     * Test to ensure that a generated token is verified and its subject extracted.
+     */
+    @Test
+    public void testVerify_GeneratedToken() {
+        String token = tokenProvider.generateToken("testUser");
+
+        Optional<JwtPrincipal> principal = tokenProvider.verify(token);
+
+        assertTrue(principal.isPresent());
+        assertEquals("testUser", principal.get().subject());
+        assertTrue(principal.get().expiresAt().isAfter(Instant.now()));
+        assertEquals("testUser", tokenProvider.extractUsernameFromToken(token));
+    }
+
+    /**
+     * Test to ensure that a token signed with another secret is rejected.
+     */
+    @Test
+    public void testVerify_ForgedToken() {
+        String token = JWT.create()
+                .withSubject("testUser")
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60_000))
+                .sign(Algorithm.HMAC256("otherSecret"));
+
+        assertFalse(tokenProvider.validateToken(token));
+        assertEquals("", tokenProvider.extractUsernameFromToken(token));
+    }
+
+    /**
+     * Test to ensure that expired and malformed tokens are rejected.
+     */
+    @Test
+    public void testVerify_ExpiredOrMalformedToken() {
+        String expired = JWT.create()
+                .withSubject("testUser")
+                .withExpiresAt(new Date(System.currentTimeMillis() - 60_000))
+                .sign(Algorithm.HMAC256("testSecret"));
+
+        assertFalse(tokenProvider.validateToken(expired));
+        assertFalse(tokenProvider.validateToken("not.a.token"));
+        assertFalse(tokenProvider.validateToken(null));
+    }
+
+    /**
+     * Test to ensure that a token is verified only once while it is cached.
+     */
+    @Test
+    public void testVerify_Cached() {
+        String token = tokenProvider.generateToken("testUser");
+
+        tokenProvider.verify(token);
+        tokenProvider.verify(token);
+
+        assertEquals(1, tokenProvider.verificationCacheStats().hitCount());
+        assertEquals(1, tokenProvider.verificationCacheStats().missCount());
+    }
+
+    /**
+     * Test to ensure that only expired tokens with a valid signature are refreshed.
+     */
+    @Test
+    public void testRefreshToken() {
+        String expired = JWT.create()
+                .withSubject("testUser")
+                .withExpiresAt(new Date(System.currentTimeMillis() - 60_000))
+                .sign(Algorithm.HMAC256("testSecret"));
+        String forged = JWT.create()
+                .withSubject("testUser")
+                .withExpiresAt(new Date(System.currentTimeMillis() - 60_000))
+                .sign(Algorithm.HMAC256("otherSecret"));
+
+        String refreshed = tokenProvider.refreshToken(expired);
+
+        assertEquals("testUser", tokenProvider.extractUsernameFromToken(refreshed));
+        assertEquals("", tokenProvider.refreshToken(forged));
+    }
+}
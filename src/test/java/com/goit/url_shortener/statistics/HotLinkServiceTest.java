@@ -0,0 +1,90 @@
+package com.goit.url_shortener.statistics;
+
+import com.goit.url_shortener.security.AuthorizationService;
+import com.goit.url_shortener.url.HotLinkTracker;
+import com.goit.url_shortener.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.goit.url_shortener.util.MessageProvider.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the HotLinkService class.
+ *
+ * The tests verify that users see their own hot links, and that the links of all users
+ * are only reported to the configured users.
+ */
+@ExtendWith(MockitoExtension.class)
+public class HotLinkServiceTest {
+
+    @Mock
+    private AuthorizationService authorizationService;
+
+    @Mock
+    private HotLinkTracker hotLinkTracker;
+
+    private HotLinkService hotLinkService;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        hotLinkService = new HotLinkService(authorizationService, hotLinkTracker, 100, Set.of("admin"));
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+    }
+
+    /**
+     * Test to ensure that the links of the user are reported with their estimated visits.
+     */
+    @Test
+    public void testGetHotLinks_User() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+        when(hotLinkTracker.top(HotLinkTracker.Window.HOUR, 5, 1L)).thenReturn(List.of(
+                new HotLinkTracker.HotLinkCount(new HotLinkTracker.HotLink(7L, "abc123", 1L), 42, 2)));
+
+        HotLinksResponse response = hotLinkService.getHotLinks("Bearer validToken", "hour", 5, false);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals("hour", response.getWindow());
+        assertEquals(List.of(new HotLinkDto("abc123", 42, 2)), response.getLinks());
+    }
+
+    /**
+     * Test to ensure that the links of all users are not reported to other users.
+     */
+    @Test
+    public void testGetHotLinks_GlobalForbidden() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+
+        HotLinksResponse response = hotLinkService.getHotLinks("Bearer validToken", "minute", 10, true);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatus());
+        assertEquals(ACCESS_DENIED_MESSAGE, response.getMessage());
+        verifyNoInteractions(hotLinkTracker);
+    }
+
+    /**
+     * Test to ensure that unknown windows are rejected.
+     */
+    @Test
+    public void testGetHotLinks_InvalidWindow() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+
+        HotLinksResponse response = hotLinkService.getHotLinks("Bearer validToken", "day", 10, false);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatus());
+        assertEquals(INCORRECT_WINDOW_MESSAGE, response.getMessage());
+    }
+}
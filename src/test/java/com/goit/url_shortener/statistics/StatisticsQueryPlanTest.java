@@ -0,0 +1,335 @@
+package com.goit.url_shortener.statistics;
+
+import com.goit.url_shortener.url.Url;
+import com.goit.url_shortener.user.User;
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.JdbcSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regression tests for the query plans of the statistics queries.
+ *
+ * The schema is created by the Flyway migrations and filled with 200 000 URLs of 100 users, so the planner
+ * chooses as it would in production. The tests run the {@link StatisticsQueryRepositoryImpl} and the JPQL of
+ * the {@link StatisticsRepository} query methods on Hibernate, record the SQL it generates together with the
+ * bound parameters, and explain that statement to verify that the URLs of a user are read from the indexes
+ * on `urls.user_id` in the requested order, without a sort.
+ */
+public class StatisticsQueryPlanTest {
+
+    /**
+     * The plans depend on the planner, so the major version is pinned.
+     */
+    private static final String POSTGRES_IMAGE = "postgres:17";
+
+    private static final long USER_ID = 42;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    private static PostgreSQLContainer<?> postgreSQLContainer;
+
+    private static DataSource dataSource;
+
+    private static RecordingDataSource recordingDataSource;
+
+    private static SessionFactory sessionFactory;
+
+    private EntityManager entityManager;
+
+    private StatisticsQueryRepositoryImpl repository;
+
+    /**
+     * Starts the PostgreSQL container, applies the migrations, inserts the URLs, refreshes the statistics
+     * of the planner and builds a Hibernate session factory recording the statements it prepares.
+     */
+    @BeforeAll
+    static void setUp() {
+        postgreSQLContainer = new PostgreSQLContainer<>(POSTGRES_IMAGE)
+                .withDatabaseName("test_shortener_db")
+                .withUsername("test_user")
+                .withPassword("test_password");
+        postgreSQLContainer.start();
+
+        dataSource = new DriverManagerDataSource(postgreSQLContainer.getJdbcUrl(),
+                postgreSQLContainer.getUsername(), postgreSQLContainer.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas("url_shortener")
+                .placeholders(Map.of("short_code_block_size", "1000", "id_allocation_size", "50"))
+                .load()
+                .migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("""
+                INSERT INTO url_shortener.users (id, username, password)
+                SELECT i, 'user' || i, 'password' FROM generate_series(1, 100) i""");
+        jdbcTemplate.update("""
+                INSERT INTO url_shortener.urls (id, long_url, short_url, visits, created_at, expires_at, user_id)
+                SELECT i, 'http://example.com/' || i, 'code' || i, i % 50,
+                       TIMESTAMP '2025-01-01' + i * INTERVAL '1 minute',
+                       CASE WHEN i % 2 = 0 THEN TIMESTAMP '2026-01-01' + i * INTERVAL '1 minute' END,
+                       1 + i % 100
+                FROM generate_series(1, 200000) i""");
+        jdbcTemplate.execute("ANALYZE url_shortener.urls");
+
+        recordingDataSource = new RecordingDataSource(dataSource);
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(Url.class)
+                .addAnnotatedClass(User.class);
+        configuration.getProperties().put(JdbcSettings.JAKARTA_NON_JTA_DATASOURCE, recordingDataSource);
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sessionFactory.close();
+        postgreSQLContainer.stop();
+    }
+
+    @BeforeEach
+    void openEntityManager() {
+        entityManager = sessionFactory.createEntityManager();
+        repository = new StatisticsQueryRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+    }
+
+    @AfterEach
+    void closeEntityManager() {
+        entityManager.close();
+    }
+
+    /**
+     * Test to ensure that the default pages, ordered by id, are read from the id index of the user in order,
+     * both for the first page and after a cursor.
+     */
+    @Test
+    public void testDefaultPages() {
+        for (long afterId : new long[]{0, 44641}) {
+            entityManager.createQuery(repositoryQuery("findPageByUser"), StatsUrlDto.class)
+                    .setParameter("userId", USER_ID)
+                    .setParameter("activeOnly", true)
+                    .setParameter("now", NOW)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(51)
+                    .getResultList();
+            String plan = explain(recordingDataSource.lastStatement());
+
+            assertTrue(plan.contains("idx_urls_user_id_id"), plan);
+            assertFalse(plan.contains("Sort"), plan);
+        }
+    }
+
+    /**
+     * Test to ensure that the first page of active URLs sorted by descending creation date scans the
+     * creation date index backward.
+     */
+    @Test
+    public void testSortByCreatedDescending() {
+        repository.findFilteredPage(USER_ID, true, NOW, query("created", "desc", null, null), null, 51);
+        String plan = explain(recordingDataSource.lastStatement());
+
+        assertTrue(plan.contains("Index Scan Backward using idx_urls_user_id_created_at"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    /**
+     * Test to ensure that a following page starts the scan at the keyset cursor.
+     */
+    @Test
+    public void testSortByCreatedAfterCursor() {
+        repository.findFilteredPage(USER_ID, false, NOW, query("created", "asc", null, null), 44641L, 51);
+        String plan = explain(recordingDataSource.lastStatement());
+
+        assertTrue(plan.lines().anyMatch(line -> line.contains("Index Cond") && line.contains("created_at >=")),
+                plan);
+        assertTrue(plan.contains("idx_urls_user_id_created_at"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    /**
+     * Test to ensure that URLs sorted by expiration date are read from the expiration date index.
+     */
+    @Test
+    public void testSortByExpires() {
+        repository.findFilteredPage(USER_ID, false, NOW, query("expires", "asc", null, null), null, 51);
+        String plan = explain(recordingDataSource.lastStatement());
+
+        assertTrue(plan.contains("idx_urls_user_id_expires_at"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    /**
+     * Test to ensure that the unfiltered totals of the active URLs of a user only read the index entries of
+     * the user.
+     */
+    @Test
+    public void testTotals() {
+        entityManager.createQuery(repositoryQuery("findTotals"), StatsTotals.class)
+                .setParameter("userId", USER_ID)
+                .setParameter("activeOnly", true)
+                .setParameter("now", NOW)
+                .getSingleResult();
+        String plan = explain(recordingDataSource.lastStatement());
+
+        assertTrue(plan.contains("idx_urls_user_id"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    /**
+     * Test to ensure that the totals of a creation date range only read the matching index entries.
+     */
+    @Test
+    public void testTotalsOfCreatedRange() {
+        repository.findFilteredTotals(USER_ID, false, NOW, query("id", "asc",
+                LocalDateTime.of(2025, 2, 1, 0, 0), LocalDateTime.of(2025, 2, 15, 0, 0)));
+        String plan = explain(recordingDataSource.lastStatement());
+
+        assertTrue(plan.contains("idx_urls_user_id_created_at"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    /**
+     * Returns the JPQL of a query method of the {@link StatisticsRepository}, as run by Spring Data.
+     */
+    private static String repositoryQuery(String methodName) {
+        return Arrays.stream(StatisticsRepository.class.getMethods())
+                .filter(method -> method.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow()
+                .getAnnotation(Query.class)
+                .value();
+    }
+
+    private static StatsQuery query(String sort, String order, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        return new StatsQuery(sort, order, createdFrom, createdTo, null, null);
+    }
+
+    /**
+     * Explains the recorded statement with the parameters it was executed with.
+     */
+    private static String explain(RecordedStatement statement) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+            statement.bind(explain);
+            List<String> plan = new ArrayList<>();
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    plan.add(rs.getString(1));
+                }
+            }
+            return String.join("\n", plan);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not explain " + statement.sql(), e);
+        }
+    }
+
+    /**
+     * A statement prepared by Hibernate and the calls binding its parameters.
+     */
+    private record RecordedStatement(String sql, List<Binding> bindings) {
+
+        void bind(PreparedStatement statement) throws SQLException {
+            for (Binding binding : bindings) {
+                try {
+                    binding.method().invoke(statement, binding.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Could not bind " + binding.method().getName(), e);
+                }
+            }
+        }
+    }
+
+    private record Binding(Method method, Object[] args) {
+    }
+
+    /**
+     * Data source recording the statements prepared on its connections and the parameters bound to them.
+     */
+    private static final class RecordingDataSource extends DelegatingDataSource {
+
+        private volatile RecordedStatement lastStatement;
+
+        RecordingDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        RecordedStatement lastStatement() {
+            return lastStatement;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return proxy(Connection.class, (method, args) -> {
+                Object result = method.invoke(connection, args);
+                if (method.getName().equals("prepareStatement")) {
+                    RecordedStatement recorded = new RecordedStatement((String) args[0], new ArrayList<>());
+                    lastStatement = recorded;
+                    return recording((PreparedStatement) result, recorded);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement recording(PreparedStatement statement, RecordedStatement recorded) {
+            return proxy(PreparedStatement.class, (method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && method.getParameterTypes()[0] == int.class) {
+                    recorded.bindings().add(new Binding(method, args.clone()));
+                }
+                return method.invoke(statement, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, Invocation invocation) {
+            return type.cast(Proxy.newProxyInstance(StatisticsQueryPlanTest.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> {
+                            try {
+                                yield invocation.invoke(method, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                        }
+                    }));
+        }
+    }
+
+    private interface Invocation {
+
+        Object invoke(Method method, Object[] args) throws Exception;
+    }
+}
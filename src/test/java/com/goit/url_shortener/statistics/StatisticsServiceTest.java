@@ -0,0 +1,235 @@
+package com.goit.url_shortener.statistics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.goit.url_shortener.security.AuthorizationService;
+import com.goit.url_shortener.url.UniqueVisitorCounter;
+import com.goit.url_shortener.url.UrlRepository;
+import com.goit.url_shortener.url.VisitCounter;
+import com.goit.url_shortener.url.dto.UrlRequest;
+import com.goit.url_shortener.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.goit.url_shortener.util.MessageProvider.INCORRECT_STATS_QUERY_MESSAGE;
+import static com.goit.url_shortener.util.MessageProvider.URL_LIST_EMPTY_MESSAGE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the StatisticsService class.
+ *
+ * The tests verify that URL lists are served from the statistics projections, that totals are taken
+ * from the database aggregate, that pages carry the cursor of the next page, and that sorted or
+ * filtered lists are served by the query fragment of the repository.
+ */
+@ExtendWith(MockitoExtension.class)
+public class StatisticsServiceTest {
+
+    @Mock
+    private UrlRepository urlRepository;
+
+    @Mock
+    private AuthorizationService authorizationService;
+
+    @Mock
+    private VisitCounter visitCounter;
+
+    @Mock
+    private UniqueVisitorCounter uniqueVisitorCounter;
+
+    @Mock
+    private StatisticsRepository statisticsRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private StatisticsService statisticsService;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        statisticsService = new StatisticsService(urlRepository, authorizationService, visitCounter,
+                uniqueVisitorCounter, statisticsRepository, objectMapper, 2);
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+    }
+
+    /**
+     * Test to ensure that the unpaginated list uses the aggregated visit total
+     * and carries the estimated unique visitors of each URL.
+     */
+    @Test
+    public void testGetAllUrlsByUser() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+        when(statisticsRepository.findTotals(eq(1L), eq(false), any())).thenReturn(new StatsTotals(2L, 15L));
+        when(statisticsRepository.findAllByUser(eq(1L), eq(false), any())).thenReturn(List.of(dto(1L), dto(2L)));
+        when(uniqueVisitorCounter.estimates(List.of(1L, 2L))).thenReturn(Map.of(1L, 4L, 2L, 0L));
+
+        StatisticsResponse response = statisticsService.getAllUrlsByUser(request());
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(15L, response.getVisits());
+        assertEquals(2, response.getUrls().size());
+        assertEquals(4L, response.getUrls().get(0).getUniqueVisitors());
+        assertEquals(0L, response.getUrls().get(1).getUniqueVisitors());
+        assertNull(response.getNextCursor());
+    }
+
+    /**
+     * Test to ensure that a user without matching URLs gets a not found response.
+     */
+    @Test
+    public void testGetActiveUrlsByUser_Empty() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+        when(statisticsRepository.findTotals(eq(1L), eq(true), any())).thenReturn(new StatsTotals(0L, 0L));
+
+        StatisticsResponse response = statisticsService.getActiveUrlsByUser(request());
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatus());
+        assertEquals(URL_LIST_EMPTY_MESSAGE, response.getMessage());
+        verify(statisticsRepository, never()).findAllByUser(any(), eq(true), any());
+    }
+
+    /**
+     * Test to ensure that a full page returns the id of its last URL as the next cursor
+     * and that the page size is capped.
+     */
+    @Test
+    public void testGetAllUrlsByUser_Page() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+        when(statisticsRepository.findTotals(eq(1L), eq(false), any())).thenReturn(new StatsTotals(5L, 40L));
+        when(statisticsRepository.findPageByUser(eq(1L), eq(false), any(), eq(7L), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(dto(8L), dto(9L), dto(10L)));
+
+        StatisticsResponse response = statisticsService.getAllUrlsByUser(request(), 7L, 50);
+
+        assertEquals(2, response.getUrls().size());
+        assertEquals(9L, response.getNextCursor());
+        assertEquals(40L, response.getVisits());
+    }
+
+    /**
+     * Test to ensure that the last page has no next cursor.
+     */
+    @Test
+    public void testGetAllUrlsByUser_LastPage() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+        when(statisticsRepository.findTotals(eq(1L), eq(false), any())).thenReturn(new StatsTotals(1L, 3L));
+        when(statisticsRepository.findPageByUser(eq(1L), eq(false), any(), eq(0L), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(dto(1L)));
+
+        StatisticsResponse response = statisticsService.getAllUrlsByUser(request(), null, 2);
+
+        assertEquals(1, response.getUrls().size());
+        assertNull(response.getNextCursor());
+    }
+
+    /**
+     * Test to ensure that a sorted and filtered page is served by the query fragment with the filtered totals.
+     */
+    @Test
+    public void testGetActiveUrlsByUser_SortedAndFiltered() {
+        StatsQuery query = new StatsQuery("created", "desc", LocalDateTime.of(2025, 1, 1, 0, 0), null, null, null);
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+        when(statisticsRepository.findFilteredTotals(eq(1L), eq(true), any(), eq(query)))
+                .thenReturn(new StatsTotals(3L, 12L));
+        when(statisticsRepository.findFilteredPage(eq(1L), eq(true), any(), eq(query), eq(9L), eq(3)))
+                .thenReturn(List.of(dto(8L), dto(5L), dto(7L)));
+
+        StatisticsResponse response = statisticsService.getActiveUrlsByUser(request(), 9L, 2, query);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(12L, response.getVisits());
+        assertEquals(2, response.getUrls().size());
+        assertEquals(5L, response.getNextCursor());
+        verify(statisticsRepository, never()).findTotals(any(), eq(true), any());
+    }
+
+    /**
+     * Test to ensure that the totals of URLs sorted by expiration date leave out the URLs that never expire,
+     * like the listed page.
+     */
+    @Test
+    public void testGetAllUrlsByUser_SortedByExpiration() {
+        StatsQuery query = new StatsQuery("expires", "asc", null, null, null, null);
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+        when(statisticsRepository.findFilteredTotals(eq(1L), eq(false), any(), eq(query)))
+                .thenReturn(new StatsTotals(1L, 4L));
+        when(statisticsRepository.findFilteredPage(eq(1L), eq(false), any(), eq(query), eq(null), eq(null)))
+                .thenReturn(List.of(dto(7L)));
+
+        StatisticsResponse response = statisticsService.getAllUrlsByUser(request(), null, null, query);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(4L, response.getVisits());
+        assertEquals(1, response.getUrls().size());
+        verify(statisticsRepository, never()).findTotals(any(), eq(false), any());
+    }
+
+    /**
+     * Test to ensure that an unknown sort key or an empty range is rejected before querying.
+     */
+    @Test
+    public void testGetAllUrlsByUser_InvalidQuery() {
+        LocalDateTime now = LocalDateTime.now();
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+
+        StatisticsResponse unknownSort = statisticsService.getAllUrlsByUser(request(), null, null,
+                new StatsQuery("visits", "asc", null, null, null, null));
+        StatisticsResponse emptyRange = statisticsService.getAllUrlsByUser(request(), null, null,
+                new StatsQuery("id", "asc", now, now, null, null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, unknownSort.getStatus());
+        assertEquals(INCORRECT_STATS_QUERY_MESSAGE, unknownSort.getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST, emptyRange.getStatus());
+        verifyNoInteractions(statisticsRepository);
+    }
+
+    /**
+     * Test to ensure that streamed URLs are written as one JSON object per line without the internal id.
+     */
+    @Test
+    public void testStreamUrlsByUser() throws Exception {
+        when(statisticsRepository.streamAllByUser(eq(1L), eq(false), any())).thenReturn(Stream.of(dto(1L), dto(2L)));
+        when(uniqueVisitorCounter.estimates(List.of(1L, 2L))).thenReturn(Map.of(1L, 3L, 2L, 1L));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        statisticsService.streamUrlsByUser(user, false, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertFalse(lines[0].contains("\"id\""));
+        assertEquals("short1", objectMapper.readTree(lines[0]).get("shortUrl").asText());
+        assertEquals(3L, objectMapper.readTree(lines[0]).get("uniqueVisitors").asLong());
+    }
+
+    private static UrlRequest request() {
+        UrlRequest request = new UrlRequest();
+        request.setAuthorizationHeader("Bearer validToken");
+        return request;
+    }
+
+    private static StatsUrlDto dto(long id) {
+        return new StatsUrlDto(id, "short" + id, "http://example.com", 1, true, LocalDateTime.now(), null);
+    }
+}
@@ -0,0 +1,144 @@
+package com.goit.url_shortener.statistics;
+
+import com.goit.url_shortener.security.AuthorizationService;
+import com.goit.url_shortener.url.Url;
+import com.goit.url_shortener.url.UrlRepository;
+import com.goit.url_shortener.url.dto.UrlRequest;
+import com.goit.url_shortener.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static com.goit.url_shortener.util.MessageProvider.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the TimeSeriesService class.
+ *
+ * The tests verify that series are read from the rollups of the requested URL or user,
+ * that empty buckets are filled with zero visits, and that invalid ranges are rejected.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TimeSeriesServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 1, 4, 0, 0);
+
+    @Mock
+    private UrlRepository urlRepository;
+
+    @Mock
+    private AuthorizationService authorizationService;
+
+    @Mock
+    private ClickRollupRepository rollupRepository;
+
+    private TimeSeriesService timeSeriesService;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        timeSeriesService = new TimeSeriesService(urlRepository, authorizationService, rollupRepository, 48);
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+    }
+
+    /**
+     * Test to ensure that the series of all URLs of the user has one point per day, including empty days.
+     */
+    @Test
+    public void testGetTimeSeries_User() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+        when(rollupRepository.findUserSeries(1L, RollupGranularity.DAY, FROM, TO))
+                .thenReturn(List.of(new TimeSeriesPoint(FROM.plusDays(1), 5)));
+
+        TimeSeriesResponse response = timeSeriesService.getTimeSeries(request(null), "day", FROM, TO);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(5, response.getVisits());
+        assertEquals(List.of(new TimeSeriesPoint(FROM, 0), new TimeSeriesPoint(FROM.plusDays(1), 5),
+                new TimeSeriesPoint(FROM.plusDays(2), 0)), response.getPoints());
+    }
+
+    /**
+     * Test to ensure that the series of a URL is read from its rollups and the range is aligned to whole buckets.
+     */
+    @Test
+    public void testGetTimeSeries_Url() {
+        Url url = Url.builder().id(7L).shortUrl("abc123").user(user).build();
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+        when(urlRepository.findUrlByShortUrl("abc123")).thenReturn(Optional.of(url));
+        when(rollupRepository.findUrlSeries(7L, RollupGranularity.HOUR, FROM, FROM.plusHours(3)))
+                .thenReturn(List.of(new TimeSeriesPoint(FROM, 2)));
+
+        TimeSeriesResponse response = timeSeriesService.getTimeSeries(request("abc123"), "HOUR",
+                FROM.plusMinutes(10), FROM.plusHours(2).plusMinutes(5));
+
+        assertEquals(FROM, response.getFrom());
+        assertEquals(FROM.plusHours(3), response.getTo());
+        assertEquals(3, response.getPoints().size());
+        assertEquals(2, response.getVisits());
+    }
+
+    /**
+     * Test to ensure that URLs of other users are reported as not found.
+     */
+    @Test
+    public void testGetTimeSeries_OtherUsersUrl() {
+        User other = new User();
+        other.setId(2L);
+        Url url = Url.builder().id(7L).shortUrl("abc123").user(other).build();
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+        when(urlRepository.findUrlByShortUrl("abc123")).thenReturn(Optional.of(url));
+
+        TimeSeriesResponse response = timeSeriesService.getTimeSeries(request("abc123"), "day", FROM, TO);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatus());
+        verifyNoInteractions(rollupRepository);
+    }
+
+    /**
+     * Test to ensure that unknown granularities, reversed ranges and too many buckets are rejected.
+     */
+    @Test
+    public void testGetTimeSeries_InvalidParameters() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+
+        assertEquals(INCORRECT_GRANULARITY_MESSAGE,
+                timeSeriesService.getTimeSeries(request(null), "week", FROM, TO).getMessage());
+        assertEquals(INCORRECT_TIME_RANGE_MESSAGE,
+                timeSeriesService.getTimeSeries(request(null), "day", TO, FROM).getMessage());
+        assertEquals(generateTooManyBucketsMessage(48),
+                timeSeriesService.getTimeSeries(request(null), "hour", FROM, TO).getMessage());
+        verifyNoInteractions(rollupRepository);
+    }
+
+    /**
+     * Test to ensure that unauthenticated requests are rejected.
+     */
+    @Test
+    public void testGetTimeSeries_Unauthorized() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.empty());
+
+        TimeSeriesResponse response = timeSeriesService.getTimeSeries(request(null), "day", FROM, TO);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatus());
+    }
+
+    private static UrlRequest request(String shortUrl) {
+        UrlRequest request = new UrlRequest();
+        request.setUrl(shortUrl);
+        request.setAuthorizationHeader("Bearer validToken");
+        return request;
+    }
+}
@@ -0,0 +1,200 @@
+package com.goit.url_shortener.url;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.goit.url_shortener.security.AuthorizationService;
+import com.goit.url_shortener.url.code.SequenceBlockAllocator;
+import com.goit.url_shortener.url.dto.BulkUrlResponse;
+import com.goit.url_shortener.url.dto.BulkUrlResult;
+import com.goit.url_shortener.url.dto.UrlRequest;
+import com.goit.url_shortener.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static com.goit.url_shortener.util.MessageProvider.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the BulkUrlService class.
+ *
+ * The tests verify that a bulk request is authenticated once, that every URL gets its own result
+ * in request order, and that valid URLs are stored with a single batch insert per chunk.
+ */
+@ExtendWith(MockitoExtension.class)
+public class BulkUrlServiceTest {
+
+    @Mock
+    private AuthorizationService authorizationService;
+
+    @Mock
+    private LongUrlValidator validator;
+
+    @Mock
+    private ShortUrlGenerator urlGenerator;
+
+    @Mock
+    private UrlResolutionCache resolutionCache;
+
+    @Mock
+    private UrlDeduplicator deduplicator;
+
+    @Mock
+    private ShortCodeFilter shortCodeFilter;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SequenceBlockAllocator idAllocator;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private BulkUrlService bulkUrlService;
+
+    @BeforeEach
+    public void setUp() {
+        bulkUrlService = new BulkUrlService(authorizationService, validator, urlGenerator, resolutionCache,
+                deduplicator, shortCodeFilter, jdbcTemplate, transactionManager, objectMapper, idAllocator, 2, 3);
+    }
+
+    /**
+     * Test to ensure that an unauthenticated bulk request is rejected as a whole.
+     */
+    @Test
+    public void testShortenAll_Unauthorized() {
+        when(authorizationService.getAuthorizedUser("Bearer invalidToken")).thenReturn(Optional.empty());
+
+        BulkUrlResponse response = bulkUrlService.shortenAll(List.of(request("http://example.com")),
+                "Bearer invalidToken");
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatus());
+        assertEquals(NOT_AUTHENTICATED_MESSAGE, response.getMessage());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    /**
+     * Test to ensure that requests with more URLs than allowed are rejected.
+     */
+    @Test
+    public void testShortenAll_TooManyUrls() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user()));
+
+        List<UrlRequest> requests = Collections.nCopies(4, request("http://example.com"));
+        BulkUrlResponse response = bulkUrlService.shortenAll(requests, "Bearer validToken");
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatus());
+        assertEquals(generateTooManyUrlsMessage(3), response.getMessage());
+    }
+
+    /**
+     * Test to ensure that valid URLs are created and invalid ones are reported without failing the request.
+     */
+    @Test
+    public void testShortenAll_MixedResults() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user()));
+        when(validator.isValid("http://example.com")).thenReturn(true);
+        when(validator.isValid("invalid")).thenReturn(false);
+        when(urlGenerator.generateShortUrls(1)).thenReturn(List.of("abc123"), List.of("def456"));
+        when(idAllocator.nextValue()).thenReturn(10L, 11L);
+
+        List<UrlRequest> requests = List.of(request("http://example.com"), request("invalid"),
+                request("http://example.com"));
+
+        BulkUrlResponse response = bulkUrlService.shortenAll(requests, "Bearer validToken");
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        List<BulkUrlResult> results = response.getResults();
+        assertEquals(3, results.size());
+        assertEquals("abc123", results.get(0).getShortUrl());
+        assertEquals(HttpStatus.CREATED.value(), results.get(0).getStatus());
+        assertEquals(INCORRECT_URL_MESSAGE, results.get(1).getMessage());
+        assertEquals(HttpStatus.BAD_REQUEST.value(), results.get(1).getStatus());
+        assertEquals(2, results.get(2).getIndex());
+        assertEquals("def456", results.get(2).getShortUrl());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), any(int[].class));
+        verify(resolutionCache).invalidate("abc123");
+        verify(resolutionCache).invalidate("def456");
+        verify(deduplicator, times(2)).recordCreated(eq(1L), anyLong());
+    }
+
+    /**
+     * Test to ensure that a failed batch insert is reported for every URL of the chunk.
+     */
+    @Test
+    public void testShortenAll_InsertFailed() {
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user()));
+        when(validator.isValid("http://example.com")).thenReturn(true);
+        when(urlGenerator.generateShortUrls(1)).thenReturn(List.of("abc123"));
+        when(idAllocator.nextValue()).thenReturn(10L);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        BulkUrlResponse response = bulkUrlService.shortenAll(List.of(request("http://example.com")),
+                "Bearer validToken");
+
+        BulkUrlResult result = response.getResults().get(0);
+        assertEquals(URL_NOT_SAVED_MESSAGE, result.getMessage());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), result.getStatus());
+        verify(resolutionCache, never()).invalidate(any(String[].class));
+    }
+
+    /**
+     * Test to ensure that NDJSON input produces one result line per input line, including malformed ones.
+     */
+    @Test
+    public void testShortenStream() throws Exception {
+        when(validator.isValid("http://example.com")).thenReturn(true);
+        when(urlGenerator.generateShortUrls(anyInt())).thenReturn(List.of("abc123"), List.of("def456"));
+        when(idAllocator.nextValue()).thenReturn(10L, 11L);
+
+        String input = """
+                {"url":"http://example.com"}
+                not json
+
+                {"url":"http://example.com"}
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        bulkUrlService.shortenStream(user(), new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        BulkUrlResult malformed = objectMapper.readValue(lines[1], BulkUrlResult.class);
+        assertEquals(MALFORMED_REQUEST_MESSAGE, malformed.getMessage());
+        BulkUrlResult last = objectMapper.readValue(lines[2], BulkUrlResult.class);
+        assertEquals(2, last.getIndex());
+        assertEquals("def456", last.getShortUrl());
+    }
+
+    private static UrlRequest request(String url) {
+        UrlRequest request = new UrlRequest();
+        request.setUrl(url);
+        return request;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+        return user;
+    }
+}
@@ -0,0 +1,84 @@
+package com.goit.url_shortener.url;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ExpiredUrlReaper class.
+ *
+ * The tests verify that expired URLs are removed batch by batch until a batch is not full,
+ * that removed short URLs are evicted from the resolution cache, and that archiving switches the statement.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ExpiredUrlReaperTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UrlResolutionCache resolutionCache;
+
+    /**
+     * Test to ensure that batches are deleted until a batch removes fewer URLs than the batch size.
+     */
+    @Test
+    public void testReap_Batches() {
+        when(jdbcTemplate.queryForList(startsWith("DELETE"), eq(String.class), any(), eq(2)))
+                .thenReturn(List.of("abc123", "def456"), List.of("ghi789"));
+
+        ExpiredUrlReaper reaper = reaper(false);
+        reaper.reap();
+
+        assertEquals(3, reaper.reaped());
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(String.class), any(), eq(2));
+        verify(resolutionCache).invalidate("abc123", "def456");
+        verify(resolutionCache).invalidate("ghi789");
+    }
+
+    /**
+     * Test to ensure that archiving copies the removed URLs within the same statement.
+     */
+    @Test
+    public void testReap_Archive() {
+        when(jdbcTemplate.queryForList(startsWith("WITH removed"), eq(String.class), any(), eq(2)))
+                .thenReturn(List.of());
+
+        ExpiredUrlReaper reaper = reaper(true);
+        reaper.reap();
+
+        assertEquals(0, reaper.reaped());
+        verifyNoInteractions(resolutionCache);
+    }
+
+    /**
+     * Test to ensure that a failed batch ends the run without propagating the exception.
+     */
+    @Test
+    public void testReap_Failure() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), eq(2)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        ExpiredUrlReaper reaper = reaper(false);
+
+        assertDoesNotThrow(reaper::reap);
+        assertEquals(0, reaper.reaped());
+    }
+
+    private ExpiredUrlReaper reaper(boolean archive) {
+        return new ExpiredUrlReaper(jdbcTemplate, transactionManager, resolutionCache, true, archive, 168, 2, 10);
+    }
+}
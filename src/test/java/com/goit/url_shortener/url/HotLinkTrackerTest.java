@@ -0,0 +1,75 @@
+package com.goit.url_shortener.url;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the HotLinkTracker class.
+ *
+ * The tests verify that links are ranked by visits, filtered by owner,
+ * and forgotten once their visits have left the window.
+ */
+public class HotLinkTrackerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final HotLinkTracker tracker = new HotLinkTracker(true, 16, 2, now::get);
+
+    /**
+     * Test to ensure that links are ordered by descending visits and limited.
+     */
+    @Test
+    public void testTop_Ranking() {
+        visit(1L, "aaa", 10L, 3);
+        visit(2L, "bbb", 10L, 5);
+        visit(3L, "ccc", 20L, 1);
+
+        List<HotLinkTracker.HotLinkCount> top = tracker.top(HotLinkTracker.Window.MINUTE, 2, null);
+
+        assertEquals(2, top.size());
+        assertEquals("bbb", top.get(0).link().shortUrl());
+        assertEquals(5, top.get(0).visits());
+        assertEquals("aaa", top.get(1).link().shortUrl());
+    }
+
+    /**
+     * Test to ensure that only the links of the requested owner are reported.
+     */
+    @Test
+    public void testTop_ByUser() {
+        visit(1L, "aaa", 10L, 3);
+        visit(3L, "ccc", 20L, 1);
+
+        List<HotLinkTracker.HotLinkCount> top = tracker.top(HotLinkTracker.Window.HOUR, 10, 20L);
+
+        assertEquals(1, top.size());
+        assertEquals("ccc", top.get(0).link().shortUrl());
+    }
+
+    /**
+     * Test to ensure that visits leave the minute window but stay in the hour window.
+     */
+    @Test
+    public void testTop_Expiry() {
+        visit(1L, "aaa", 10L, 3);
+        now.addAndGet(90_000);
+        visit(2L, "bbb", 10L, 1);
+
+        List<HotLinkTracker.HotLinkCount> minute = tracker.top(HotLinkTracker.Window.MINUTE, 10, null);
+        List<HotLinkTracker.HotLinkCount> hour = tracker.top(HotLinkTracker.Window.HOUR, 10, null);
+
+        assertEquals(1, minute.size());
+        assertEquals("bbb", minute.get(0).link().shortUrl());
+        assertEquals(2, hour.size());
+        assertEquals("aaa", hour.get(0).link().shortUrl());
+    }
+
+    private void visit(Long urlId, String shortUrl, Long userId, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(urlId, shortUrl, userId);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.goit.url_shortener.url;
+
+import com.goit.url_shortener.click.ClickRecorder;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the RedirectController class.
+ *
+ * This class contains test cases to verify that short codes are redirected to their long URLs
+ * and that unknown or expired codes are answered with the corresponding status.
+ */
+public class RedirectControllerTest {
+
+    private final UrlService urlService = Mockito.mock(UrlService.class);
+    private final ClickRecorder clickRecorder = Mockito.mock(ClickRecorder.class);
+    private final UniqueVisitorCounter uniqueVisitorCounter = Mockito.mock(UniqueVisitorCounter.class);
+    private final RedirectController redirectController = new RedirectController(urlService, clickRecorder,
+            uniqueVisitorCounter, 302, 60);
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    /**
+     * Tests the redirect of an active short code.
+     *
+     * <p> This test verifies that the response carries the configured redirect status,
+     * the long URL in the `Location` header and no body.
+     */
+    @Test
+    public void testRedirect_Success() {
+        when(urlService.resolve("abc123"))
+                .thenReturn(UrlResolution.found(new CachedUrl(1L, "http://example.com", null, 1L)));
+        request.addHeader(HttpHeaders.USER_AGENT, "Mozilla/5.0");
+        request.setRemoteAddr("192.0.2.1");
+
+        ResponseEntity<Void> responseEntity = redirectController.redirect("abc123", request);
+
+        assertEquals(HttpStatus.FOUND, responseEntity.getStatusCode());
+        assertEquals("http://example.com", responseEntity.getHeaders().getFirst(HttpHeaders.LOCATION));
+        assertEquals("max-age=60", responseEntity.getHeaders().getCacheControl());
+        assertNull(responseEntity.getBody());
+        verify(clickRecorder).record(1L, null, "Mozilla/5.0", "192.0.2.1");
+        verify(uniqueVisitorCounter).record(1L, "192.0.2.1", "Mozilla/5.0");
+    }
+
+    /**
+     * Tests that the cache lifetime of a redirect does not exceed the expiration date of the short URL.
+     */
+    @Test
+    public void testRedirect_CacheControlLimitedByExpiration() {
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(30);
+        when(urlService.resolve("abc123"))
+                .thenReturn(UrlResolution.found(new CachedUrl(1L, "http://example.com", expiresAt, 1L)));
+
+        ResponseEntity<Void> responseEntity = redirectController.redirect("abc123", request);
+
+        String cacheControl = responseEntity.getHeaders().getCacheControl();
+        assertNotNull(cacheControl);
+        long maxAge = Long.parseLong(cacheControl.substring("max-age=".length()));
+        assertTrue(maxAge <= 30, "Redirect must not be cached beyond the expiration date.");
+    }
+
+    /**
+     * Tests that unknown short codes are answered with `NOT_FOUND`.
+     */
+    @Test
+    public void testRedirect_NotFound() {
+        when(urlService.resolve("unknown")).thenReturn(UrlResolution.NOT_FOUND);
+
+        ResponseEntity<Void> responseEntity = redirectController.redirect("unknown", request);
+
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+        assertNull(responseEntity.getHeaders().getLocation());
+        verify(clickRecorder, never()).record(any(), any(), any(), any());
+        verify(uniqueVisitorCounter, never()).record(any(), any(), any());
+    }
+
+    /**
+     * Tests that expired short codes are answered with `GONE`.
+     */
+    @Test
+    public void testRedirect_Expired() {
+        when(urlService.resolve("expired")).thenReturn(UrlResolution.GONE);
+
+        ResponseEntity<Void> responseEntity = redirectController.redirect("expired", request);
+
+        assertEquals(HttpStatus.GONE, responseEntity.getStatusCode());
+    }
+
+    /**
+     * Tests that only redirect statuses can be configured.
+     */
+    @Test
+    public void testUnsupportedRedirectStatus() {
+        assertThrows(IllegalArgumentException.class, () -> new RedirectController(urlService, clickRecorder,
+                uniqueVisitorCounter, 200, 60));
+    }
+}
@@ -0,0 +1,79 @@
+package com.goit.url_shortener.url;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ShortCodeFilter class.
+ *
+ * The tests verify that nothing is rejected before the filter is loaded, and that loaded and newly added
+ * codes are never rejected while unknown codes are.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ShortCodeFilterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Test to ensure that no code is rejected before the filter has been loaded.
+     */
+    @Test
+    public void testIsDefinitelyAbsent_NotLoaded() {
+        ShortCodeFilter filter = new ShortCodeFilter(jdbcTemplate, transactionManager, true, 1000, 0.01);
+
+        assertFalse(filter.isDefinitelyAbsent("abc123"));
+        assertEquals(0, filter.memoryBytes());
+    }
+
+    /**
+     * Test to ensure that stored and added codes pass the filter and unknown codes are rejected.
+     */
+    @Test
+    public void testIsDefinitelyAbsent_Loaded() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString(1)).thenReturn("abc123");
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        ShortCodeFilter filter = new ShortCodeFilter(jdbcTemplate, transactionManager, true, 1000, 0.01);
+        filter.rebuild();
+        filter.add("def456");
+
+        assertFalse(filter.isDefinitelyAbsent("abc123"));
+        assertFalse(filter.isDefinitelyAbsent("def456"));
+        assertTrue(filter.isDefinitelyAbsent("zzz999"));
+        assertEquals(1, filter.rejected());
+        assertTrue(filter.memoryBytes() > 0);
+    }
+
+    /**
+     * Test to ensure that a disabled filter is never loaded.
+     */
+    @Test
+    public void testRebuild_Disabled() {
+        ShortCodeFilter filter = new ShortCodeFilter(jdbcTemplate, transactionManager, false, 1000, 0.01);
+
+        filter.rebuild();
+
+        assertFalse(filter.isDefinitelyAbsent("abc123"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
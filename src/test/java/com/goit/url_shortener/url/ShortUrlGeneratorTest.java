@@ -5,7 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit tests for the `ShortUrlGenerator` class.
@@ -40,12 +40,22 @@ public class ShortUrlGeneratorTest {
     private ShortUrlGenerator shortUrlGenerator;
 
     /**
-     * Test to ensure that the generated short URL starts with "https://".
+     * Test to ensure that the generated short URL is stored without the legacy "https://" prefix.
      */
     @Test
-    public void testGenerateShortUrl_StartsWithHttps() {
+    public void testGenerateShortUrl_WithoutPrefix() {
         String shortUrl = shortUrlGenerator.generateShortUrl();
-        assertTrue(shortUrl.startsWith("https://"), "Generated URL should start with 'https://'");
+        assertFalse(shortUrl.startsWith("https://"), "Generated URL should not start with 'https://'");
+    }
+
+    /**
+     * Test to ensure that short URLs sent with the legacy prefix are converted into codes.
+     */
+    @Test
+    public void testToCode() {
+        assertEquals("abc123", ShortUrlGenerator.toCode("https://abc123"));
+        assertEquals("abc123", ShortUrlGenerator.toCode("abc123"));
+        assertNull(ShortUrlGenerator.toCode(null));
     }
 
     /**
@@ -53,8 +63,7 @@ public class ShortUrlGeneratorTest {
      */
     @Test
     public void testGenerateShortUrl_Length() {
-        String shortUrl = shortUrlGenerator.generateShortUrl();
-        String actualShortUrl = shortUrl.replace("https://", "");
+        String actualShortUrl = shortUrlGenerator.generateShortUrl();
 
         assertTrue(actualShortUrl.length() >= MIN_SHORT_URL_LENGTH &&
                         actualShortUrl.length() <= MAX_SHORT_URL_LENGTH,
@@ -68,7 +77,7 @@ public class ShortUrlGeneratorTest {
     @Test
     public void testGenerateShortUrl_ValidCharacters() {
         String shortUrl = shortUrlGenerator.generateShortUrl();
-        for (char c : shortUrl.substring(8).toCharArray()) {
+        for (char c : shortUrl.toCharArray()) {
             assertTrue(isValidCharacter(c), "Character in the short URL should be valid.");
         }
     }
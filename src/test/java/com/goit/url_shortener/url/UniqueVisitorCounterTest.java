@@ -0,0 +1,116 @@
+package com.goit.url_shortener.url;
+
+import com.goit.url_shortener.util.HyperLogLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the UniqueVisitorCounter class.
+ *
+ * The tests verify that repeated visits of the same client count once, that pending sketches are merged
+ * into the stored ones on flush, and that sketches of a failed flush are kept for the next one.
+ */
+@ExtendWith(MockitoExtension.class)
+public class UniqueVisitorCounterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Test to ensure that estimates include pending visitors and count each client once.
+     */
+    @Test
+    public void testEstimates_Pending() {
+        UniqueVisitorCounter counter = new UniqueVisitorCounter(jdbcTemplate, transactionManager, true, 500);
+
+        counter.record(1L, "192.0.2.1", "Mozilla/5.0");
+        counter.record(1L, "192.0.2.1", "Mozilla/5.0");
+        counter.record(1L, "192.0.2.2", "Mozilla/5.0");
+        counter.record(1L, "192.0.2.1", "curl/8.0");
+
+        Map<Long, Long> estimates = counter.estimates(List.of(1L, 2L));
+
+        assertEquals(3L, estimates.get(1L));
+        assertEquals(0L, estimates.get(2L));
+    }
+
+    /**
+     * Test to ensure that flushing merges the pending sketch into the stored one and clears it.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlush_MergesStoredSketch() throws Exception {
+        HyperLogLog stored = new HyperLogLog(UniqueVisitorCounter.PRECISION);
+        stored.add(UniqueVisitorCounter.fingerprint("192.0.2.9", "Mozilla/5.0"));
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(1L);
+        when(row.getBytes(2)).thenReturn(stored.toBytes());
+        doAnswer(invocation -> {
+            invocation.getArgument(2, RowCallbackHandler.class).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(contains("FOR UPDATE"), any(PreparedStatementSetter.class),
+                any(RowCallbackHandler.class));
+
+        UniqueVisitorCounter counter = new UniqueVisitorCounter(jdbcTemplate, transactionManager, true, 500);
+        counter.record(1L, "192.0.2.1", "Mozilla/5.0");
+        counter.record(1L, "192.0.2.2", "Mozilla/5.0");
+        counter.flush();
+
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE"), updates.capture());
+        assertEquals(1, updates.getValue().size());
+        assertEquals(1L, updates.getValue().get(0)[1]);
+        assertEquals(3, HyperLogLog.fromBytes((byte[]) updates.getValue().get(0)[0]).estimate());
+        assertEquals(0, counter.pendingUrls());
+        assertEquals(1, counter.flushedUrls());
+    }
+
+    /**
+     * Test to ensure that the sketches of a failed flush stay pending.
+     */
+    @Test
+    public void testFlush_Failure() {
+        when(jdbcTemplate.update(startsWith("INSERT"), any(PreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        UniqueVisitorCounter counter = new UniqueVisitorCounter(jdbcTemplate, transactionManager, true, 500);
+        counter.record(1L, "192.0.2.1", "Mozilla/5.0");
+        counter.flush();
+
+        assertEquals(1, counter.pendingUrls());
+        assertEquals(1, counter.failedFlushes());
+    }
+
+    /**
+     * Test to ensure that a disabled counter neither records visits nor queries the database.
+     */
+    @Test
+    public void testDisabled() {
+        UniqueVisitorCounter counter = new UniqueVisitorCounter(jdbcTemplate, transactionManager, false, 500);
+
+        counter.record(1L, "192.0.2.1", "Mozilla/5.0");
+
+        assertTrue(counter.estimates(List.of(1L)).isEmpty());
+        assertEquals(0, counter.pendingUrls());
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,119 @@
+package com.goit.url_shortener.url;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the UrlCachePrewarmer class.
+ *
+ * The tests verify that streamed URLs are cached with their resolution data, and that a failed or
+ * disabled prewarming leaves the cache empty without failing the startup.
+ */
+@ExtendWith(MockitoExtension.class)
+public class UrlCachePrewarmerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final UrlResolutionCache resolutionCache = new UrlResolutionCache(100, 600, 30);
+
+    /**
+     * Test to ensure that the most visited URLs are loaded into the cache.
+     */
+    @Test
+    public void testPrewarm() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getString(1)).thenReturn("abc123");
+        when(resultSet.getLong(2)).thenReturn(10L);
+        when(resultSet.getString(3)).thenReturn("http://example.com");
+        when(resultSet.getObject(4, LocalDateTime.class)).thenReturn(null);
+        when(resultSet.getLong(5)).thenReturn(1L);
+        doAnswer(invocation -> invocation.getArgument(1, ResultSetExtractor.class).extractData(resultSet))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class));
+
+        UrlCachePrewarmer prewarmer = new UrlCachePrewarmer(resolutionCache, jdbcTemplate, transactionManager,
+                true, 100, 0, 5000);
+        prewarmer.prewarm();
+
+        assertEquals(new CachedUrl(10L, "http://example.com", null, 1L), resolutionCache.getIfPresent("abc123"));
+        assertEquals(1, prewarmer.prewarmed());
+    }
+
+    /**
+     * Test to ensure that URLs are streamed into the cache until the time budget is used up, and that the
+     * startup then continues with the URLs loaded so far.
+     */
+    @Test
+    public void testPrewarm_StopsAtTimeBudget() throws Exception {
+        AtomicInteger rows = new AtomicInteger();
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenAnswer(invocation -> {
+            Thread.sleep(1);
+            rows.incrementAndGet();
+            return true;
+        });
+        when(resultSet.getString(1)).thenAnswer(invocation -> "code" + rows.get());
+        doAnswer(invocation -> invocation.getArgument(1, ResultSetExtractor.class).extractData(resultSet))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class));
+
+        UrlCachePrewarmer prewarmer = new UrlCachePrewarmer(resolutionCache, jdbcTemplate, transactionManager,
+                true, 1_000_000, 0, 200);
+        long start = System.nanoTime();
+        prewarmer.prewarm();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 2_000, "prewarming took " + elapsedMillis + " ms");
+        assertTrue(prewarmer.prewarmed() > 0);
+        assertTrue(resolutionCache.size() > 0);
+    }
+
+    /**
+     * Test to ensure that a failed query is logged and does not fail the startup.
+     */
+    @Test
+    public void testPrewarm_QueryFailed() {
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class)))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        UrlCachePrewarmer prewarmer = new UrlCachePrewarmer(resolutionCache, jdbcTemplate, transactionManager,
+                true, 100, 100, 5000);
+
+        assertDoesNotThrow(prewarmer::prewarm);
+        assertEquals(0, prewarmer.prewarmed());
+        assertEquals(0, resolutionCache.size());
+        verify(jdbcTemplate, times(2)).query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class));
+    }
+
+    /**
+     * Test to ensure that a disabled prewarmer does not query the database.
+     */
+    @Test
+    public void testPrewarm_Disabled() {
+        UrlCachePrewarmer prewarmer = new UrlCachePrewarmer(resolutionCache, jdbcTemplate, transactionManager,
+                false, 100, 100, 5000);
+
+        prewarmer.prewarm();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
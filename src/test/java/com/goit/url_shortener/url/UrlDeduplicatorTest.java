@@ -0,0 +1,109 @@
+package com.goit.url_shortener.url;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the UrlDeduplicator class.
+ *
+ * The tests verify that equivalent long URLs share a hash, that only live URLs with the same
+ * expiration date are reused, and that the Bloom filter spares lookups of URLs never stored.
+ */
+@ExtendWith(MockitoExtension.class)
+public class UrlDeduplicatorTest {
+
+    @Mock
+    private UrlRepository urlRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final LongUrlValidator validator = new LongUrlValidator();
+
+    private UrlDeduplicator deduplicator;
+
+    @BeforeEach
+    public void setUp() {
+        deduplicator = new UrlDeduplicator(urlRepository, validator, jdbcTemplate, true, 1000, 0.01);
+    }
+
+    /**
+     * Test to ensure that long URLs with the same canonical form have the same hash.
+     */
+    @Test
+    public void testHash_EquivalentUrls() {
+        assertEquals(deduplicator.hash("http://example.com"), deduplicator.hash("HTTP://Example.COM:80/"));
+        assertNotEquals(deduplicator.hash("http://example.com/a"), deduplicator.hash("http://example.com/b"));
+    }
+
+    /**
+     * Test to ensure that a live URL with the same canonical long URL and expiration date is found.
+     */
+    @Test
+    public void testFindExisting_Match() {
+        long hash = deduplicator.hash("http://example.com/");
+        Url stored = Url.builder().shortUrl("abc123").longUrl("http://example.com/").build();
+        when(urlRepository.findAllByUser_IdAndLongUrlHash(1L, hash)).thenReturn(List.of(stored));
+
+        Optional<Url> existing = deduplicator.findExisting(1L, "http://EXAMPLE.com", hash, null);
+
+        assertEquals(Optional.of(stored), existing);
+        assertEquals(1, deduplicator.matches());
+    }
+
+    /**
+     * Test to ensure that expired URLs and URLs with another expiration date are not reused.
+     */
+    @Test
+    public void testFindExisting_DifferentExpiration() {
+        long hash = deduplicator.hash("http://example.com/");
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        Url expired = Url.builder().longUrl("http://example.com/").expiresAt(LocalDateTime.now().minusDays(1)).build();
+        Url later = Url.builder().longUrl("http://example.com/").expiresAt(tomorrow.plusDays(1)).build();
+        when(urlRepository.findAllByUser_IdAndLongUrlHash(1L, hash)).thenReturn(List.of(expired, later));
+
+        assertTrue(deduplicator.findExisting(1L, "http://example.com/", hash, tomorrow).isEmpty());
+    }
+
+    /**
+     * Test to ensure that no lookup is made for a URL missing from a loaded Bloom filter,
+     * while URLs created after the load are still looked up.
+     */
+    @Test
+    public void testFindExisting_BloomFilter() {
+        long hash = deduplicator.hash("http://example.com/");
+        deduplicator.rebuild();
+
+        assertTrue(deduplicator.findExisting(1L, "http://example.com/", hash, null).isEmpty());
+        verifyNoInteractions(urlRepository);
+        assertEquals(1, deduplicator.skippedLookups());
+
+        deduplicator.recordCreated(1L, hash);
+        deduplicator.findExisting(1L, "http://example.com/", hash, null);
+
+        verify(urlRepository).findAllByUser_IdAndLongUrlHash(1L, hash);
+    }
+
+    /**
+     * Test to ensure that nothing is looked up when deduplication is disabled.
+     */
+    @Test
+    public void testFindExisting_Disabled() {
+        UrlDeduplicator disabled = new UrlDeduplicator(urlRepository, validator, jdbcTemplate, false, 1000, 0.01);
+
+        assertTrue(disabled.findExisting(1L, "http://example.com/", 42L, null).isEmpty());
+        verifyNoInteractions(urlRepository);
+    }
+}
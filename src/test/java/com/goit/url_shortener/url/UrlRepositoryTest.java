@@ -91,6 +91,27 @@ public class UrlRepositoryTest {
         assertTrue(result.isEmpty());
     }
 
+    /**
+     * Test for the `findResolutionByShortUrl` method in `UrlRepository`.
+     * This test verifies that the projection holds the resolution data of the URL and its owner.
+     */
+    @Test
+    public void testFindResolutionByShortUrl_Success() {
+        Url url = new Url();
+        url.setUser(testUser);
+        url.setShortUrl("shortUrl123");
+        url.setLongUrl("http://example.com");
+        urlRepository.save(url);
+
+        Optional<CachedUrl> result = urlRepository.findResolutionByShortUrl("shortUrl123");
+
+        assertTrue(result.isPresent());
+        assertEquals(url.getId(), result.get().id());
+        assertEquals("http://example.com", result.get().longUrl());
+        assertEquals(testUser.getId(), result.get().userId());
+        assertTrue(urlRepository.findResolutionByShortUrl("nonExistentUrl").isEmpty());
+    }
+
     /**
      * Test for the `findAllUrlsByUsername` method in `UrlRepository`.
      * This test verifies the behavior when URLs are fetched based on a username from the database.
@@ -0,0 +1,102 @@
+package com.goit.url_shortener.url;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the `UrlResolutionCache` class.
+ */
+public class UrlResolutionCacheTest {
+
+    private final UrlResolutionCache cache = new UrlResolutionCache(100, 600, 30);
+
+    /**
+     * Test to ensure that a stored resolution is returned for its short URL.
+     */
+    @Test
+    public void testPutAndGet() {
+        CachedUrl cachedUrl = new CachedUrl(1L, "http://example.com", null, 1L);
+        cache.put("abc123", cachedUrl);
+
+        assertEquals(cachedUrl, cache.getIfPresent("abc123"));
+        assertNull(cache.getIfPresent("other12"));
+    }
+
+    /**
+     * Test to ensure that unknown short URLs can be cached as misses.
+     */
+    @Test
+    public void testNegativeEntry() {
+        cache.put("unknown1", CachedUrl.MISSING);
+
+        assertTrue(cache.getIfPresent("unknown1").isMissing());
+    }
+
+    /**
+     * Test to ensure that invalidated short URLs are removed from the cache.
+     */
+    @Test
+    public void testInvalidate() {
+        cache.put("abc123", new CachedUrl(1L, "http://example.com", null, 1L));
+        cache.put("def456", CachedUrl.MISSING);
+
+        cache.invalidate("abc123", "def456", null);
+
+        assertNull(cache.getIfPresent("abc123"));
+        assertNull(cache.getIfPresent("def456"));
+    }
+
+    /**
+     * Test to ensure that an expired URL is still cached so that it can be answered as gone.
+     */
+    @Test
+    public void testExpiredUrlIsCached() {
+        CachedUrl cachedUrl = new CachedUrl(1L, "http://example.com", LocalDateTime.now().minusDays(1), 1L);
+        cache.put("abc123", cachedUrl);
+
+        assertTrue(cache.getIfPresent("abc123").isExpiredAt(LocalDateTime.now()));
+    }
+
+    /**
+     * Test to ensure that a resolution read before an invalidation is not cached after it.
+     */
+    @Test
+    public void testStalePutAfterInvalidateIsIgnored() {
+        long stamp = cache.stamp();
+        cache.invalidate("abc123");
+
+        assertFalse(cache.put("abc123", new CachedUrl(1L, "http://old.example.com", null, 1L), stamp));
+        assertNull(cache.getIfPresent("abc123"));
+
+        CachedUrl current = new CachedUrl(1L, "http://new.example.com", null, 1L);
+        assertTrue(cache.put("abc123", current, cache.stamp()));
+        assertEquals(current, cache.getIfPresent("abc123"));
+    }
+
+    /**
+     * Test to ensure that an invalidation inside a transaction also removes what a concurrent lookup cached
+     * before the commit, and rejects lookups still running at the commit.
+     */
+    @Test
+    public void testInvalidateInTransactionEvictsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate("abc123");
+
+            long stamp = cache.stamp();
+            assertTrue(cache.put("abc123", new CachedUrl(1L, "http://old.example.com", null, 1L), stamp));
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+            assertNull(cache.getIfPresent("abc123"));
+            assertFalse(cache.put("abc123", new CachedUrl(1L, "http://old.example.com", null, 1L), stamp));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
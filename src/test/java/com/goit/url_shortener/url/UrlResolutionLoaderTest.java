@@ -0,0 +1,124 @@
+package com.goit.url_shortener.url;
+
+import com.goit.url_shortener.datasource.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the `UrlResolutionLoader` class, reading from a replica that lags behind the primary.
+ */
+@ExtendWith(MockitoExtension.class)
+public class UrlResolutionLoaderTest {
+
+    private static final CachedUrl OLD = new CachedUrl(1L, "http://old.example.com", null, 1L);
+    private static final CachedUrl NEW = new CachedUrl(1L, "http://new.example.com", null, 1L);
+
+    @Mock
+    private UrlRepository urlRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ObjectProvider<ReplicaRoutingDataSource> replicaDataSource;
+
+    @Mock
+    private ReplicaRoutingDataSource replicas;
+
+    private final UrlResolutionCache cache = new UrlResolutionCache(100, 600, 30);
+
+    /**
+     * Whether the current read runs in a transaction that is not read-only, and so on the primary.
+     */
+    private boolean onPrimary;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            TransactionDefinition definition = invocation.getArgument(0);
+            onPrimary = !definition.isReadOnly();
+            return null;
+        });
+        lenient().doAnswer(invocation -> onPrimary = false).when(transactionManager).commit(any());
+    }
+
+    /**
+     * Test to ensure that a short URL unknown to the replica is read from the primary before caching it.
+     */
+    @Test
+    public void testLoad_MissingOnReplicaReadFromPrimary() {
+        UrlResolutionLoader loader = loader(replicas);
+        when(urlRepository.findResolutionByShortUrl("abc123"))
+                .thenAnswer(invocation -> onPrimary ? Optional.of(NEW) : Optional.empty());
+
+        assertEquals(NEW, loader.load("abc123"));
+        assertEquals(NEW, cache.getIfPresent("abc123"));
+        verify(urlRepository, times(2)).findResolutionByShortUrl("abc123");
+    }
+
+    /**
+     * Test to ensure that a short URL changed moments ago is read from the primary, not from the replica
+     * still returning its previous state.
+     */
+    @Test
+    public void testLoad_RecentlyInvalidatedReadFromPrimary() {
+        UrlResolutionLoader loader = loader(replicas);
+        when(urlRepository.findResolutionByShortUrl("abc123"))
+                .thenAnswer(invocation -> Optional.of(onPrimary ? NEW : OLD));
+        cache.invalidate("abc123");
+
+        assertEquals(NEW, loader.load("abc123"));
+        assertEquals(NEW, cache.getIfPresent("abc123"));
+        verify(urlRepository, times(1)).findResolutionByShortUrl("abc123");
+    }
+
+    /**
+     * Test to ensure that a short URL known to the replica is cached from a single read in a read-only
+     * transaction.
+     */
+    @Test
+    public void testLoad_FoundOnReplica() {
+        UrlResolutionLoader loader = loader(replicas);
+        when(urlRepository.findResolutionByShortUrl("abc123")).thenReturn(Optional.of(OLD));
+
+        assertEquals(OLD, loader.load("abc123"));
+        verify(urlRepository, times(1)).findResolutionByShortUrl("abc123");
+        verify(transactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager, never()).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
+
+    /**
+     * Test to ensure that without replicas an unknown short URL is cached as a miss from a single read.
+     */
+    @Test
+    public void testLoad_WithoutReplicas() {
+        UrlResolutionLoader loader = loader(null);
+        when(urlRepository.findResolutionByShortUrl("abc123")).thenReturn(Optional.empty());
+
+        assertTrue(loader.load("abc123").isMissing());
+        assertTrue(cache.getIfPresent("abc123").isMissing());
+        verify(urlRepository, times(1)).findResolutionByShortUrl("abc123");
+    }
+
+    private UrlResolutionLoader loader(ReplicaRoutingDataSource configured) {
+        when(replicaDataSource.getIfAvailable()).thenReturn(configured);
+        return new UrlResolutionLoader(urlRepository, cache, transactionManager, replicaDataSource, 1000, 1000);
+    }
+}
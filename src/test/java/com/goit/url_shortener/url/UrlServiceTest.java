@@ -16,6 +16,9 @@ import java.util.Optional;
 
 import static com.goit.url_shortener.util.MessageProvider.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -45,6 +48,24 @@ public class UrlServiceTest {
     @Mock
     private ShortUrlGenerator urlGenerator;
 
+    @Mock
+    private UrlResolutionCache resolutionCache;
+
+    @Mock
+    private VisitCounter visitCounter;
+
+    @Mock
+    private UrlDeduplicator deduplicator;
+
+    @Mock
+    private ShortCodeFilter shortCodeFilter;
+
+    @Mock
+    private HotLinkTracker hotLinkTracker;
+
+    @Mock
+    private UrlResolutionLoader resolutionLoader;
+
 
     /**
      * Test for `getShortUrlFromLongUrl` method in `UrlServiceImpl`.
@@ -68,6 +89,41 @@ public class UrlServiceTest {
         assertEquals(HttpStatus.CREATED, response.getStatus());
         assertEquals("shortUrl123", response.getShortUrl());
         assertEquals("http://example.com", response.getLongUrl());
+        verify(shortCodeFilter).add("shortUrl123");
+    }
+
+    /**
+     * Test for `getShortUrlFromLongUrl` method in `UrlServiceImpl`.
+     * This test verifies that a repeated submission returns the existing short URL without creating a new one.
+     */
+    @Test
+    public void testGetShortUrlFromLongUrl_AlreadyShortened() {
+        UrlRequest request = new UrlRequest();
+        request.setUrl("http://example.com");
+        request.setAuthorizationHeader("Bearer validToken");
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+
+        Url existing = Url.builder()
+                .shortUrl("shortUrl123")
+                .longUrl("http://EXAMPLE.com")
+                .user(user)
+                .build();
+
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user));
+        when(validator.isValid("http://example.com")).thenReturn(true);
+        when(deduplicator.hash("http://example.com")).thenReturn(42L);
+        when(deduplicator.findExisting(1L, "http://example.com", 42L, null)).thenReturn(Optional.of(existing));
+
+        UrlResponse response = urlService.getShortUrlFromLongUrl(request);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals("shortUrl123", response.getShortUrl());
+        assertEquals(URL_ALREADY_EXISTS_MESSAGE, response.getMessage());
+        verify(urlGenerator, never()).generateShortUrl();
+        verify(urlRepository, never()).save(any());
     }
 
     /**
@@ -101,16 +157,70 @@ public class UrlServiceTest {
         UrlRequest request = new UrlRequest();
         request.setUrl("shortUrl123");
 
-        Url url = new Url();
-        url.setLongUrl("http://example.com");
-        url.setExpiresAt(LocalDateTime.now().plusDays(1));
+        when(resolutionLoader.load("shortUrl123")).thenReturn(
+                new CachedUrl(1L, "http://example.com", LocalDateTime.now().plusDays(1), 1L));
 
-        when(urlRepository.findUrlByShortUrl("shortUrl123")).thenReturn(Optional.of(url));
+        UrlResponse response = urlService.getLongUrlFromShortUrl(request);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals("http://example.com", response.getLongUrl());
+    }
+
+    /**
+     * Test for `getLongUrlFromShortUrl` method in `UrlServiceImpl`.
+     * This test verifies that a cached resolution is served without querying the database.
+     */
+    @Test
+    public void testGetLongUrlFromShortUrl_CacheHit() {
+        UrlRequest request = new UrlRequest();
+        request.setUrl("shortUrl123");
+
+        when(resolutionCache.getIfPresent("shortUrl123"))
+                .thenReturn(new CachedUrl(1L, "http://example.com", null, 1L));
 
         UrlResponse response = urlService.getLongUrlFromShortUrl(request);
 
         assertEquals(HttpStatus.OK, response.getStatus());
         assertEquals("http://example.com", response.getLongUrl());
+        verify(resolutionLoader, never()).load("shortUrl123");
+        verify(visitCounter).increment(1L);
+        verify(hotLinkTracker).record(1L, "shortUrl123", 1L);
+    }
+
+    /**
+     * Test for `getLongUrlFromShortUrl` method in `UrlServiceImpl`.
+     * This test verifies that a cached miss is answered with `NOT_FOUND` without querying the database.
+     */
+    @Test
+    public void testGetLongUrlFromShortUrl_CachedMiss() {
+        UrlRequest request = new UrlRequest();
+        request.setUrl("unknown123");
+
+        when(resolutionCache.getIfPresent("unknown123")).thenReturn(CachedUrl.MISSING);
+
+        UrlResponse response = urlService.getLongUrlFromShortUrl(request);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatus());
+        assertEquals(URL_NOT_FOUND_MESSAGE, response.getMessage());
+        verify(resolutionLoader, never()).load("unknown123");
+    }
+
+    /**
+     * Test for `getLongUrlFromShortUrl` method in `UrlServiceImpl`.
+     * This test verifies that a code rejected by the short code filter is answered with `NOT_FOUND`
+     * without querying the database or caching the miss.
+     */
+    @Test
+    public void testGetLongUrlFromShortUrl_RejectedByFilter() {
+        UrlRequest request = new UrlRequest();
+        request.setUrl("unknown123");
+
+        when(shortCodeFilter.isDefinitelyAbsent("unknown123")).thenReturn(true);
+
+        UrlResponse response = urlService.getLongUrlFromShortUrl(request);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatus());
+        verify(resolutionLoader, never()).load("unknown123");
     }
 
     /**
@@ -122,11 +232,8 @@ public class UrlServiceTest {
         UrlRequest request = new UrlRequest();
         request.setUrl("shortUrl123");
 
-        Url url = new Url();
-        url.setLongUrl("http://example.com");
-        url.setExpiresAt(LocalDateTime.now().minusDays(1));
-
-        when(urlRepository.findUrlByShortUrl("shortUrl123")).thenReturn(Optional.of(url));
+        when(resolutionLoader.load("shortUrl123")).thenReturn(
+                new CachedUrl(1L, "http://example.com", LocalDateTime.now().minusDays(1), 1L));
 
         UrlResponse response = urlService.getLongUrlFromShortUrl(request);
 
@@ -0,0 +1,145 @@
+package com.goit.url_shortener.url;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the `VisitCounter` class.
+ */
+public class VisitCounterTest {
+
+    private final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+    private final VisitCounter visitCounter = new VisitCounter(jdbcTemplate, 2);
+
+    /**
+     * Test to ensure that visits are accumulated per URL until they are flushed.
+     */
+    @Test
+    public void testIncrement() {
+        visitCounter.increment(1L);
+        visitCounter.increment(1L);
+        visitCounter.increment(2L);
+        visitCounter.increment(null);
+
+        assertEquals(2, visitCounter.pendingVisits(1L));
+        assertEquals(1, visitCounter.pendingVisits(2L));
+        assertEquals(3, visitCounter.pendingVisits());
+        assertEquals(2, visitCounter.pendingUrls());
+    }
+
+    /**
+     * Test to ensure that a flush writes the pending visits in batches and resets the counters.
+     */
+    @Test
+    public void testFlush() {
+        for (long id = 1; id <= 3; id++) {
+            visitCounter.increment(id);
+        }
+
+        visitCounter.flush();
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(PreparedStatementSetter.class));
+        assertEquals(0, visitCounter.pendingVisits());
+        assertEquals(3, visitCounter.flushedVisits());
+    }
+
+    /**
+     * Test to ensure that idle counters are removed on the following flush.
+     */
+    @Test
+    public void testFlush_RemovesIdleCounters() {
+        visitCounter.increment(1L);
+
+        visitCounter.flush();
+        visitCounter.flush();
+
+        assertEquals(0, visitCounter.pendingUrls());
+    }
+
+    /**
+     * Test to ensure that visits of a failed flush are kept for the next attempt.
+     */
+    @Test
+    public void testFlush_Failure() {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("Database is unavailable"));
+
+        visitCounter.increment(1L);
+        visitCounter.increment(1L);
+
+        visitCounter.flush();
+
+        assertEquals(2, visitCounter.pendingVisits(1L));
+        assertEquals(1, visitCounter.failedFlushes());
+    }
+
+    /**
+     * Test to ensure that no visit is lost while counters are flushed and retired concurrently.
+     */
+    @Test
+    public void testFlush_ConcurrentIncrements() throws Exception {
+        AtomicLong written = new AtomicLong();
+        doAnswer(invocation -> {
+            List<Object[]> arrays = new ArrayList<>();
+            Connection connection = mock(Connection.class);
+            when(connection.createArrayOf(eq("bigint"), any())).thenAnswer(create -> {
+                arrays.add(create.getArgument(1));
+                return null;
+            });
+            PreparedStatement statement = mock(PreparedStatement.class);
+            when(statement.getConnection()).thenReturn(connection);
+            invocation.getArgument(1, PreparedStatementSetter.class).setValues(statement);
+            for (Object delta : arrays.get(1)) {
+                written.addAndGet((Long) delta);
+            }
+            return arrays.get(0).length;
+        }).when(jdbcTemplate).update(anyString(), any(PreparedStatementSetter.class));
+
+        int threads = 4;
+        int visitsPerThread = 200_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> visitors = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            visitors.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < visitsPerThread; i++) {
+                    visitCounter.increment((long) (i % 1024));
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        while (!visitors.stream().allMatch(Future::isDone)) {
+            visitCounter.flush();
+        }
+        for (Future<?> visitor : visitors) {
+            visitor.get();
+        }
+        executor.shutdown();
+        visitCounter.flush();
+
+        assertEquals((long) threads * visitsPerThread, written.get());
+        assertEquals(0, visitCounter.pendingVisits());
+    }
+}
@@ -0,0 +1,100 @@
+package com.goit.url_shortener.url.code;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the `ShortCodeStrategy` implementations and the `Base62` encoding.
+ */
+public class ShortCodeStrategyTest {
+
+    /**
+     * Test to ensure that numbers are encoded with the Base62 alphabet and padded on request.
+     */
+    @Test
+    public void testBase62Encode() {
+        assertEquals("a", Base62.encode(0));
+        assertEquals("9", Base62.encode(61));
+        assertEquals("ba", Base62.encode(62));
+        assertEquals("aaaba", Base62.encode(62, 5));
+        assertThrows(IllegalArgumentException.class, () -> Base62.encode(-1));
+    }
+
+    /**
+     * Test to ensure that random codes have a valid length and consist of valid characters.
+     */
+    @Test
+    public void testRandomStrategy() {
+        for (String source : new String[]{"thread-local", "secure"}) {
+            RandomShortCodeStrategy strategy = new RandomShortCodeStrategy(source);
+            String code = strategy.nextCode();
+
+            assertTrue(code.length() >= RandomShortCodeStrategy.MIN_SHORT_URL_LENGTH
+                    && code.length() <= RandomShortCodeStrategy.MAX_SHORT_URL_LENGTH);
+            assertTrue(code.chars().allMatch(Character::isLetterOrDigit));
+            assertFalse(strategy.isCollisionFree());
+        }
+    }
+
+    /**
+     * Test to ensure that consecutive sequence numbers are mapped to distinct codes of fixed length,
+     * which are still checked against the codes stored by the random strategy.
+     */
+    @Test
+    public void testSequenceStrategy() {
+        SequenceBlockAllocator allocator = Mockito.mock(SequenceBlockAllocator.class);
+        when(allocator.nextValue()).thenReturn(1L, 2L, 3L);
+        SequenceShortCodeStrategy strategy = new SequenceShortCodeStrategy(allocator);
+
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            String code = strategy.nextCode();
+            assertEquals(SequenceShortCodeStrategy.CODE_LENGTH, code.length());
+            codes.add(code);
+        }
+
+        assertEquals(3, codes.size());
+        assertFalse(strategy.isCollisionFree());
+    }
+
+    /**
+     * Test to ensure that the sequence mix does not map two numbers to the same code.
+     */
+    @Test
+    public void testSequenceMixIsUnique() {
+        Set<Long> mixed = new HashSet<>();
+        for (long value = 0; value < 100_000; value++) {
+            assertTrue(mixed.add(SequenceShortCodeStrategy.mix(value)));
+        }
+    }
+
+    /**
+     * Test to ensure that Snowflake identifiers stay unique within one millisecond and when the clock goes back.
+     */
+    @Test
+    public void testSnowflakeStrategy() {
+        long[] now = {SnowflakeShortCodeStrategy.EPOCH_MILLIS + 1000};
+        SnowflakeShortCodeStrategy strategy = new SnowflakeShortCodeStrategy(7, () -> now[0]);
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(ids.add(strategy.nextId()));
+        }
+        now[0] -= 500;
+        assertTrue(ids.add(strategy.nextId()));
+    }
+
+    /**
+     * Test to ensure that invalid node identifiers are rejected.
+     */
+    @Test
+    public void testSnowflakeInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeShortCodeStrategy(1024));
+    }
+}
@@ -0,0 +1,72 @@
+package com.goit.url_shortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the BloomFilter class.
+ *
+ * The tests verify that added keys are always reported, and that the false positive rate of a filter
+ * filled to its expected size stays close to the rate it was sized for.
+ */
+public class BloomFilterTest {
+
+    /**
+     * Test to ensure that every added key is reported as possibly contained.
+     */
+    @Test
+    public void testMightContain_AddedKeys() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        for (long key = 0; key < 10_000; key++) {
+            filter.put(key * 7919);
+        }
+
+        for (long key = 0; key < 10_000; key++) {
+            assertTrue(filter.mightContain(key * 7919));
+        }
+    }
+
+    /**
+     * Test to ensure that the false positive rate of a full filter stays close to the configured rate.
+     */
+    @Test
+    public void testMightContain_FalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        for (long key = 0; key < 10_000; key++) {
+            filter.put(key);
+        }
+
+        int falsePositives = 0;
+        for (long key = 10_000; key < 110_000; key++) {
+            if (filter.mightContain(key)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    /**
+     * Test to ensure that an empty filter contains nothing.
+     */
+    @Test
+    public void testMightContain_Empty() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain(42));
+        assertEquals(0.0, filter.expectedFalsePositiveRate());
+    }
+
+    /**
+     * Test to ensure that invalid sizing arguments are rejected.
+     */
+    @Test
+    public void testConstructor_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}
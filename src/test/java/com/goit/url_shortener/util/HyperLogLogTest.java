@@ -0,0 +1,101 @@
+package com.goit.url_shortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the HyperLogLog class.
+ *
+ * The tests verify that estimates stay within a few standard errors of the true cardinality in both the sparse
+ * and the dense representation, that merging is idempotent, and that sketches survive serialization.
+ */
+public class HyperLogLogTest {
+
+    /**
+     * Test to ensure that small cardinalities are estimated almost exactly and duplicates are not counted.
+     */
+    @Test
+    public void testEstimate_Small() {
+        HyperLogLog sketch = new HyperLogLog(11);
+        SplittableRandom random = new SplittableRandom(1);
+        long[] hashes = random.longs(100).toArray();
+
+        for (int round = 0; round < 3; round++) {
+            for (long hash : hashes) {
+                sketch.add(hash);
+            }
+        }
+
+        assertEquals(100, sketch.estimate(), 5);
+    }
+
+    /**
+     * Test to ensure that large cardinalities are estimated within three standard errors.
+     */
+    @Test
+    public void testEstimate_Large() {
+        HyperLogLog sketch = new HyperLogLog(11);
+        new SplittableRandom(2).longs(1_000_000).forEach(sketch::add);
+
+        assertEquals(1_000_000, sketch.estimate(), 1_000_000 * 3 * 1.04 / Math.sqrt(2048));
+    }
+
+    /**
+     * Test to ensure that merged sketches estimate the union, and that merging the same sketch again changes nothing.
+     */
+    @Test
+    public void testMerge() {
+        HyperLogLog first = new HyperLogLog(11);
+        HyperLogLog second = new HyperLogLog(11);
+        long[] hashes = new SplittableRandom(4).longs(30_000).toArray();
+        for (int i = 0; i < 20_000; i++) {
+            first.add(hashes[i]);
+        }
+        for (int i = 10_000; i < 30_000; i++) {
+            second.add(hashes[i]);
+        }
+
+        first.merge(second);
+        long estimate = first.estimate();
+        first.merge(second);
+
+        assertEquals(30_000, estimate, 30_000 * 3 * 1.04 / Math.sqrt(2048));
+        assertEquals(estimate, first.estimate());
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new HyperLogLog(12)));
+    }
+
+    /**
+     * Test to ensure that sparse and dense sketches are restored with the same estimate,
+     * and that sparse sketches are serialized compactly.
+     */
+    @Test
+    public void testToBytes_RoundTrip() {
+        HyperLogLog sparse = new HyperLogLog(11);
+        new SplittableRandom(4).longs(10).forEach(sparse::add);
+        HyperLogLog dense = new HyperLogLog(11);
+        new SplittableRandom(5).longs(50_000).forEach(dense::add);
+
+        byte[] sparseBytes = sparse.toBytes();
+        byte[] denseBytes = dense.toBytes();
+
+        assertEquals(1 + 10 * 3, sparseBytes.length);
+        assertEquals(1 + 2048, denseBytes.length);
+        assertEquals(sparse.estimate(), HyperLogLog.fromBytes(sparseBytes).estimate());
+        assertEquals(dense.estimate(), HyperLogLog.fromBytes(denseBytes).estimate());
+        assertEquals(1, new HyperLogLog(11).toBytes().length);
+    }
+
+    /**
+     * Test to ensure that malformed bytes and invalid precisions are rejected.
+     */
+    @Test
+    public void testFromBytes_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{11, 1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{(byte) 0x8B, 1}));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    }
+}
@@ -0,0 +1,82 @@
+package com.goit.url_shortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the MpscRingBuffer class.
+ *
+ * The tests verify the FIFO order, the rejection of elements when the buffer is full,
+ * and that no element is lost or duplicated with concurrent producers.
+ */
+public class MpscRingBufferTest {
+
+    /**
+     * Test to ensure that elements are polled in the order they were offered and that a full buffer rejects offers.
+     */
+    @Test
+    public void testOfferPoll_Order() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertTrue(buffer.offer(5));
+        assertEquals(5, buffer.poll());
+    }
+
+    /**
+     * Test to ensure that every element offered by concurrent producers is polled exactly once.
+     */
+    @Test
+    public void testOfferPoll_ConcurrentProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+
+        Set<Integer> polled = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (polled.size() < producers * perProducer && System.nanoTime() < deadline) {
+            Integer element = buffer.poll();
+            if (element != null) {
+                assertTrue(polled.add(element), "Duplicate element " + element);
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(producers * perProducer, polled.size());
+        assertNull(buffer.poll());
+    }
+}
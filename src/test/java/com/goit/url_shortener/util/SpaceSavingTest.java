@@ -0,0 +1,82 @@
+package com.goit.url_shortener.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SpaceSaving class.
+ *
+ * The tests verify that counts are exact while the summary is not full, and that frequent keys
+ * are kept with bounded overestimation when the stream has more distinct keys than the capacity.
+ */
+public class SpaceSavingTest {
+
+    /**
+     * Test to ensure that keys are counted exactly while there is room for all of them.
+     */
+    @Test
+    public void testOffer_ExactCounts() {
+        SpaceSaving<String> summary = new SpaceSaving<>(4);
+        for (String key : new String[]{"a", "b", "a", "c", "a", "b"}) {
+            summary.offer(key);
+        }
+
+        Map<String, Long> counts = counts(summary);
+
+        assertEquals(Map.of("a", 3L, "b", 2L, "c", 1L), counts);
+    }
+
+    /**
+     * Test to ensure that heavy hitters survive a long tail of rare keys and their counts stay within the error.
+     */
+    @Test
+    public void testOffer_HeavyHitters() {
+        SpaceSaving<Integer> summary = new SpaceSaving<>(50);
+        Random random = new Random(42);
+        int heavy = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (i % 10 == 0) {
+                summary.offer(-1);
+                heavy++;
+            } else {
+                summary.offer(random.nextInt(10_000));
+            }
+        }
+
+        long[] entry = new long[2];
+        summary.forEach((key, count, error) -> {
+            if (key == -1) {
+                entry[0] = count;
+                entry[1] = error;
+            }
+        });
+
+        assertEquals(50, summary.size());
+        assertTrue(entry[0] >= heavy);
+        assertTrue(entry[0] - entry[1] <= heavy);
+    }
+
+    /**
+     * Test to ensure that a cleared summary tracks nothing.
+     */
+    @Test
+    public void testClear() {
+        SpaceSaving<String> summary = new SpaceSaving<>(2);
+        summary.offer("a");
+        summary.clear();
+        summary.offer("b");
+
+        assertEquals(Map.of("b", 1L), counts(summary));
+    }
+
+    private static <K> Map<K, Long> counts(SpaceSaving<K> summary) {
+        Map<K, Long> counts = new HashMap<>();
+        summary.forEach((key, count, error) -> counts.put(key, count));
+        return counts;
+    }
+}
@@ -0,0 +1,166 @@
+package com.goit.url_shortener.v2;
+
+import com.goit.url_shortener.security.AuthorizationService;
+import com.goit.url_shortener.url.CachedUrl;
+import com.goit.url_shortener.url.ShortCodeFilter;
+import com.goit.url_shortener.url.ShortUrlGenerator;
+import com.goit.url_shortener.url.Url;
+import com.goit.url_shortener.url.UrlDeduplicator;
+import com.goit.url_shortener.url.UrlResolution;
+import com.goit.url_shortener.url.UrlResolutionCache;
+import com.goit.url_shortener.url.UrlService;
+import com.goit.url_shortener.url.code.SequenceBlockAllocator;
+import com.goit.url_shortener.url.dto.UrlRequest;
+import com.goit.url_shortener.url.dto.UrlResponse;
+import com.goit.url_shortener.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.Optional;
+
+import static com.goit.url_shortener.util.MessageProvider.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ReactiveUrlService class.
+ *
+ * The tests verify that cached and filtered short codes are resolved without querying the database,
+ * and that creation requests are authenticated, validated and deduplicated like in version 1.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReactiveUrlServiceTest {
+
+    @Mock
+    private UrlService urlService;
+
+    @Mock
+    private AuthorizationService authorizationService;
+
+    @Mock
+    private ShortUrlGenerator urlGenerator;
+
+    @Mock
+    private UrlDeduplicator deduplicator;
+
+    @Mock
+    private ShortCodeFilter shortCodeFilter;
+
+    @Mock
+    private UrlResolutionCache resolutionCache;
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private SequenceBlockAllocator idAllocator;
+
+    private ReactiveUrlService reactiveUrlService;
+
+    @BeforeEach
+    public void setUp() {
+        reactiveUrlService = new ReactiveUrlService(urlService, authorizationService, urlGenerator, deduplicator,
+                shortCodeFilter, resolutionCache, databaseClient, idAllocator);
+    }
+
+    /**
+     * Test to ensure that a cached short code is resolved by the shared visit recording without a query.
+     */
+    @Test
+    public void testResolve_Cached() {
+        CachedUrl cachedUrl = new CachedUrl(1L, "http://example.com", null, 1L);
+        when(resolutionCache.getIfPresent("abc123")).thenReturn(cachedUrl);
+        when(urlService.resolve("abc123", cachedUrl)).thenReturn(UrlResolution.found(cachedUrl));
+
+        UrlResolution resolution = reactiveUrlService.resolve("abc123").block();
+
+        assertNotNull(resolution);
+        assertEquals("http://example.com", resolution.cachedUrl().longUrl());
+        verifyNoInteractions(databaseClient);
+    }
+
+    /**
+     * Test to ensure that codes rejected by the filter are not found without a query.
+     */
+    @Test
+    public void testResolve_FilteredOut() {
+        when(shortCodeFilter.isDefinitelyAbsent("unknown")).thenReturn(true);
+
+        assertEquals(UrlResolution.NOT_FOUND, reactiveUrlService.resolve("unknown").block());
+        verifyNoInteractions(databaseClient);
+    }
+
+    /**
+     * Test to ensure that an unauthenticated creation request is rejected.
+     */
+    @Test
+    public void testCreate_Unauthorized() {
+        when(authorizationService.getAuthorizedUser("Bearer invalidToken")).thenReturn(Optional.empty());
+
+        UrlResponse response = reactiveUrlService.create(request("http://example.com", "Bearer invalidToken")).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatus());
+        assertEquals(NOT_AUTHENTICATED_MESSAGE, response.getMessage());
+        verifyNoInteractions(databaseClient);
+    }
+
+    /**
+     * Test to ensure that creation requests are validated by the shared validation of version 1.
+     */
+    @Test
+    public void testCreate_Invalid() {
+        UrlRequest request = request("invalid", "Bearer validToken");
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user()));
+        when(urlService.validateCreation(request))
+                .thenReturn(Optional.of(UrlResponse.failed(INCORRECT_URL_MESSAGE, HttpStatus.BAD_REQUEST)));
+
+        UrlResponse response = reactiveUrlService.create(request).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatus());
+        verifyNoInteractions(urlGenerator, databaseClient);
+    }
+
+    /**
+     * Test to ensure that a URL already shortened by the user is returned instead of creating a new one.
+     */
+    @Test
+    public void testCreate_AlreadyShortened() {
+        UrlRequest request = request("http://example.com", "Bearer validToken");
+        Url existing = Url.builder().shortUrl("abc123").longUrl("http://example.com").build();
+        when(authorizationService.getAuthorizedUser("Bearer validToken")).thenReturn(Optional.of(user()));
+        when(urlService.validateCreation(request)).thenReturn(Optional.empty());
+        when(deduplicator.hash("http://example.com")).thenReturn(42L);
+        when(deduplicator.findExisting(1L, "http://example.com", 42L, null)).thenReturn(Optional.of(existing));
+
+        UrlResponse response = reactiveUrlService.create(request).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals("abc123", response.getShortUrl());
+        assertEquals(URL_ALREADY_EXISTS_MESSAGE, response.getMessage());
+        verify(urlGenerator, never()).generateShortUrl();
+        verify(databaseClient, never()).sql(any(String.class));
+    }
+
+    private static UrlRequest request(String url, String header) {
+        UrlRequest request = new UrlRequest();
+        request.setUrl(url);
+        request.setAuthorizationHeader(header);
+        return request;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+        return user;
+    }
+}
@@ -0,0 +1,27 @@
+-- Click counts per URL and per user, aggregated from url_shortener.clicks into hourly and daily buckets.
+CREATE TABLE IF NOT EXISTS url_shortener.url_click_rollups
+(
+    url_id      BIGINT     NOT NULL,
+    granularity VARCHAR(5) NOT NULL,
+    bucket      TIMESTAMP  NOT NULL,
+    clicks      BIGINT     NOT NULL,
+    PRIMARY KEY (url_id, granularity, bucket)
+);
+
+CREATE TABLE IF NOT EXISTS url_shortener.user_click_rollups
+(
+    user_id     BIGINT     NOT NULL,
+    granularity VARCHAR(5) NOT NULL,
+    bucket      TIMESTAMP  NOT NULL,
+    clicks      BIGINT     NOT NULL,
+    PRIMARY KEY (user_id, granularity, bucket)
+);
+
+-- Clicks before processed_until have been aggregated. NULL until the first run of the rollup job.
+CREATE TABLE IF NOT EXISTS url_shortener.click_rollup_watermark
+(
+    id              SMALLINT PRIMARY KEY,
+    processed_until TIMESTAMP
+);
+
+INSERT INTO url_shortener.click_rollup_watermark (id, processed_until) VALUES (1, NULL);
@@ -0,0 +1,5 @@
+-- Serve the statistics of a user without scanning the table. Every index ends with the id, so URLs sorted
+-- by id, creation or expiration date can be paged with a keyset cursor without sorting, in either direction.
+CREATE INDEX idx_urls_user_id_id ON url_shortener.urls (user_id, id);
+CREATE INDEX idx_urls_user_id_created_at ON url_shortener.urls (user_id, created_at, id);
+CREATE INDEX idx_urls_user_id_expires_at ON url_shortener.urls (user_id, expires_at, id);
@@ -0,0 +1,3 @@
+CREATE SEQUENCE IF NOT EXISTS url_shortener.short_code_seq
+    START WITH 1
+    INCREMENT BY ${short_code_block_size};
@@ -0,0 +1,4 @@
+-- Identifiers are leased in blocks of ${id_allocation_size}: every nextval reserves the range
+-- [value, value + ${id_allocation_size}) for the caller (Hibernate pooled-lo optimizer).
+ALTER SEQUENCE url_shortener.users_id_seq INCREMENT BY ${id_allocation_size};
+ALTER SEQUENCE url_shortener.urls_id_seq INCREMENT BY ${id_allocation_size};
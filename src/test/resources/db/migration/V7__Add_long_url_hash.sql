@@ -0,0 +1,6 @@
+-- Hash of the canonical long URL, used to find repeated submissions of the same URL by the same user.
+-- URLs created before this migration have no hash and are not deduplicated.
+ALTER TABLE url_shortener.urls ADD COLUMN long_url_hash BIGINT;
+
+CREATE INDEX idx_urls_user_id_long_url_hash ON url_shortener.urls (user_id, long_url_hash)
+    WHERE long_url_hash IS NOT NULL;
@@ -0,0 +1,15 @@
+-- Lets the reaper find expired URLs without scanning the table.
+CREATE INDEX idx_urls_expires_at ON url_shortener.urls (expires_at) WHERE expires_at IS NOT NULL;
+
+-- Expired URLs removed by the reaper when url.reaper.archive is enabled.
+CREATE TABLE IF NOT EXISTS url_shortener.expired_urls
+(
+    id          BIGINT PRIMARY KEY,
+    long_url    VARCHAR(2000) NOT NULL,
+    short_url   VARCHAR(50)   NOT NULL,
+    visits      BIGINT        NOT NULL,
+    created_at  TIMESTAMP     NOT NULL,
+    expires_at  TIMESTAMP     NOT NULL,
+    user_id     BIGINT        NOT NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);